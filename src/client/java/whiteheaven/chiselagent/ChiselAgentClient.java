@@ -6,7 +6,10 @@ import net.fabricmc.fabric.api.client.rendering.v1.EntityModelLayerRegistry;
 import net.fabricmc.fabric.api.client.rendering.v1.EntityRendererRegistry;
 import net.minecraft.client.render.entity.model.EntityModelLayer;
 import net.minecraft.util.Identifier;
+import whiteheaven.chiselagent.client.AgentRenderProfiler;
 import whiteheaven.chiselagent.client.AgentRenderer;
+import whiteheaven.chiselagent.client.AgentSkins;
+import whiteheaven.chiselagent.client.GhostAgentManager;
 import whiteheaven.chiselagent.client.RobotPatchModel;
 import whiteheaven.chiselagent.registry.ModEntities;
 
@@ -24,5 +27,15 @@ public class ChiselAgentClient implements ClientModInitializer {
                 () -> RobotPatchModel.getTexturedModelData(true));
 
         EntityRendererRegistry.register(ModEntities.AGENT, AgentRenderer::new);
+
+        // 고스트 모드: 서버 레코드 → 클라이언트 로컬 에이전트
+        GhostAgentManager.register();
+
+        // 주인 스킨 비동기 프리페치 + 디스크 캐시
+        AgentSkins.register();
+        AgentRenderer.register();
+
+        // 렌더 비용 디버그 HUD (/agentperf)
+        AgentRenderProfiler.register();
     }
 }
@@ -0,0 +1,214 @@
+// src/client/java/whiteheaven/chiselagent/client/AgentRenderProfiler.java
+package whiteheaven.chiselagent.client;
+
+import com.mojang.brigadier.Command;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 에이전트 렌더 비용 프로파일러 + 디버그 HUD
+ * <p>
+ * - 단계별(전체 렌더 / 스킨 조회 / 로봇 패치 / 이름표) 프레임당 누적 시간을 nanoTime으로 측정
+ * - 최근 {@link #WINDOW}프레임 링버퍼 → 평균/p99 표시 (통계는 10프레임마다 재계산)
+ * - 카메라 거리 티어(근/중/원)별 에이전트 수와 렌더 시간도 함께 집계
+ * - 꺼져 있으면 begin()이 0을 돌려주고 end()는 즉시 반환 (정적 boolean 1회 검사)
+ * </p>
+ * 명령어 (클라이언트 전용):
+ * - /agentperf       : HUD 토글
+ * - /agentperf copy  : 현재 통계를 클립보드로 복사 (성능 리포트 첨부용)
+ * <p>
+ * 렌더 스레드 전용
+ */
+public final class AgentRenderProfiler {
+    private AgentRenderProfiler() {}
+
+    /** 측정 단계 */
+    public enum Phase {
+        RENDER("render"),  // AgentRenderer.render 전체 (아래 단계 포함)
+        SKIN("skin"),      // 스킨 조회
+        PATCH("patch"),    // RobotPatchFeatureRenderer
+        LABEL("label");    // 이름표
+
+        final String label;
+        Phase(String label) { this.label = label; }
+    }
+
+    // 카메라 거리 티어 경계 (블록)
+    private static final double NEAR = 16.0;
+    private static final double MID  = 32.0;
+    private static final String[] TIER_NAMES = {"near", "mid", "far"};
+
+    private static final int WINDOW = 240;          // 롤링 창 (프레임)
+    private static final int STATS_EVERY = 10;      // 통계 재계산 주기 (프레임)
+    private static final int PHASES = Phase.values().length;
+    private static final int TIERS = TIER_NAMES.length;
+
+    private static boolean enabled = false;
+
+    // 현재 프레임 누적
+    private static final long[] frameNanos = new long[PHASES];
+    private static final long[] frameTierNanos = new long[TIERS];
+    private static final int[]  frameTierCount = new int[TIERS];
+
+    // 링버퍼 (프레임별 합계)
+    private static final long[][] history = new long[PHASES][WINDOW];
+    private static final long[][] tierHistory = new long[TIERS][WINDOW];
+    private static final int[][]  tierCountHistory = new int[TIERS][WINDOW];
+    private static int cursor = 0;
+    private static int filled = 0;
+    private static int framesSinceStats = 0;
+
+    // 화면 표시용 통계 (µs)
+    private static final double[] avgUs = new double[PHASES];
+    private static final double[] p99Us = new double[PHASES];
+    private static final double[] tierAvgUs = new double[TIERS];
+    private static final double[] tierAvgCount = new double[TIERS];
+    private static final long[] sortScratch = new long[WINDOW];
+
+    /** 명령어/이벤트 등록 — ChiselAgentClient#onInitializeClient() 에서 호출 */
+    public static void register() {
+        WorldRenderEvents.END.register(ctx -> endFrame());
+        HudRenderCallback.EVENT.register(AgentRenderProfiler::drawHud);
+
+        ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher.register(
+                ClientCommandManager.literal("agentperf")
+                        .executes(ctx -> {
+                            enabled = !enabled;
+                            reset();
+                            ctx.getSource().sendFeedback(Text.literal(enabled ? "에이전트 렌더 프로파일러 ON" : "에이전트 렌더 프로파일러 OFF"));
+                            return Command.SINGLE_SUCCESS;
+                        })
+                        .then(ClientCommandManager.literal("copy").executes(ctx -> {
+                            if (!enabled || filled == 0) {
+                                ctx.getSource().sendFeedback(Text.literal("프로파일러가 꺼져 있거나 아직 데이터가 없어요 (/agentperf)"));
+                                return 0;
+                            }
+                            computeStats();
+                            MinecraftClient.getInstance().keyboard.setClipboard(String.join("\n", reportLines()));
+                            ctx.getSource().sendFeedback(Text.literal("렌더 통계를 클립보드에 복사했어요"));
+                            return Command.SINGLE_SUCCESS;
+                        }))
+        ));
+    }
+
+    /* ===================== 측정 ===================== */
+
+    /** 측정 시작 (꺼져 있으면 0) */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** 단계 측정 종료 */
+    public static void end(Phase phase, long start) {
+        if (start == 0L) return;
+        frameNanos[phase.ordinal()] += System.nanoTime() - start;
+    }
+
+    /** 에이전트 1마리 전체 렌더 종료 (카메라 거리 티어 집계 포함) */
+    public static void endAgent(long start, double squaredDistanceToCamera) {
+        if (start == 0L) return;
+        long dt = System.nanoTime() - start;
+        frameNanos[Phase.RENDER.ordinal()] += dt;
+        int tier = squaredDistanceToCamera < NEAR * NEAR ? 0 : squaredDistanceToCamera < MID * MID ? 1 : 2;
+        frameTierNanos[tier] += dt;
+        frameTierCount[tier]++;
+    }
+
+    /* ===================== 프레임/통계 ===================== */
+
+    private static void endFrame() {
+        if (!enabled) return;
+        for (int p = 0; p < PHASES; p++) {
+            history[p][cursor] = frameNanos[p];
+            frameNanos[p] = 0L;
+        }
+        for (int t = 0; t < TIERS; t++) {
+            tierHistory[t][cursor] = frameTierNanos[t];
+            tierCountHistory[t][cursor] = frameTierCount[t];
+            frameTierNanos[t] = 0L;
+            frameTierCount[t] = 0;
+        }
+        cursor = (cursor + 1) % WINDOW;
+        if (filled < WINDOW) filled++;
+        if (++framesSinceStats >= STATS_EVERY) {
+            framesSinceStats = 0;
+            computeStats();
+        }
+    }
+
+    private static void computeStats() {
+        int n = filled;
+        if (n == 0) return;
+        for (int p = 0; p < PHASES; p++) {
+            long sum = 0L;
+            for (int i = 0; i < n; i++) {
+                sortScratch[i] = history[p][i];
+                sum += sortScratch[i];
+            }
+            Arrays.sort(sortScratch, 0, n);
+            avgUs[p] = sum / (double) n / 1000.0;
+            p99Us[p] = sortScratch[Math.min(n - 1, (int) Math.ceil(n * 0.99) - 1)] / 1000.0;
+        }
+        for (int t = 0; t < TIERS; t++) {
+            long sum = 0L;
+            long count = 0L;
+            for (int i = 0; i < n; i++) {
+                sum += tierHistory[t][i];
+                count += tierCountHistory[t][i];
+            }
+            tierAvgUs[t] = sum / (double) n / 1000.0;
+            tierAvgCount[t] = count / (double) n;
+        }
+    }
+
+    private static void reset() {
+        Arrays.fill(frameNanos, 0L);
+        Arrays.fill(frameTierNanos, 0L);
+        Arrays.fill(frameTierCount, 0);
+        cursor = 0;
+        filled = 0;
+        framesSinceStats = 0;
+        Arrays.fill(avgUs, 0.0);
+        Arrays.fill(p99Us, 0.0);
+        Arrays.fill(tierAvgUs, 0.0);
+        Arrays.fill(tierAvgCount, 0.0);
+    }
+
+    /* ===================== 표시 ===================== */
+
+    private static void drawHud(DrawContext ctx, float tickDelta) {
+        if (!enabled) return;
+        MinecraftClient mc = MinecraftClient.getInstance();
+        int y = 4;
+        for (String line : reportLines()) {
+            ctx.drawTextWithShadow(mc.textRenderer, line, 4, y, 0xFFFFFF);
+            y += mc.textRenderer.fontHeight + 1;
+        }
+    }
+
+    private static List<String> reportLines() {
+        List<String> lines = new ArrayList<>(PHASES + TIERS + 2);
+        double agents = tierAvgCount[0] + tierAvgCount[1] + tierAvgCount[2];
+        lines.add(String.format(Locale.ROOT, "[agent render] %d frames, %.1f agents/frame", filled, agents));
+        for (Phase phase : Phase.values()) {
+            int p = phase.ordinal();
+            lines.add(String.format(Locale.ROOT, "  %-6s avg %7.1f us  p99 %7.1f us", phase.label, avgUs[p], p99Us[p]));
+        }
+        for (int t = 0; t < TIERS; t++) {
+            double perAgent = tierAvgCount[t] > 0 ? tierAvgUs[t] / tierAvgCount[t] : 0.0;
+            lines.add(String.format(Locale.ROOT, "  %-6s %5.1f agents  %7.1f us  (%.1f us/agent)",
+                    TIER_NAMES[t], tierAvgCount[t], tierAvgUs[t], perAgent));
+        }
+        return lines;
+    }
+}
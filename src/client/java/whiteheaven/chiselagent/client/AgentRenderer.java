@@ -1,27 +1,47 @@
 // src/client/java/whiteheaven/chiselagent/client/AgentRenderer.java
 package whiteheaven.chiselagent.client;
 
-import com.mojang.authlib.GameProfile;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.network.AbstractClientPlayerEntity;
 import net.minecraft.client.network.PlayerListEntry;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.render.entity.EntityRendererFactory;
 import net.minecraft.client.render.entity.LivingEntityRenderer;
 import net.minecraft.client.render.entity.model.EntityModelLayers;
 import net.minecraft.client.render.entity.model.PlayerEntityModel;
-import net.minecraft.client.texture.PlayerSkinProvider;
 import net.minecraft.client.util.SkinTextures;
 import net.minecraft.client.util.math.MatrixStack;
-import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 import whiteheaven.chiselagent.entity.AgentEntity;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 public class AgentRenderer extends LivingEntityRenderer<AgentEntity, PlayerEntityModel<AgentEntity>> {
-    private final PlayerSkinProvider skinProvider = MinecraftClient.getInstance().getSkinProvider();
+    private static final Text DEFAULT_LABEL = Text.literal("Agent");
+
+    /** 이름표 캐시에 두는 주인 수 (가장 오래 안 쓴 주인부터 버림) */
+    private static final int MAX_LABELS = 256;
+
+    /** 만들 때 쓴 주인 이름 + 이름표 (이름이 바뀌면 다시 만듦) */
+    private record Label(String name, Text text) {}
+
+    // 주인 UUID → 이름표 (렌더 스레드 전용, 접근 순서 LRU — 접속 종료 시 비움)
+    private static final Map<UUID, Label> LABELS = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Label> eldest) {
+            return size() > MAX_LABELS;
+        }
+    };
+
+    /** 클라이언트 초기화 시 1회 등록 */
+    public static void register() {
+        // 다른 서버의 같은 UUID/이전 이름이 남지 않게 (렌더 스레드에서 비움)
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(LABELS::clear));
+    }
 
     // 베이스 모델 2종(일반/슬림)
     private final PlayerEntityModel<AgentEntity> modelNormal;
@@ -51,9 +71,22 @@ public class AgentRenderer extends LivingEntityRenderer<AgentEntity, PlayerEntit
     @Override
     public void render(AgentEntity entity, float yaw, float tickDelta, MatrixStack matrices,
                        VertexConsumerProvider vcp, int light) {
+        long t = AgentRenderProfiler.begin();
         boolean thin = findSkinTextures(entity).model() == SkinTextures.Model.SLIM;
         this.model = thin ? modelSlim : modelNormal;
         super.render(entity, yaw, tickDelta, matrices, vcp, light);
+        if (t != 0L) AgentRenderProfiler.endAgent(t, this.dispatcher.getSquaredDistanceToCamera(entity));
+    }
+
+    // 이름표: 서버는 주인 UUID만 보내므로 클라이언트에서 "<주인>의 노예"를 만들어 그림
+    //  (플레이어가 이름표로 직접 이름을 붙인 경우에는 그 이름 유지)
+    @Override
+    protected void renderLabelIfPresent(AgentEntity entity, Text text, MatrixStack matrices,
+                                        VertexConsumerProvider vcp, int light) {
+        long t = AgentRenderProfiler.begin();
+        Text label = entity.hasCustomName() ? text : ownerLabel(entity);
+        super.renderLabelIfPresent(entity, label, matrices, vcp, light);
+        AgentRenderProfiler.end(AgentRenderProfiler.Phase.LABEL, t);
     }
 
     @Override
@@ -61,30 +94,31 @@ public class AgentRenderer extends LivingEntityRenderer<AgentEntity, PlayerEntit
         return findSkinTextures(entity).texture();
     }
 
-    // ── 스킨 조회(슬림/일반 판별 포함) ───────────────────────
-    private SkinTextures findSkinTextures(AgentEntity entity) {
-        MinecraftClient mc = MinecraftClient.getInstance();
+    // ── 이름표 조회(주인 UUID → 플레이어 목록 이름) ─────────────
+    private Text ownerLabel(AgentEntity entity) {
         Optional<UUID> uuidOpt = entity.getOwnerUuid();
+        if (uuidOpt.isEmpty()) return DEFAULT_LABEL;
 
-        if (uuidOpt.isPresent()) {
-            UUID owner = uuidOpt.get();
-
-            if (mc.player != null && mc.player.getUuid().equals(owner)) {
-                return mc.player.getSkinTextures();
-            }
-            if (mc.world != null) {
-                PlayerEntity pe = mc.world.getPlayerByUuid(owner);
-                if (pe instanceof AbstractClientPlayerEntity acp) return acp.getSkinTextures();
-            }
-            if (mc.getNetworkHandler() != null) {
-                PlayerListEntry entry = mc.getNetworkHandler().getPlayerListEntry(owner);
-                if (entry != null) return skinProvider.getSkinTextures(entry.getProfile());
-            }
-        }
-        String name = entity.getOwnerName();
-        GameProfile gp = uuidOpt
-                .map(id -> new GameProfile(id, (name == null || name.isEmpty()) ? "Agent" : name))
-                .orElseGet(() -> new GameProfile(UUID.nameUUIDFromBytes(("agent-" + entity.getId()).getBytes()), "Agent"));
-        return skinProvider.getSkinTextures(gp);
+        UUID owner = uuidOpt.get();
+        Label cached = LABELS.get(owner);
+
+        MinecraftClient mc = MinecraftClient.getInstance();
+        PlayerListEntry entry = mc.getNetworkHandler() == null ? null : mc.getNetworkHandler().getPlayerListEntry(owner);
+        if (entry == null) return cached != null ? cached.text() : DEFAULT_LABEL; // 아직 목록에 없으면 다음 프레임에 재시도
+
+        String name = entry.getProfile().getName();
+        if (cached != null && cached.name().equals(name)) return cached.text();
+
+        Text label = Text.literal(name + "의 노예");
+        LABELS.put(owner, new Label(name, label));
+        return label;
+    }
+
+    // ── 스킨 조회(슬림/일반 판별 포함) — 프리페치/디스크 캐시는 AgentSkins ──
+    private SkinTextures findSkinTextures(AgentEntity entity) {
+        long t = AgentRenderProfiler.begin();
+        SkinTextures st = AgentSkins.resolve(entity);
+        AgentRenderProfiler.end(AgentRenderProfiler.Phase.SKIN, t);
+        return st;
     }
 }
@@ -0,0 +1,271 @@
+// src/client/java/whiteheaven/chiselagent/client/AgentSkins.java
+package whiteheaven.chiselagent.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import com.mojang.authlib.yggdrasil.ProfileResult;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.AbstractClientPlayerEntity;
+import net.minecraft.client.network.PlayerListEntry;
+import net.minecraft.client.util.DefaultSkinHelper;
+import net.minecraft.client.util.SkinTextures;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import whiteheaven.chiselagent.entity.AgentEntity;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 에이전트 주인 스킨 조회 + 비동기 프리페치 + 디스크 LRU 캐시
+ * <p>
+ * 조회 순서 (렌더 스레드, 블로킹 없음):
+ * 1) 주인이 월드/플레이어 목록에 있으면 바닐라 경로 그대로
+ * 2) 프리페치로 이미 받아 둔 스킨
+ * 3) 없으면 UUID 기본 스킨 (프리페치가 끝나면 다음 프레임부터 교체)
+ * </p>
+ * 프리페치: 에이전트가 클라이언트 월드에 들어오는 즉시 시작
+ * - 디스크 캐시(textures 속성 value+signature)에 있으면 세션 서버 조회 없이 바로 텍스처 로드
+ *   (텍스처 파일 자체는 바닐라 스킨 캐시가 보관 → 오프라인/로컬 서버에서도 원격 요청 없음)
+ * - 없으면 IO 워커 스레드에서 세션 서버 조회 → 결과를 캐시에 기록
+ * - 캐시는 최근 사용 순으로 최대 {@link #MAX_ENTRIES}개 유지 (runDir/chisel-agent/skin-cache.json)
+ */
+public final class AgentSkins {
+    private AgentSkins() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int MAX_ENTRIES = 256;
+    private static final int PENDING_TICKS = 40; // 주인 UUID 동기화를 기다리는 최대 틱
+
+    /** 디스크 캐시 항목 */
+    private record Cached(String name, String value, String signature) {}
+
+    // 디스크 캐시 (접근 순서 LRU) — IO 워커와 렌더 스레드가 함께 쓰므로 자신을 잠금으로 사용
+    private static final LinkedHashMap<UUID, Cached> DISK = new LinkedHashMap<>(64, 0.75f, true);
+    private static volatile boolean diskLoaded = false;
+
+    // 이번 실행에서 로드 완료된 스킨
+    private static final Map<UUID, SkinTextures> RESOLVED = new ConcurrentHashMap<>();
+    // 진행 중이거나 실패한 UUID (세션 동안 재시도 안 함)
+    private static final Set<UUID> REQUESTED = ConcurrentHashMap.newKeySet();
+
+    // 스폰 직후 아직 주인 UUID가 동기화되지 않은 에이전트 (클라이언트 스레드 전용)
+    private static final Map<AgentEntity, Integer> PENDING = new LinkedHashMap<>();
+
+    /** 이벤트 등록 — ChiselAgentClient#onInitializeClient() 에서 호출 */
+    public static void register() {
+        Util.getIoWorkerExecutor().execute(AgentSkins::loadDisk);
+
+        // 스폰 패킷 처리 시점: 주인 UUID(추적 데이터)는 같은 번들의 다음 패킷으로 오므로 대기열에 넣고 틱 끝에 확인
+        ClientEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof AgentEntity agent) {
+                Optional<UUID> owner = agent.getOwnerUuid();
+                if (owner.isPresent()) prefetch(owner.get());
+                else PENDING.put(agent, 0);
+            }
+        });
+        ClientTickEvents.END_CLIENT_TICK.register(client -> drainPending());
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            PENDING.clear();
+            REQUESTED.clear(); // 다른 서버에서는 다시 시도
+        });
+    }
+
+    /* ===================== 조회 ===================== */
+
+    /** 에이전트가 쓸 스킨 (슬림/일반 판별 포함) */
+    public static SkinTextures resolve(AgentEntity entity) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        Optional<UUID> uuidOpt = entity.getOwnerUuid();
+        if (uuidOpt.isEmpty()) {
+            return DefaultSkinHelper.getSkinTextures(UUID.nameUUIDFromBytes(("agent-" + entity.getId()).getBytes()));
+        }
+        UUID owner = uuidOpt.get();
+
+        if (mc.player != null && mc.player.getUuid().equals(owner)) {
+            return mc.player.getSkinTextures();
+        }
+        if (mc.world != null) {
+            PlayerEntity pe = mc.world.getPlayerByUuid(owner);
+            if (pe instanceof AbstractClientPlayerEntity acp) return acp.getSkinTextures();
+        }
+        if (mc.getNetworkHandler() != null) {
+            PlayerListEntry entry = mc.getNetworkHandler().getPlayerListEntry(owner);
+            if (entry != null) return mc.getSkinProvider().getSkinTextures(entry.getProfile());
+        }
+
+        SkinTextures prefetched = RESOLVED.get(owner);
+        if (prefetched != null) return prefetched;
+
+        prefetch(owner); // 로드 이벤트를 놓친 경우 대비 (이미 요청했으면 무시됨)
+        return DefaultSkinHelper.getSkinTextures(owner);
+    }
+
+    /* ===================== 프리페치 ===================== */
+
+    /** 주인 스킨을 백그라운드로 준비 (중복 호출 무시) */
+    public static void prefetch(UUID owner) {
+        if (RESOLVED.containsKey(owner) || !REQUESTED.add(owner)) return;
+
+        MinecraftClient mc = MinecraftClient.getInstance();
+
+        // 플레이어 목록에 서명된 textures가 있으면 다음 접속을 위해 기록만 해 둠
+        if (mc.getNetworkHandler() != null) {
+            PlayerListEntry entry = mc.getNetworkHandler().getPlayerListEntry(owner);
+            if (entry != null) {
+                remember(entry.getProfile());
+                return;
+            }
+        }
+
+        Util.getIoWorkerExecutor().execute(() -> {
+            if (!diskLoaded) loadDisk();
+
+            Cached cached;
+            synchronized (DISK) {
+                cached = DISK.get(owner);
+            }
+            GameProfile profile;
+            if (cached != null) {
+                profile = new GameProfile(owner, cached.name());
+                profile.getProperties().put("textures", new Property("textures", cached.value(), cached.signature()));
+            } else {
+                try {
+                    ProfileResult result = mc.getSessionService().fetchProfile(owner, false);
+                    if (result == null) return; // 오프라인 UUID 등 — 기본 스킨 유지
+                    profile = result.profile();
+                } catch (Exception e) {
+                    LOG.debug("skin profile fetch failed for {}: {}", owner, e.toString());
+                    return;
+                }
+                if (!remember(profile)) return;
+            }
+
+            mc.getSkinProvider().fetchSkinTextures(profile).thenAccept(textures -> {
+                if (textures != null) RESOLVED.put(owner, textures);
+            });
+        });
+    }
+
+    private static void drainPending() {
+        if (PENDING.isEmpty()) return;
+        Iterator<Map.Entry<AgentEntity, Integer>> it = PENDING.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<AgentEntity, Integer> e = it.next();
+            AgentEntity agent = e.getKey();
+            Optional<UUID> owner = agent.getOwnerUuid();
+            if (owner.isPresent()) {
+                prefetch(owner.get());
+                it.remove();
+            } else if (agent.isRemoved() || e.getValue() >= PENDING_TICKS) {
+                it.remove(); // 주인 없는 에이전트 — 기본 스킨
+            } else {
+                e.setValue(e.getValue() + 1);
+            }
+        }
+    }
+
+    /* ===================== 디스크 캐시 ===================== */
+
+    /** 프로파일의 textures 속성을 캐시에 기록 (없으면 false) */
+    private static boolean remember(GameProfile profile) {
+        Property textures = null;
+        for (Property p : profile.getProperties().get("textures")) {
+            textures = p;
+            break;
+        }
+        if (textures == null) return false;
+
+        Cached next = new Cached(profile.getName(), textures.value(), textures.signature());
+        synchronized (DISK) {
+            if (next.equals(DISK.get(profile.getId()))) return true;
+            DISK.put(profile.getId(), next);
+            trim();
+        }
+        Util.getIoWorkerExecutor().execute(AgentSkins::saveDisk);
+        return true;
+    }
+
+    private static void trim() {
+        Iterator<UUID> it = DISK.keySet().iterator();
+        while (DISK.size() > MAX_ENTRIES && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static Path cachePath() {
+        return MinecraftClient.getInstance().runDirectory.toPath().resolve("chisel-agent").resolve("skin-cache.json");
+    }
+
+    private static void loadDisk() {
+        synchronized (DISK) {
+            if (diskLoaded) return;
+            diskLoaded = true;
+            Path path = cachePath();
+            if (!Files.exists(path)) return;
+            try (Reader r = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                // 파일은 오래된 것 → 최근 순으로 저장되어 있으므로 그대로 넣으면 LRU 순서 복원
+                for (JsonElement el : JsonParser.parseReader(r).getAsJsonArray()) {
+                    JsonObject o = el.getAsJsonObject();
+                    String signature = o.has("signature") ? o.get("signature").getAsString() : null;
+                    DISK.putIfAbsent(UUID.fromString(o.get("uuid").getAsString()),
+                            new Cached(o.get("name").getAsString(), o.get("value").getAsString(), signature));
+                }
+                trim();
+            } catch (Exception e) {
+                LOG.warn("skin cache unreadable, starting empty: {}", e.toString());
+                DISK.clear();
+            }
+        }
+    }
+
+    private static void saveDisk() {
+        List<Map.Entry<UUID, Cached>> snapshot;
+        synchronized (DISK) {
+            snapshot = new ArrayList<>(DISK.entrySet());
+        }
+        JsonArray arr = new JsonArray();
+        for (Map.Entry<UUID, Cached> e : snapshot) {
+            JsonObject o = new JsonObject();
+            o.addProperty("uuid", e.getKey().toString());
+            o.addProperty("name", e.getValue().name());
+            o.addProperty("value", e.getValue().value());
+            if (e.getValue().signature() != null) o.addProperty("signature", e.getValue().signature());
+            arr.add(o);
+        }
+        Path path = cachePath();
+        try {
+            Files.createDirectories(path.getParent());
+            try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                GSON.toJson(arr, w);
+            }
+        } catch (Exception e) {
+            LOG.warn("skin cache save failed: {}", e.toString());
+        }
+    }
+}
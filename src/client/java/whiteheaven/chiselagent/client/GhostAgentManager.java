@@ -0,0 +1,119 @@
+// src/client/java/whiteheaven/chiselagent/client/GhostAgentManager.java
+package whiteheaven.chiselagent.client;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import whiteheaven.chiselagent.agent.GhostAgents;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentStateTable;
+import whiteheaven.chiselagent.registry.ModEntities;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 고스트 에이전트 클라이언트 관리자
+ * <p>
+ * 서버가 보낸 "주인/시드/방향" 레코드(+ 주인 비행 상태)만으로 클라이언트 월드에 로컬 AgentEntity를 띄움.
+ * - 주인이 내 월드에 보이면 생성, 안 보이면(차원 이동/추적 범위 밖) 제거
+ * - 생성된 고스트는 ClientWorld가 일반 엔티티처럼 틱/렌더 → AgentEntity 추적 로직 + AgentRenderer 그대로 사용
+ * - 엔티티 id는 음수 대역을 써서 서버 엔티티 id와 겹치지 않게 함
+ * </p>
+ * 클라이언트 스레드 전용
+ */
+public final class GhostAgentManager {
+    private GhostAgentManager() {}
+
+    private static final Map<UUID, GhostAgents.Entry> ENTRIES = new HashMap<>();
+    private static final Map<UUID, AgentEntity> SPAWNED = new HashMap<>();
+    private static int nextGhostId = -1_000_000;
+
+    /** 패킷 수신/틱 이벤트 등록 — ChiselAgentClient#onInitializeClient() 에서 호출 */
+    public static void register() {
+        ClientPlayNetworking.registerGlobalReceiver(GhostAgents.ADD_PACKET, (client, handler, buf, responseSender) -> {
+            var entry = new GhostAgents.Entry(buf.readUuid(), buf.readLong(), buf.readBoolean());
+            client.execute(() -> {
+                ENTRIES.put(entry.owner(), entry);
+                despawn(client.world, entry.owner()); // 시드/방향이 바뀌었을 수 있으므로 다음 틱에 재생성
+            });
+        });
+        ClientPlayNetworking.registerGlobalReceiver(GhostAgents.REMOVE_PACKET, (client, handler, buf, responseSender) -> {
+            UUID owner = buf.readUuid();
+            client.execute(() -> {
+                ENTRIES.remove(owner);
+                GhostAgents.setRemoteFlying(owner, false);
+                despawn(client.world, owner);
+            });
+        });
+        // 주인 크리에이티브 비행 상태 (다른 클라이언트에는 능력치가 동기화되지 않으므로)
+        ClientPlayNetworking.registerGlobalReceiver(GhostAgents.FLIGHT_PACKET, (client, handler, buf, responseSender) -> {
+            UUID owner = buf.readUuid();
+            boolean flying = buf.readBoolean();
+            client.execute(() -> GhostAgents.setRemoteFlying(owner, flying));
+        });
+
+        ClientTickEvents.END_CLIENT_TICK.register(GhostAgentManager::tick);
+
+        // 고스트 추적 상태 표: 엔티티 틱 전에 한 번에 계산, 제거되면 행 해제
+        ClientTickEvents.START_CLIENT_TICK.register(client -> {
+            if (client.world != null) AgentStateTable.processClient(client.world);
+        });
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof AgentEntity agent) AgentStateTable.remove(agent, world);
+        });
+
+        // 서버를 떠나면 레코드/엔티티 모두 버림 (월드와 함께 사라짐)
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            ENTRIES.clear();
+            SPAWNED.clear();
+            GhostAgents.clearRemote();
+            AgentStateTable.clearClient();
+        });
+    }
+
+    /** 주인이 보이는지에 따라 고스트 생성/제거 */
+    private static void tick(MinecraftClient client) {
+        ClientWorld world = client.world;
+        if (world == null) {
+            SPAWNED.clear();
+            return;
+        }
+        for (GhostAgents.Entry entry : ENTRIES.values()) {
+            AgentEntity ghost = SPAWNED.get(entry.owner());
+            boolean alive = ghost != null && !ghost.isRemoved() && ghost.getWorld() == world;
+
+            PlayerEntity owner = world.getPlayerByUuid(entry.owner());
+            if (owner == null) {
+                if (alive) despawn(world, entry.owner());
+                else SPAWNED.remove(entry.owner());
+                continue;
+            }
+            if (!alive) spawn(world, entry, owner);
+        }
+    }
+
+    private static void spawn(ClientWorld world, GhostAgents.Entry entry, PlayerEntity owner) {
+        AgentEntity ghost = new AgentEntity(ModEntities.AGENT, world);
+        ghost.setId(nextGhostId--);
+        ghost.markGhost(entry.seed());
+        ghost.setOwner(entry.owner(), "");
+        ghost.setSideRight(entry.sideRight());
+        ghost.setFollowing(true);
+        ghost.refreshPositionAndAngles(owner.getX(), owner.getY(), owner.getZ(), owner.getYaw(), 0f);
+        world.addEntity(ghost);
+        SPAWNED.put(entry.owner(), ghost);
+    }
+
+    private static void despawn(ClientWorld world, UUID owner) {
+        AgentEntity ghost = SPAWNED.remove(owner);
+        if (ghost == null || world == null || ghost.getWorld() != world) return;
+        world.removeEntity(ghost.getId(), Entity.RemovalReason.DISCARDED);
+    }
+}
@@ -0,0 +1,223 @@
+// src/gametest/java/whiteheaven/chiselagent/gametest/AgentGameTests.java
+package whiteheaven.chiselagent.gametest;
+
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.vehicle.BoatEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 에이전트 GameTest 시나리오 (헤드리스 서버, ./gradlew runGametest)
+ * <p>
+ * 각 시나리오: 주인 4명 × 에이전트 6마리, 워밍업 20틱 + 측정 구간
+ * - 정확성: 측정 끝에 주인과의 거리 ≤ maxDistance, 20틱 이상 블록에 끼인 에이전트 없음
+ * - 성능: 에이전트 1마리 1틱 평균 ≤ tickMicros, 평균 할당량 ≤ tickBytes (budgets.properties)
+ * </p>
+ * 지형은 빈 구조물 위에 테스트 코드로 직접 쌓음 (구조물 파일 없음)
+ */
+public class AgentGameTests implements FabricGameTest {
+
+    private static final int MEASURE_TICKS = 200;
+    private static final int TICK_LIMIT = AgentScenario.WARMUP_TICKS + MEASURE_TICKS + 20;
+
+    // ────────────────────────────────────────────────────────────────
+    // 평지: 원을 그리며 걷기
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = TICK_LIMIT, batchId = "agent_open_field")
+    public void openField(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "open_field");
+        s.fill(-8, 0, -8, 16, 0, 16, Blocks.STONE.getDefaultState());
+        Vec3d center = new Vec3d(4.5, 1, 4.5);
+
+        for (int i = 0; i < AgentScenario.OWNERS; i++) {
+            s.addOwner(AgentScenario.onCircle(center, 6, phase(i)));
+        }
+        s.spawnAgents();
+        s.run(MEASURE_TICKS, (sc, owner, i, tick) ->
+                sc.moveOwnerTo(owner, AgentScenario.onCircle(center, 6, phase(i) + tick * 0.03)));
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 동굴: 폭 3 × 높이 3 고리형 통로를 따라 걷기
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = TICK_LIMIT, batchId = "agent_cave")
+    public void cave(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "cave");
+        var stone = Blocks.STONE.getDefaultState();
+        var air = Blocks.AIR.getDefaultState();
+        s.fill(-2, 0, -2, 18, 5, 18, stone);
+        // 고리 통로 (바깥 변 2..14, 폭 3)
+        s.fill(2, 1, 2, 14, 3, 4, air);
+        s.fill(2, 1, 12, 14, 3, 14, air);
+        s.fill(2, 1, 2, 4, 3, 14, air);
+        s.fill(12, 1, 2, 14, 3, 14, air);
+
+        List<Vec3d> loop = List.of(
+                new Vec3d(3.5, 1, 3.5), new Vec3d(13.5, 1, 3.5),
+                new Vec3d(13.5, 1, 13.5), new Vec3d(3.5, 1, 13.5));
+        double spacing = 40.0 / AgentScenario.OWNERS;
+
+        for (int i = 0; i < AgentScenario.OWNERS; i++) {
+            s.addOwner(AgentScenario.alongLoop(loop, i * spacing));
+        }
+        s.spawnAgents();
+        s.run(MEASURE_TICKS, (sc, owner, i, tick) ->
+                sc.moveOwnerTo(owner, AgentScenario.alongLoop(loop, i * spacing + tick * 0.2)));
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 물 + 턱: 깊이 3 수영장을 헤엄쳐 건너 물 위 1칸 턱으로 올라갔다 돌아오기
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = TICK_LIMIT, batchId = "agent_water_ledge")
+    public void waterLedge(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "water_ledge");
+        s.fill(-2, 0, -2, 18, 4, 18, Blocks.STONE.getDefaultState());
+        s.fill(0, 1, 0, 11, 3, 16, Blocks.WATER.getDefaultState());
+        // x 12..16: 수면(y=4)보다 1칸 높은 턱 (윗면 y=5)
+        s.fill(12, 5, 0, 16, 8, 16, Blocks.AIR.getDefaultState());
+        s.fill(0, 4, 0, 11, 8, 16, Blocks.AIR.getDefaultState());
+
+        List<Vec3d> route = List.of(
+                new Vec3d(2.5, 2.5, 8.5), new Vec3d(10.5, 2.5, 8.5),
+                new Vec3d(10.5, 3.6, 8.5), new Vec3d(14.5, 5.0, 8.5));
+
+        for (int i = 0; i < AgentScenario.OWNERS; i++) {
+            Vec3d start = route.get(0).add(0, 0, i * 2.0 - 3.0);
+            s.addOwner(start);
+        }
+        s.spawnAgents();
+        s.run(MEASURE_TICKS, (sc, owner, i, tick) -> {
+            List<Vec3d> lane = new ArrayList<>(route.size());
+            for (Vec3d p : route) lane.add(p.add(0, 0, i * 2.0 - 3.0));
+            sc.moveOwnerTo(owner, pingPong(lane, tick * 0.15));
+        });
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 엘리트라 비행: 지상 12칸 위에서 빠르게 원 비행 (noClip 이동이라 끼임 검사 생략)
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = TICK_LIMIT, batchId = "agent_flight")
+    public void elytraFlight(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "flight").allowClipping();
+        Vec3d center = new Vec3d(4.5, 14, 4.5);
+
+        for (int i = 0; i < AgentScenario.OWNERS; i++) {
+            ServerPlayerEntity owner = s.addOwner(AgentScenario.onCircle(center, 16, phase(i)));
+            owner.equipStack(EquipmentSlot.CHEST, new ItemStack(Items.ELYTRA));
+            owner.startFallFlying();
+        }
+        s.spawnAgents();
+        // 반지름 16, 틱당 0.06rad ≈ 0.96블록/틱 (≈19블록/초 활공)
+        s.run(MEASURE_TICKS, (sc, owner, i, tick) ->
+                sc.moveOwnerTo(owner, AgentScenario.onCircle(center, 16, phase(i) + tick * 0.06)));
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 보트: 넓은 수면 위를 보트로 원 주행
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = TICK_LIMIT, batchId = "agent_boat")
+    public void boat(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "boat");
+        s.fill(-10, 0, -10, 18, 1, 18, Blocks.STONE.getDefaultState());
+        s.fill(-8, 1, -8, 16, 1, 16, Blocks.WATER.getDefaultState());
+        Vec3d center = new Vec3d(4.5, 1.9, 4.5);
+
+        List<BoatEntity> boats = new ArrayList<>();
+        for (int i = 0; i < AgentScenario.OWNERS; i++) {
+            Vec3d start = AgentScenario.onCircle(center, 6, phase(i));
+            ServerPlayerEntity owner = s.addOwner(start);
+            Vec3d abs = ctx.getAbsolute(start);
+            BoatEntity boat = new BoatEntity(ctx.getWorld(), abs.x, abs.y, abs.z);
+            ctx.getWorld().spawnEntity(boat);
+            owner.startRiding(boat, true);
+            boats.add(boat);
+        }
+        s.spawnAgents();
+        s.run(MEASURE_TICKS, (sc, owner, i, tick) -> {
+            // 보트를 움직이면 탑승자(주인)는 보트 틱에서 따라옴
+            Vec3d abs = ctx.getAbsolute(AgentScenario.onCircle(center, 6, phase(i) + tick * 0.05));
+            BoatEntity boat = boats.get(i);
+            Vec3d delta = abs.subtract(boat.getPos());
+            boat.refreshPositionAndAngles(abs.x, abs.y, abs.z,
+                    (float) (Math.toDegrees(Math.atan2(delta.z, delta.x)) - 90.0), 0f);
+            boat.setVelocity(delta);
+            owner.setVelocity(delta);
+        });
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 차원 이동: 평지를 걷다가 네더로 이동 → 에이전트가 따라 넘어오는지
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = TICK_LIMIT, batchId = "agent_portal")
+    public void portalTransfer(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "portal");
+        s.fill(-8, 0, -8, 16, 0, 16, Blocks.STONE.getDefaultState());
+        Vec3d center = new Vec3d(4.5, 1, 4.5);
+
+        // 네더 쪽 착지 플랫폼 (같은 x/z, y=100) — 포탈 티켓으로 청크 유지
+        ServerWorld nether = ctx.getWorld().getServer().getWorld(World.NETHER);
+        BlockPos origin = ctx.getAbsolutePos(BlockPos.ORIGIN);
+        BlockPos landing = new BlockPos(origin.getX() + 4, 100, origin.getZ() + 4);
+        nether.getChunkManager().addTicket(ChunkTicketType.PORTAL, new ChunkPos(landing), 3, landing);
+        for (int x = -10; x <= 10; x++) {
+            for (int z = -10; z <= 10; z++) {
+                nether.setBlockState(landing.add(x, -1, z), Blocks.OBSIDIAN.getDefaultState());
+                for (int y = 0; y < 4; y++) nether.setBlockState(landing.add(x, y, z), Blocks.AIR.getDefaultState());
+            }
+        }
+        Vec3d netherCenter = Vec3d.ofBottomCenter(landing);
+        int transferTick = 60;
+
+        for (int i = 0; i < AgentScenario.OWNERS; i++) {
+            s.addOwner(AgentScenario.onCircle(center, 5, phase(i)));
+        }
+        s.spawnAgents();
+        s.run(MEASURE_TICKS, (sc, owner, i, tick) -> {
+            double angle = phase(i) + tick * 0.03;
+            if (tick < transferTick) {
+                sc.moveOwnerTo(owner, AgentScenario.onCircle(center, 5, angle));
+                return;
+            }
+            Vec3d p = AgentScenario.onCircle(netherCenter, 5, angle);
+            if (tick == transferTick) {
+                owner.teleport(nether, p.x, p.y, p.z, owner.getYaw(), 0f);
+            } else {
+                sc.moveOwnerToAbsolute(owner, p);
+            }
+        });
+    }
+
+    // ── 공통 유틸 ─────────────────────────────────────────────────────
+
+    /** 주인별 시작 위상 (원 위에 균등 배치) */
+    private static double phase(int index) {
+        return index * (Math.PI * 2.0 / AgentScenario.OWNERS);
+    }
+
+    /** 웨이포인트를 왕복하는 경로 위의 점 */
+    private static Vec3d pingPong(List<Vec3d> points, double dist) {
+        List<Vec3d> loop = new ArrayList<>(points);
+        for (int i = points.size() - 2; i > 0; i--) loop.add(points.get(i));
+        return AgentScenario.alongLoop(loop, dist);
+    }
+}
@@ -0,0 +1,73 @@
+// src/gametest/java/whiteheaven/chiselagent/gametest/AgentPoolGameTests.java
+package whiteheaven.chiselagent.gametest;
+
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.GameTestException;
+import net.minecraft.test.TestContext;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.Vec3d;
+import whiteheaven.chiselagent.agent.AgentPurge;
+import whiteheaven.chiselagent.agent.AgentSpawner;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 에이전트 인스턴스 풀 재사용 검사
+ * <p>
+ * 플레이어가 바꿔 놓은 엔티티 상태(이름표, 물약, 불, 발광, 명령 태그, 피격 타이머)가
+ * 일괄 제거 → 풀 → 다음 스폰으로 넘어가지 않는지
+ * </p>
+ */
+public class AgentPoolGameTests implements FabricGameTest {
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = 60, batchId = "agent_pool")
+    public void reusedAgentIsClean(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "pool");
+        s.fill(-4, 0, -4, 8, 0, 8, Blocks.STONE.getDefaultState());
+        ServerPlayerEntity owner = s.addOwner(new Vec3d(2.5, 1, 2.5));
+        AgentPool.clearAll(); // 다른 배치에서 풀에 남은 개체가 먼저 나오지 않게
+
+        AgentSpawner.spawnOneFor(owner);
+        AgentEntity first = AgentSpawner.findNearestFor(owner)
+                .orElseThrow(() -> new GameTestException("[pool] agent was not spawned"));
+        first.setCustomName(Text.literal("Bob"));
+        first.setCustomNameVisible(true);
+        first.addStatusEffect(new StatusEffectInstance(StatusEffects.POISON, 600));
+        first.setFireTicks(200);
+        first.setGlowing(true);
+        first.addCommandTag("marked");
+        first.hurtTime = 10;
+        AgentPurge.purgeOwner(owner.getUuid(), owner.getGameProfile().getName(), null);
+
+        s.runOnce(5, () -> {
+            if (!first.isRemoved()) throw new GameTestException("[pool] purge did not remove the agent");
+            long reusedBefore = AgentPool.reused();
+            AgentSpawner.spawnOneFor(owner);
+            AgentEntity again = AgentSpawner.findNearestFor(owner)
+                    .orElseThrow(() -> new GameTestException("[pool] agent was not respawned"));
+            try {
+                if (again != first || AgentPool.reused() != reusedBefore + 1) {
+                    throw new GameTestException("[pool] respawn did not reuse the purged instance");
+                }
+                List<String> dirty = new ArrayList<>();
+                if (again.hasCustomName() || again.isCustomNameVisible()) dirty.add("custom name");
+                if (!again.getStatusEffects().isEmpty()) dirty.add("status effects");
+                if (again.getFireTicks() > 0) dirty.add("fire");
+                if (again.isGlowing()) dirty.add("glowing");
+                if (!again.getCommandTags().isEmpty()) dirty.add("command tags");
+                if (again.hurtTime != 0 || again.deathTime != 0) dirty.add("hurt/death timers");
+                if (!dirty.isEmpty()) throw new GameTestException("[pool] reused agent kept " + dirty);
+            } finally {
+                AgentSpawner.despawnAllFor(owner);
+            }
+        });
+    }
+}
@@ -0,0 +1,298 @@
+// src/gametest/java/whiteheaven/chiselagent/gametest/AgentScenario.java
+package whiteheaven.chiselagent.gametest;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.test.GameTestException;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentTickStats;
+import whiteheaven.chiselagent.registry.ModEntities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * GameTest 시나리오 하네스
+ * <p>
+ * - 모의 플레이어(주인) {@link #OWNERS}명 × 에이전트 {@link #AGENTS_PER_OWNER}마리
+ * - 매 틱 스크립트로 주인을 움직이고, 에이전트가 블록에 끼었는지 검사
+ * - 워밍업 이후 {@link AgentTickStats}로 에이전트 틱 시간/할당량을 재서 예산(budgets.properties)과 비교
+ * - 끝나면 주인과의 거리 검사 후 정리
+ * </p>
+ * 시나리오끼리 서로의 에이전트를 세지 않도록 테스트마다 batchId를 따로 줌
+ */
+final class AgentScenario {
+
+    static final int OWNERS = 4;
+    static final int AGENTS_PER_OWNER = 6;
+    static final int WARMUP_TICKS = 20;      // JIT/청크 안정화 구간 (측정 제외)
+    private static final int STUCK_TICKS = 20; // 이만큼 연속으로 블록과 겹치면 끼인 것으로 판정
+    private static final double STUCK_EPS = 0.01;
+
+    private static final Properties BUDGETS = loadBudgets();
+    private static final double BUDGET_SCALE = Double.parseDouble(
+            System.getProperty("chisel-agent.gametest.budgetScale", "1.0"));
+
+    /** 주인 이동 스크립트 (주인별 위상은 index로 구분) */
+    @FunctionalInterface
+    interface OwnerScript {
+        void move(AgentScenario scenario, ServerPlayerEntity owner, int index, int tick);
+    }
+
+    private record Tracked(UUID agent, ServerPlayerEntity owner) {}
+
+    final TestContext ctx;
+    private final String name;
+    final List<ServerPlayerEntity> owners = new ArrayList<>();
+    private final List<Tracked> tracked = new ArrayList<>();
+    private int[] stuckRun = new int[0];
+    private boolean checkStuck = true;
+    private int tick = 0;
+
+    AgentScenario(TestContext ctx, String name) {
+        this.ctx = ctx;
+        this.name = name;
+    }
+
+    /** 비행처럼 noClip 이동이 정상인 시나리오에서는 끼임 검사 생략 */
+    AgentScenario allowClipping() {
+        this.checkStuck = false;
+        return this;
+    }
+
+    /* ===================== 구성 ===================== */
+
+    /** 테스트 기준 상대 좌표에 주인 생성 (크리에이티브 모의 플레이어, 비행 끔) */
+    ServerPlayerEntity addOwner(Vec3d relative) {
+        ServerPlayerEntity owner = ctx.createMockCreativeServerPlayerInWorld();
+        Vec3d abs = ctx.getAbsolute(relative);
+        owner.teleport(ctx.getWorld(), abs.x, abs.y, abs.z, 0f, 0f);
+        owner.getAbilities().flying = false;
+        owner.sendAbilitiesUpdate();
+        owners.add(owner);
+        return owner;
+    }
+
+    /** 모든 주인 주변에 에이전트 배치 */
+    void spawnAgents() {
+        for (ServerPlayerEntity owner : owners) {
+            ServerWorld world = (ServerWorld) owner.getWorld();
+            for (int i = 0; i < AGENTS_PER_OWNER; i++) {
+                AgentEntity agent = new AgentEntity(ModEntities.AGENT, world);
+                double a = i * (Math.PI * 2.0 / AGENTS_PER_OWNER);
+                agent.refreshPositionAndAngles(owner.getX() + Math.cos(a) * 1.5, owner.getY(),
+                        owner.getZ() + Math.sin(a) * 1.5, owner.getYaw(), 0f);
+                agent.setOwner(owner.getUuid(), owner.getGameProfile().getName());
+                agent.setSideRight((i & 1) == 0);
+                world.spawnEntity(agent);
+                tracked.add(new Tracked(agent.getUuid(), owner));
+            }
+        }
+        stuckRun = new int[tracked.size()];
+    }
+
+    /** 테스트 상대 좌표 범위를 블록으로 채움 */
+    void fill(int x1, int y1, int z1, int x2, int y2, int z2, BlockState state) {
+        for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++)
+            for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++)
+                for (int z = Math.min(z1, z2); z <= Math.max(z1, z2); z++)
+                    ctx.setBlockState(new BlockPos(x, y, z), state);
+    }
+
+    /** 주인을 상대 좌표로 이동 (속도도 함께 설정 → 에이전트의 정지/전진 판정에 쓰임) */
+    void moveOwnerTo(ServerPlayerEntity owner, Vec3d relative) {
+        moveOwnerToAbsolute(owner, ctx.getAbsolute(relative));
+    }
+
+    /** 절대 좌표 버전 (다른 차원으로 넘어간 뒤 사용) */
+    void moveOwnerToAbsolute(ServerPlayerEntity owner, Vec3d abs) {
+        Vec3d delta = abs.subtract(owner.getPos());
+        float yaw = delta.horizontalLengthSquared() > 1e-6
+                ? (float) (Math.toDegrees(Math.atan2(delta.z, delta.x)) - 90.0)
+                : owner.getYaw();
+        owner.refreshPositionAndAngles(abs.x, abs.y, abs.z, yaw, 0f);
+        owner.setVelocity(delta);
+    }
+
+    /* ===================== 실행 ===================== */
+
+    /**
+     * 시나리오 실행: 워밍업 + 측정 ticks틱 후 검사/정리
+     * (@GameTest tickLimit은 WARMUP_TICKS + ticks 보다 커야 함)
+     */
+    void run(int ticks, OwnerScript script) {
+        AgentTickStats.setEnabled(true);
+        AgentTickStats.reset();
+
+        ctx.runAtEveryTick(() -> {
+            tick++;
+            for (int i = 0; i < owners.size(); i++) {
+                script.move(this, owners.get(i), i, tick);
+            }
+            if (tick == WARMUP_TICKS) AgentTickStats.reset();
+            if (checkStuck) checkStuck();
+        });
+
+        ctx.runAtTick(WARMUP_TICKS + ticks, () -> {
+            try {
+                verify();
+            } finally {
+                cleanup();
+            }
+            ctx.complete();
+        });
+    }
+
+    /**
+     * 틱 흐름 없이 tick번째 틱에 검사 1회 후 정리 (호출당 할당 측정처럼 한 틱 안에서 끝나는 테스트용)
+     */
+    void runOnce(int tick, Runnable check) {
+        ctx.runAtTick(tick, () -> {
+            try {
+                check.run();
+            } finally {
+                cleanup();
+            }
+            ctx.complete();
+        });
+    }
+
+    private void checkStuck() {
+        for (int i = 0; i < tracked.size(); i++) {
+            AgentEntity agent = find(tracked.get(i));
+            if (agent == null) continue; // 차원 이동 중
+            Box box = agent.getBoundingBox().contract(STUCK_EPS);
+            boolean inBlock = agent.getWorld().getBlockCollisions(agent, box).iterator().hasNext();
+            stuckRun[i] = inBlock ? stuckRun[i] + 1 : 0;
+            if (stuckRun[i] >= STUCK_TICKS) {
+                fail(String.format(Locale.ROOT, "[%s] agent %s stuck in blocks at %s for %d ticks",
+                        name, agent.getUuid(), agent.getBlockPos().toShortString(), stuckRun[i]));
+            }
+        }
+    }
+
+    private void verify() {
+        double maxDistance = budget("maxDistance");
+        for (Tracked t : tracked) {
+            AgentEntity agent = find(t);
+            if (agent == null) {
+                throw new GameTestException(String.format(Locale.ROOT,
+                        "[%s] agent %s not found in owner's world %s", name, t.agent(),
+                        t.owner().getWorld().getRegistryKey().getValue()));
+            }
+            double d = agent.distanceTo(t.owner());
+            if (d > maxDistance) {
+                throw new GameTestException(String.format(Locale.ROOT,
+                        "[%s] agent %s is %.1f blocks from owner (max %.1f)", name, t.agent(), d, maxDistance));
+            }
+        }
+
+        double budgetMicros = budget("tickMicros") * BUDGET_SCALE;
+        double avg = AgentTickStats.averageMicros();
+        if (AgentTickStats.samples() == 0) {
+            throw new GameTestException("[" + name + "] no agent ticks were measured");
+        }
+        if (avg > budgetMicros) {
+            throw new GameTestException(String.format(Locale.ROOT,
+                    "[%s] agent tick %.1f us avg (max %.1f us, %d samples) exceeds budget %.1f us",
+                    name, avg, AgentTickStats.maxMicros(), AgentTickStats.samples(), budgetMicros));
+        }
+
+        // 할당량은 JVM/머신 속도와 무관하므로 배율 적용 안 함
+        if (AgentTickStats.allocationSupported()) {
+            double budgetBytes = budget("tickBytes");
+            double bytes = AgentTickStats.averageBytes();
+            if (bytes > budgetBytes) {
+                throw new GameTestException(String.format(Locale.ROOT,
+                        "[%s] agent tick allocates %.0f bytes avg (%d samples), budget %.0f bytes",
+                        name, bytes, AgentTickStats.samples(), budgetBytes));
+            }
+        }
+    }
+
+    private void fail(String message) {
+        cleanup();
+        throw new GameTestException(message);
+    }
+
+    /** 에이전트/주인 제거 — 다음 시나리오 측정에 섞이지 않도록 */
+    private void cleanup() {
+        AgentTickStats.setEnabled(false);
+        for (Tracked t : tracked) {
+            for (ServerWorld world : ctx.getWorld().getServer().getWorlds()) {
+                Entity e = world.getEntity(t.agent());
+                if (e != null) e.discard();
+            }
+        }
+        tracked.clear();
+        for (ServerPlayerEntity owner : owners) {
+            owner.stopRiding();
+            ctx.getWorld().getServer().getPlayerManager().remove(owner);
+        }
+        owners.clear();
+    }
+
+    /** 주인이 있는 월드에서 에이전트 조회 (차원 이동 후에는 새 인스턴스이므로 UUID로 찾음) */
+    private static AgentEntity find(Tracked t) {
+        Entity e = ((ServerWorld) t.owner().getWorld()).getEntity(t.agent());
+        return e instanceof AgentEntity agent && !agent.isRemoved() ? agent : null;
+    }
+
+    /* ===================== 예산 ===================== */
+
+    private double budget(String key) {
+        return budget(name, key);
+    }
+
+    /** budgets.properties 의 "<group>.<key>" 값 (없으면 테스트 실패) */
+    static double budget(String group, String key) {
+        String raw = BUDGETS.getProperty(group + "." + key);
+        if (raw == null) throw new GameTestException("budgets.properties has no " + group + "." + key);
+        return Double.parseDouble(raw.trim());
+    }
+
+    private static Properties loadBudgets() {
+        Properties p = new Properties();
+        try (InputStream in = AgentScenario.class.getResourceAsStream("/chisel-agent-gametest/budgets.properties")) {
+            if (in != null) p.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("budgets.properties unreadable", e);
+        }
+        return p;
+    }
+
+    /* ===================== 경로 유틸 ===================== */
+
+    /** 닫힌 경로(웨이포인트 순환)에서 이동 거리 dist 지점 */
+    static Vec3d alongLoop(List<Vec3d> points, double dist) {
+        double total = 0.0;
+        for (int i = 0; i < points.size(); i++) {
+            total += points.get(i).distanceTo(points.get((i + 1) % points.size()));
+        }
+        double d = ((dist % total) + total) % total;
+        for (int i = 0; i < points.size(); i++) {
+            Vec3d a = points.get(i);
+            Vec3d b = points.get((i + 1) % points.size());
+            double seg = a.distanceTo(b);
+            if (d <= seg) return a.lerp(b, seg == 0 ? 0 : d / seg);
+            d -= seg;
+        }
+        return points.get(0);
+    }
+
+    /** 중심/반지름/각속도로 원 위의 점 */
+    static Vec3d onCircle(Vec3d center, double radius, double angle) {
+        return center.add(Math.cos(angle) * radius, 0, Math.sin(angle) * radius);
+    }
+}
@@ -0,0 +1,97 @@
+// src/gametest/java/whiteheaven/chiselagent/gametest/AllocationGameTests.java
+package whiteheaven.chiselagent.gametest;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.GameTestException;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.Vec3d;
+import whiteheaven.chiselagent.agent.AgentSpawner;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentOwnerIndex;
+import whiteheaven.chiselagent.registry.ModEntities;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 핫 경로 할당량 / 에이전트 힙 점유 회귀 검사 (예산은 budgets.properties)
+ * <p>
+ * - 추적 틱(followOwnerTick) 할당량은 시나리오 테스트({@link AgentGameTests})가 tickBytes로 함께 검사
+ * - 여기서는 주인별 조회, 명령어 핸들러, 엔티티 1개 힙 점유
+ * - 명령어는 미리 파싱해 둔 결과를 반복 실행 (핸들러 비용만, 출력은 silent 소스로 생략)
+ * </p>
+ * 클라이언트 스킨 조회(AgentSkins)는 MinecraftClient가 필요해서 헤드리스 서버에서는 잴 수 없음
+ */
+public class AllocationGameTests implements FabricGameTest {
+
+    private static final int FOOTPRINT_BATCH = 2_000;
+    private static final int FOOTPRINT_SAMPLES = 5;
+
+    // ────────────────────────────────────────────────────────────────
+    // 주인별 조회 + 명령어 핸들러
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = 100, batchId = "agent_alloc")
+    public void hotPathAllocations(TestContext ctx) {
+        AgentScenario s = new AgentScenario(ctx, "alloc");
+        s.fill(-4, 0, -4, 8, 0, 8, Blocks.STONE.getDefaultState());
+        ServerPlayerEntity owner = s.addOwner(new Vec3d(2.5, 1, 2.5));
+        s.spawnAgents();
+
+        // 몇 틱 뒤: 엔티티 로드 이벤트로 주인 색인에 들어간 다음
+        s.runOnce(5, () -> {
+            UUID id = owner.getUuid();
+            if (AgentOwnerIndex.firstOf(id) == null) throw new GameTestException("[alloc] owner index is empty");
+
+            AllocationMeter.assertBytesPerCall("ownerIndexFirst", () -> AgentOwnerIndex.firstOf(id));
+            AllocationMeter.assertBytesPerCall("ownerIndexAll", () -> AgentOwnerIndex.agentsOf(id));
+            AllocationMeter.assertBytesPerCall("findNearest", () -> AgentSpawner.findNearestFor(owner));
+
+            CommandDispatcher<ServerCommandSource> dispatcher = ctx.getWorld().getServer().getCommandManager().getDispatcher();
+            ServerCommandSource source = owner.getCommandSource().withSilent();
+            ParseResults<ServerCommandSource> status = dispatcher.parse("agent", source);
+            ParseResults<ServerCommandSource> where = dispatcher.parse("agent where", source);
+            ParseResults<ServerCommandSource> follow = dispatcher.parse("agent follow on", source);
+            AllocationMeter.assertBytesPerCall("command.status", () -> execute(dispatcher, status));
+            AllocationMeter.assertBytesPerCall("command.where", () -> execute(dispatcher, where));
+            AllocationMeter.assertBytesPerCall("command.follow", () -> execute(dispatcher, follow));
+        });
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 에이전트 1개 힙 점유 (다른 테스트 할당이 섞이지 않게 배치 분리)
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = 40, batchId = "agent_footprint")
+    public void agentFootprint(TestContext ctx) {
+        ctx.runAtTick(1, () -> {
+            ServerWorld world = ctx.getWorld();
+            new AgentEntity(ModEntities.AGENT, world); // 클래스 로드/정적 초기화는 측정에서 제외
+
+            long perAgent = AllocationMeter.retainedBytesPerInstance(FOOTPRINT_BATCH, FOOTPRINT_SAMPLES,
+                    () -> new AgentEntity(ModEntities.AGENT, world));
+            double budget = AgentScenario.budget("footprint.agentRetained", "bytes");
+            if (perAgent > budget) {
+                throw new GameTestException(String.format(Locale.ROOT,
+                        "[footprint] AgentEntity retains %d bytes, budget %.0f bytes", perAgent, budget));
+            }
+            ctx.complete();
+        });
+    }
+
+    private static int execute(CommandDispatcher<ServerCommandSource> dispatcher, ParseResults<ServerCommandSource> parse) {
+        try {
+            return dispatcher.execute(parse);
+        } catch (CommandSyntaxException e) {
+            throw new GameTestException("[alloc] command failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// src/gametest/java/whiteheaven/chiselagent/gametest/AllocationMeter.java
+package whiteheaven.chiselagent.gametest;
+
+import net.minecraft.test.GameTestException;
+import whiteheaven.chiselagent.entity.AgentTickStats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * 할당량/힙 점유 측정 유틸 (GameTest 서버 스레드에서 호출)
+ * <p>
+ * - 호출당 할당량: 스레드 할당 카운터 차이 / 호출 수 (워밍업으로 JIT 컴파일 후 측정,
+ *   빈 호출로 잰 측정 도구 자체 비용은 뺌)
+ * - 힙 점유: 한 묶음을 붙잡은 채 GC 후 힙 사용량 차이 / 개수를 여러 번 재서 중앙값
+ *   (다른 스레드 할당/GC 타이밍에 튀는 표본은 중앙값에서 빠짐)
+ * </p>
+ */
+final class AllocationMeter {
+    private AllocationMeter() {}
+
+    static final int WARMUP_CALLS = 20_000;
+    static final int MEASURE_CALLS = 10_000;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    /** 결과를 여기에 써서 JIT가 호출 자체를 지우지 못하게 함 */
+    private static Object sink;
+
+    /** 호출당 평균 할당 바이트 (정수 나눗셈 — 측정 중 드물게 섞인 할당은 0으로 버려짐) */
+    static long bytesPerCall(Supplier<?> call) {
+        if (!AgentTickStats.allocationSupported()) {
+            throw new GameTestException("thread allocation counters are not supported on this JVM");
+        }
+        Supplier<?> empty = () -> null;
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            sink = call.get();
+            sink = empty.get();
+        }
+        long overhead = measure(empty);
+        long total = measure(call);
+        return Math.max(0L, total - overhead) / MEASURE_CALLS;
+    }
+
+    /** 예산 초과면 실패 */
+    static void assertBytesPerCall(String path, Supplier<?> call) {
+        long bytes = bytesPerCall(call);
+        double budget = AgentScenario.budget("alloc." + path, "bytes");
+        if (bytes > budget) {
+            throw new GameTestException(String.format(Locale.ROOT,
+                    "[alloc] %s allocates %d bytes per call, budget %.0f bytes", path, bytes, budget));
+        }
+    }
+
+    /** 1개당 붙잡는 힙 (바이트) — batch개씩 samples번 잰 값의 중앙값 */
+    static long retainedBytesPerInstance(int batch, int samples, Supplier<?> factory) {
+        long[] perInstance = new long[samples];
+        for (int s = 0; s < samples; s++) {
+            Object[] held = new Object[batch]; // 배열 자체는 GC 전에 만들어 차이에서 빠지게
+            long before = usedHeapAfterGc();
+            for (int i = 0; i < batch; i++) held[i] = factory.get();
+            long after = usedHeapAfterGc();
+            Reference.reachabilityFence(held);
+            perInstance[s] = Math.max(0L, after - before) / batch;
+        }
+        Arrays.sort(perInstance);
+        return perInstance[samples / 2];
+    }
+
+    /** GC를 몇 번 돌린 뒤 힙 사용량 (바이트) */
+    static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long measure(Supplier<?> call) {
+        long start = AgentTickStats.allocatedBytes();
+        for (int i = 0; i < MEASURE_CALLS; i++) sink = call.get();
+        long end = AgentTickStats.allocatedBytes();
+        sink = null;
+        return end - start;
+    }
+}
@@ -0,0 +1,96 @@
+// src/gametest/java/whiteheaven/chiselagent/gametest/BlockJobGameTests.java
+package whiteheaven.chiselagent.gametest;
+
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.DoorBlock;
+import net.minecraft.block.enums.DoubleBlockHalf;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.GameTestException;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import whiteheaven.chiselagent.job.BlockJobEngine;
+
+import java.util.UUID;
+
+/**
+ * 블록 작업 엔진 결과 검사 (섹션 직접 기록 경로가 바닐라 setBlockState와 같은 월드 상태를 남기는지)
+ * <p>
+ * - 두 칸짜리 블록: 아래 칸만 지워도 위 칸이 남지 않음
+ * - 유체: 지운 물은 다시 흐르지 않고, 놓은 물은 첫 유체 틱을 받아 흐름
+ * </p>
+ * 지형은 돌 바닥 + 벽으로 막은 7×7 칸 (물이 밖으로 새지 않게)
+ */
+public class BlockJobGameTests implements FabricGameTest {
+
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-00000000c1ea");
+
+    // ────────────────────────────────────────────────────────────────
+    // 비우기: 문 아래 칸 + 물이 퍼진 바닥층
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = 100, batchId = "agent_job_clear")
+    public void clearDoorAndWater(TestContext ctx) {
+        pen(ctx);
+        BlockState door = Blocks.OAK_DOOR.getDefaultState();
+        ctx.setBlockState(new BlockPos(2, 1, 2), door.with(DoorBlock.HALF, DoubleBlockHalf.LOWER));
+        ctx.setBlockState(new BlockPos(2, 2, 2), door.with(DoorBlock.HALF, DoubleBlockHalf.UPPER));
+        ctx.setBlockState(new BlockPos(4, 1, 4), Blocks.WATER.getDefaultState());
+
+        // 물이 바닥층에 퍼진 뒤 y=1 층만 비움 (문 위 칸은 영역 밖)
+        ctx.runAtTick(20, () -> BlockJobEngine.submitClear(ctx.getWorld(), OWNER, OWNER, box(ctx, 1, 1, 1, 5, 1, 5)));
+        ctx.runAtTick(60, () -> {
+            for (int x = 1; x <= 5; x++) {
+                for (int z = 1; z <= 5; z++) {
+                    BlockPos pos = new BlockPos(x, 1, z);
+                    ctx.expectBlock(Blocks.AIR, pos);
+                    if (!ctx.getBlockState(pos).getFluidState().isEmpty()) {
+                        throw new GameTestException("[job_clear] fluid left at " + pos.toShortString());
+                    }
+                }
+            }
+            ctx.expectBlock(Blocks.AIR, new BlockPos(2, 2, 2)); // 짝 잃은 위 칸이 남으면 안 됨
+            ctx.complete();
+        });
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 치환: 공기 1칸 → 물 (놓은 물이 흘러야 함)
+    // ────────────────────────────────────────────────────────────────
+
+    @GameTest(templateName = EMPTY_STRUCTURE, tickLimit = 100, batchId = "agent_job_fluid")
+    public void placedWaterFlows(TestContext ctx) {
+        pen(ctx);
+        BlockJobEngine.submitReplace(ctx.getWorld(), OWNER, OWNER, box(ctx, 3, 1, 3, 3, 1, 3),
+                Blocks.AIR, Blocks.WATER.getDefaultState());
+        ctx.succeedWhen(() -> {
+            ctx.expectBlock(Blocks.WATER, new BlockPos(3, 1, 3));
+            if (ctx.getBlockState(new BlockPos(3, 1, 4)).getFluidState().isEmpty()) {
+                throw new GameTestException("[job_fluid] placed water has not spread");
+            }
+        });
+    }
+
+    // ── 공통 유틸 ─────────────────────────────────────────────────────
+
+    /** 돌 바닥(y=0) + 높이 3 벽으로 둘러싼 안쪽 x/z 1..5 */
+    private static void pen(TestContext ctx) {
+        BlockState stone = Blocks.STONE.getDefaultState();
+        for (int x = 0; x <= 6; x++) {
+            for (int z = 0; z <= 6; z++) {
+                ctx.setBlockState(new BlockPos(x, 0, z), stone);
+                boolean wall = x == 0 || x == 6 || z == 0 || z == 6;
+                for (int y = 1; y <= 3; y++) {
+                    ctx.setBlockState(new BlockPos(x, y, z), wall ? stone : Blocks.AIR.getDefaultState());
+                }
+            }
+        }
+    }
+
+    /** 테스트 기준 상대 좌표 → 절대 좌표 영역 */
+    private static BlockBox box(TestContext ctx, int x0, int y0, int z0, int x1, int y1, int z1) {
+        return BlockBox.create(ctx.getAbsolutePos(new BlockPos(x0, y0, z0)), ctx.getAbsolutePos(new BlockPos(x1, y1, z1)));
+    }
+}
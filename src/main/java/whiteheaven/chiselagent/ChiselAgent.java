@@ -3,11 +3,31 @@ package whiteheaven.chiselagent;
 
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.object.builder.v1.entity.FabricDefaultAttributeRegistry;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.minecraft.resource.ResourceType;
 
 import whiteheaven.chiselagent.command.AgentCommand;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.config.VehicleProfiles;
+import whiteheaven.chiselagent.agent.AgentJournal;
+import whiteheaven.chiselagent.agent.AgentPurge;
 import whiteheaven.chiselagent.agent.AgentSpawner;
+import whiteheaven.chiselagent.agent.GhostAgents;
+import whiteheaven.chiselagent.control.AgentControl;
 import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentOwnerIndex;
+import whiteheaven.chiselagent.entity.AgentPool;
+import whiteheaven.chiselagent.entity.AgentSpatialHash;
+import whiteheaven.chiselagent.entity.AgentStateTable;
+import whiteheaven.chiselagent.handoff.AgentHandoff;
+import whiteheaven.chiselagent.ipc.AgentIpc;
+import whiteheaven.chiselagent.job.BlockJobEngine;
+import whiteheaven.chiselagent.perception.AgentPerception;
+import whiteheaven.chiselagent.search.BlockSearch;
+import whiteheaven.chiselagent.trace.AgentTrace;
 import whiteheaven.chiselagent.registry.ModEntities;
 
 public class ChiselAgent implements ModInitializer {
@@ -15,19 +35,82 @@ public class ChiselAgent implements ModInitializer {
 
     @Override
     public void onInitialize() {
+        // 설정 로드 (엔티티 타입 등록 전에 — 추적 범위/주기를 여기서 읽음)
+        AgentConfig.reload();
+
+        // 데이터팩 탈것 프로파일 (data/<ns>/agent_vehicles/*.json, /reload 시 다시 로드)
+        ResourceManagerHelper.get(ResourceType.SERVER_DATA).registerReloadListener(new VehicleProfiles());
+
         // 커스텀 엔티티 속성 등록 (원래 ChiselAgentMod가 하던 것)
         FabricDefaultAttributeRegistry.register(ModEntities.AGENT, AgentEntity.createAttributes());
 
         AgentCommand.register(); // "/agent" 명령어
+        BlockJobEngine.register(); // 블록 작업 (서버 틱 끝에서 예산만큼 처리)
+        BlockSearch.register();    // 팔레트 기반 블록 검색 (섹션 캐시 무효화)
+        AgentIpc.register();       // 외부 플래너용 텔레메트리 (설정에서 켠 경우만 동작)
+        AgentPerception.register(); // 에이전트 주변 복셀 창 (IPC 클라이언트가 있을 때만 추적)
+        AgentControl.register();   // 외부/명령 요청 큐 (서버 틱 시작에서 한 번에 처리)
+        AgentStateTable.register(); // 월드별 추적 상태 표 (월드 틱 시작에서 한 번에 계산)
+        AgentPurge.register();     // 일괄 제거 (틱당 예산만큼 나눠서)
+        AgentTrace.register();     // /agent trace 시간 제한 (끝나면 파일로)
+        AgentHandoff.register();   // 프록시 서버 간 인계 (설정에서 켠 경우만 동작)
+        GhostAgents.register();    // 고스트 주인 비행 상태 동기화 (바뀔 때만 패킷)
+
+        // 월드별 에이전트 공간 해시 + 주인별 색인 등록/해제 (겹침 분리, 주인 조회용) + 상태 표 행 해제
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof AgentEntity agent) {
+                AgentSpatialHash.of(world).add(agent);
+                AgentOwnerIndex.add(agent);
+            }
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof AgentEntity agent) {
+                AgentSpatialHash.of(world).remove(agent);
+                AgentOwnerIndex.remove(agent);
+                AgentStateTable.remove(agent, world);
+            }
+        });
+        // 생명주기 저널 (월드 저장 폴더의 메모리 매핑 파일)
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            AgentJournal.open(server);
+            AgentIpc.start(server);
+            AgentHandoff.start(server);
+        });
+        // 종료: 접속 종료 처리/마지막 청크 저장보다 먼저 에이전트를 버림 (저장 시간에 보태지 않음)
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> AgentPurge.discardAllNow());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            AgentIpc.stop();
+            AgentHandoff.stop();
+            AgentPerception.clear();
+            AgentControl.clear();
+            AgentPurge.clear();
+            AgentTrace.clear();
+            AgentSpatialHash.clearAll();
+            AgentOwnerIndex.clearAll();
+            AgentStateTable.clearAll();
+            AgentPool.clearAll();
+            GhostAgents.clear();
+            BlockJobEngine.clear();
+            BlockSearch.clearAll();
+            AgentJournal.close();
+        });
 
-        //  ① 접속 시: 남아있는 에이전트 정리해서 아무도 안 남게 함
-        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> server.execute(() -> AgentSpawner.despawnAllFor(handler.getPlayer())));
+        //  ① 접속 시: 남아있는 에이전트 정리해서 아무도 안 남게 함 + 현재 고스트 목록 전송 + 인계 스냅샷 기다림
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> server.execute(() -> {
+            AgentSpawner.despawnAllFor(handler.getPlayer());
+            GhostAgents.syncTo(handler.getPlayer());
+            AgentHandoff.expect(handler.getPlayer()); // 이전 서버 스냅샷이 오면 그 자리에 복원
+        }));
 
         // ② 종료 시: 해당 플레이어 소유 에이전트 전부 제거(월드에 안 남게)
+        //    한꺼번에 여러 명이 나가도 한 틱에 몰리지 않게 일괄 제거 큐로 (다시 접속하면 ①이 바로 정리)
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> server.execute(() -> {
             var player = handler.getPlayer();
             if (player != null) {
-                AgentSpawner.despawnAllFor(player);
+                AgentHandoff.export(player); // 정리 전에 스냅샷 (켜져 있을 때만)
+                AgentPurge.purgeOwner(player.getUuid(), player.getGameProfile().getName(), null);
+                GhostAgents.disable(server, player.getUuid());
+                BlockJobEngine.cancel(player.getUuid());
             }
         }));
     }
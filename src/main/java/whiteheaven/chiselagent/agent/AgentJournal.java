@@ -0,0 +1,200 @@
+// src/main/java/whiteheaven/chiselagent/agent/AgentJournal.java
+package whiteheaven.chiselagent.agent;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 에이전트 생명주기 저널 (메모리 매핑 고정 크기 링 파일)
+ * <p>
+ * 파일: {@code <월드 저장 폴더>/chisel-agent/journal.bin}
+ * - 헤더 64바이트 + 64바이트 레코드 {@link #CAPACITY}개 (≈4MiB, 서버 시작 시 미리 할당)
+ * - 기록은 매핑된 버퍼에 절대 위치 put만 사용 → 이벤트당 객체 할당 없음
+ * - 가득 차면 가장 오래된 레코드부터 덮어씀 (헤더의 누적 기록 수로 위치 계산)
+ * - /agent history &lt;player&gt; 가 최신 레코드부터 거꾸로 훑어 조회
+ * </p>
+ * <pre>
+ * 레코드 배치 (빅 엔디언)
+ *  0  long  ownerMost     8  long ownerLeast
+ * 16  long  agentMost    24  long agentLeast
+ * 32  int   serverTick   36  int  dimension (Identifier 해시)
+ * 40  long  epochMillis
+ * 48  float x            52  float y          56 float z
+ * 60  byte  event        61  byte 예약        62 short extra (정리한 개수 등)
+ * </pre>
+ * 서버 스레드 전용
+ */
+public final class AgentJournal {
+    private AgentJournal() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+
+    private static final int MAGIC = 0x43414A31; // "CAJ1"
+    private static final int HEADER = 64;
+    private static final int RECORD = 64;
+    private static final int CAPACITY = 65_536;
+
+    // 헤더 오프셋
+    private static final int H_MAGIC = 0;
+    private static final int H_CAPACITY = 4;
+    private static final int H_WRITTEN = 8; // long: 지금까지 기록한 레코드 총수
+
+    /** 이벤트 종류 (파일에는 ordinal 1바이트로 저장 — 순서 바꾸지 말 것, 새 항목은 끝에 추가) */
+    public enum Event {
+        SPAWN_NEW("spawn(new)"),
+        SPAWN_FAILED("spawn(new-failed)"),
+        REUSE("spawn(reuse)"),
+        REUSE_MOVE("spawn(reuse-move)"),
+        REUSE_FALLBACK("spawn(reuse-move-fallback)"),
+        CALL_REPOSITION("call(reposition)"),
+        CALL_MOVE("call(move)"),
+        CALL_FALLBACK("call(move-fallback)"),
+        DESPAWN("despawn"),
+        PURGE("despawn(purge)"),
+        SHUTDOWN("despawn(shutdown)"),
+        HANDOFF("spawn(handoff)");
+
+        public final String label;
+        Event(String label) { this.label = label; }
+
+        private static final Event[] VALUES = values();
+    }
+
+    /** 조회 결과 한 줄 */
+    public record Entry(UUID owner, UUID agent, Event event, Identifier dimension,
+                        int tick, long epochMillis, Vec3d pos, int extra) {}
+
+    private static FileChannel channel;
+    private static MappedByteBuffer buf;
+    private static long written;
+
+    /* ===================== 수명 ===================== */
+
+    /** 서버 시작 시 파일 열기 (없으면 생성, 형식이 다르면 새로 시작) */
+    public static void open(MinecraftServer server) {
+        close();
+        Path path = server.getSavePath(WorldSavePath.ROOT).resolve("chisel-agent").resolve("journal.bin");
+        long size = HEADER + (long) RECORD * CAPACITY;
+        try {
+            Files.createDirectories(path.getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean fresh = channel.size() != size;
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (fresh || buf.getInt(H_MAGIC) != MAGIC || buf.getInt(H_CAPACITY) != CAPACITY) {
+                buf.putInt(H_MAGIC, MAGIC);
+                buf.putInt(H_CAPACITY, CAPACITY);
+                buf.putLong(H_WRITTEN, 0L);
+            }
+            written = buf.getLong(H_WRITTEN);
+        } catch (IOException e) {
+            LOG.warn("agent journal unavailable: {}", e.toString());
+            close();
+        }
+    }
+
+    /** 서버 종료 시 디스크로 밀어내고 닫기 */
+    public static void close() {
+        if (buf != null) buf.force();
+        buf = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        channel = null;
+        written = 0L;
+    }
+
+    /* ===================== 기록 ===================== */
+
+    /** 이벤트 1건 기록 (저널이 닫혀 있으면 무시) */
+    public static void record(Event event, UUID owner, UUID agent, ServerWorld world, Vec3d pos, int extra) {
+        record(event, owner, agent, world, pos.x, pos.y, pos.z, extra);
+    }
+
+    public static void record(Event event, UUID owner, UUID agent, ServerWorld world,
+                              double x, double y, double z, int extra) {
+        MappedByteBuffer b = buf;
+        if (b == null) return;
+
+        int at = HEADER + (int) (written % CAPACITY) * RECORD;
+        b.putLong(at, owner.getMostSignificantBits());
+        b.putLong(at + 8, owner.getLeastSignificantBits());
+        b.putLong(at + 16, agent == null ? 0L : agent.getMostSignificantBits());
+        b.putLong(at + 24, agent == null ? 0L : agent.getLeastSignificantBits());
+        b.putInt(at + 32, world.getServer().getTicks());
+        b.putInt(at + 36, world.getRegistryKey().getValue().hashCode());
+        b.putLong(at + 40, System.currentTimeMillis());
+        b.putFloat(at + 48, (float) x);
+        b.putFloat(at + 52, (float) y);
+        b.putFloat(at + 56, (float) z);
+        b.put(at + 60, (byte) event.ordinal());
+        b.put(at + 61, (byte) 0);
+        b.putShort(at + 62, (short) Math.min(extra, Short.MAX_VALUE));
+
+        written++;
+        b.putLong(H_WRITTEN, written);
+    }
+
+    /* ===================== 조회 ===================== */
+
+    /**
+     * 주인 UUID의 최근 기록 (최신순)
+     * @param limit 최대 개수
+     */
+    public static List<Entry> history(MinecraftServer server, UUID owner, int limit) {
+        List<Entry> out = new ArrayList<>();
+        MappedByteBuffer b = buf;
+        if (b == null) return out;
+
+        long most = owner.getMostSignificantBits();
+        long least = owner.getLeastSignificantBits();
+        long oldest = Math.max(0L, written - CAPACITY);
+        for (long n = written - 1; n >= oldest && out.size() < limit; n--) {
+            int at = HEADER + (int) (n % CAPACITY) * RECORD;
+            if (b.getLong(at) != most || b.getLong(at + 8) != least) continue;
+
+            int eventId = b.get(at + 60) & 0xFF;
+            if (eventId >= Event.VALUES.length) continue; // 더 새로운 버전이 쓴 레코드
+            long am = b.getLong(at + 16);
+            long al = b.getLong(at + 24);
+            out.add(new Entry(
+                    owner,
+                    (am == 0L && al == 0L) ? null : new UUID(am, al),
+                    Event.VALUES[eventId],
+                    dimensionOf(server, b.getInt(at + 36)),
+                    b.getInt(at + 32),
+                    b.getLong(at + 40),
+                    new Vec3d(b.getFloat(at + 48), b.getFloat(at + 52), b.getFloat(at + 56)),
+                    b.getShort(at + 62)
+            ));
+        }
+        return out;
+    }
+
+    /** 저장된 해시를 현재 서버의 차원 id로 되돌림 (없어진 차원이면 null) */
+    private static Identifier dimensionOf(MinecraftServer server, int hash) {
+        for (RegistryKey<World> key : server.getWorldRegistryKeys()) {
+            if (key.getValue().hashCode() == hash) return key.getValue();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,178 @@
+// src/main/java/whiteheaven/chiselagent/agent/AgentPurge.java
+package whiteheaven.chiselagent.agent;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import whiteheaven.chiselagent.agent.AgentJournal.Event;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentOwnerIndex;
+import whiteheaven.chiselagent.entity.AgentPool;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 에이전트 일괄 제거 (여러 틱에 나눠서)
+ * <p>
+ * - 관리자 정리(/agent admin purge)와 접속 종료가 대상 목록을 큐에 넣고,
+ *   서버 틱 끝에서 틱당 jobs.despawnPerTick 마리까지만 discard
+ *   (프록시 재시작 등으로 한꺼번에 나가도 한 틱에 수백 마리를 지우고 추적 해제하지 않음)
+ * - 큐에 있는 동안 이미 사라진 개체(다른 경로로 제거/차원 이동/풀에서 재사용)는 건너뜀
+ * - 제거한 개체는 {@link AgentPool}로 (다음 스폰에 재사용)
+ * - 명령어로 시작한 정리는 1초마다 + 끝날 때 실행자에게 진행 상황을 알림
+ * - 서버 종료 시에는 {@link #discardAllNow}로 마지막 청크 저장 전에 한 번에 버림 (저장 파일에 안 남음)
+ * </p>
+ * 서버 스레드 전용
+ */
+public final class AgentPurge {
+    private AgentPurge() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+    private static final int REPORT_INTERVAL_TICKS = 20;
+
+    /** 제거 작업 1건 (대상은 시작 시점 목록) */
+    public static final class Batch {
+        public final String label;
+        private final ArrayDeque<Target> queue;
+        private final ServerCommandSource reporter; // 진행 상황 받을 실행자 (없으면 null)
+        public final int total;
+        private int removed = 0;
+        private int ticks = 0;
+
+        private Batch(String label, List<AgentEntity> agents, ServerCommandSource reporter) {
+            this.label = label;
+            this.queue = new ArrayDeque<>(agents.size());
+            for (AgentEntity e : agents) queue.addLast(new Target(e, e.getUuid()));
+            this.reporter = reporter;
+            this.total = agents.size();
+        }
+
+        public int removed() {
+            return removed;
+        }
+
+        public int remaining() {
+            return queue.size();
+        }
+    }
+
+    /** 큐에 넣을 때의 UUID도 같이 (풀에서 재사용된 개체는 UUID가 바뀜 → 건너뜀) */
+    private record Target(AgentEntity agent, UUID uuid) {}
+
+    private static final ArrayDeque<Batch> BATCHES = new ArrayDeque<>();
+
+    /** 초기화 시 1회 등록 */
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(AgentPurge::tick);
+    }
+
+    /* ===================== 큐 ===================== */
+
+    /** 서버 전체 */
+    public static Batch purgeAll(ServerCommandSource reporter) {
+        return enqueue("all", AgentOwnerIndex.all(), reporter);
+    }
+
+    /** 한 월드의 에이전트만 */
+    public static Batch purgeWorld(ServerWorld world, ServerCommandSource reporter) {
+        List<AgentEntity> agents = AgentOwnerIndex.all();
+        agents.removeIf(e -> e.getWorld() != world);
+        return enqueue(world.getRegistryKey().getValue().toString(), agents, reporter);
+    }
+
+    /** 주인 1명의 에이전트 (전 차원) */
+    public static Batch purgeOwner(UUID owner, String ownerName, ServerCommandSource reporter) {
+        return enqueue(ownerName, AgentOwnerIndex.agentsOf(owner), reporter);
+    }
+
+    /** 대기/진행 중인 제거 수 */
+    public static int pending() {
+        int n = 0;
+        for (Batch b : BATCHES) n += b.remaining();
+        return n;
+    }
+
+    /** 서버 종료 시 (남은 큐는 의미 없음) */
+    public static void clear() {
+        BATCHES.clear();
+    }
+
+    private static Batch enqueue(String label, List<AgentEntity> agents, ServerCommandSource reporter) {
+        Batch batch = new Batch(label, agents, reporter);
+        if (batch.total > 0) BATCHES.addLast(batch);
+        return batch;
+    }
+
+    /* ===================== 종료 경로 ===================== */
+
+    /**
+     * 로드된 에이전트를 지금 전부 버림 (SERVER_STOPPING — 접속 종료 처리/청크 저장보다 먼저)
+     * 어차피 다음 접속 때 정리되므로 저장 파일에 쓰지 않음
+     * @return 버린 수
+     */
+    public static int discardAllNow() {
+        BATCHES.clear();
+        List<AgentEntity> agents = AgentOwnerIndex.all();
+        for (AgentEntity e : agents) {
+            record(Event.SHUTDOWN, e, agents.size());
+            e.discard();
+        }
+        if (!agents.isEmpty()) LOG.debug("discarded {} agents before shutdown save", agents.size());
+        return agents.size();
+    }
+
+    /* ===================== 틱 처리 ===================== */
+
+    private static void tick(MinecraftServer server) {
+        if (BATCHES.isEmpty()) return;
+
+        int budget = AgentConfig.despawnPerTick();
+        for (Batch batch : BATCHES) batch.ticks++;
+        while (budget > 0 && !BATCHES.isEmpty()) {
+            Batch batch = BATCHES.peekFirst();
+            Target target = batch.queue.pollFirst();
+            if (target == null) {
+                BATCHES.pollFirst();
+                report(batch, true);
+                continue;
+            }
+            AgentEntity e = target.agent();
+            // 큐에 있는 동안 다른 경로로 사라졌거나, 사라진 뒤 풀에서 다른 에이전트로 재사용됨
+            if (e.isRemoved() || !e.getUuid().equals(target.uuid())) continue;
+            record(Event.PURGE, e, batch.total);
+            AgentPool.release(e);
+            batch.removed++;
+            budget--;
+        }
+        // 이번 틱 예산으로 마지막 개체까지 지운 작업은 바로 완료 알림
+        Batch head = BATCHES.peekFirst();
+        if (head != null && head.queue.isEmpty()) {
+            BATCHES.pollFirst();
+            report(head, true);
+        }
+        for (Batch batch : BATCHES) {
+            if (batch.ticks % REPORT_INTERVAL_TICKS == 0) report(batch, false);
+        }
+    }
+
+    private static void report(Batch batch, boolean done) {
+        if (batch.reporter == null) return;
+        String msg = done
+                ? String.format(Locale.ROOT, "노예 정리 끝 (%s): %d마리 제거, %d틱", batch.label, batch.removed, batch.ticks)
+                : String.format(Locale.ROOT, "노예 정리 중 (%s): %d/%d", batch.label, batch.total - batch.remaining(), batch.total);
+        batch.reporter.sendFeedback(() -> Text.literal(msg), false);
+    }
+
+    private static void record(Event event, AgentEntity e, int extra) {
+        UUID owner = e.getOwnerUuid().orElse(null);
+        if (owner != null) AgentJournal.record(event, owner, e.getUuid(), (ServerWorld) e.getWorld(), e.getPos(), extra);
+    }
+}
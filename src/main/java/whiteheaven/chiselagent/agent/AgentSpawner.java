@@ -4,16 +4,21 @@ package whiteheaven.chiselagent.agent;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import net.fabricmc.fabric.api.dimension.v1.FabricDimensions;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.TeleportTarget;
 
 import java.util.*;
 
+import whiteheaven.chiselagent.agent.AgentJournal.Event;
 import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentOwnerIndex;
+import whiteheaven.chiselagent.entity.AgentPool;
+import whiteheaven.chiselagent.trace.AgentTrace;
 
 /**
  * 에이전트(AgentEntity) 스폰 & 관리 유틸
@@ -22,12 +27,16 @@ import whiteheaven.chiselagent.entity.AgentEntity;
  * - JOIN(접속)       : 해당 플레이어의 에이전트를 전부 정리(0마리 보장) ← 자동 스폰 없음
  * - /agent spawn    : **멱등 스폰** — 있으면 1마리만 유지하고 위치/차원 갱신, 없으면 새로 1마리 스폰
  * - DISCONNECT(종료): 전부 정리(월드에 잔여 엔티티 남지 않음)
+ * - 서버 간 인계(handoff): 이전 서버 스냅샷이 오면 주인 자리에 바로 복원 ({@link #restoreFor})
+ * <p>
+ * 제거한 개체는 {@link AgentPool}에 보관했다가 다음 새 스폰에 재사용.
+ * 모든 결정(스폰/재사용/이동/호출/정리)은 {@link AgentJournal}에 기록 (/agent history 로 조회).
+ * 일반 로그는 debug 레벨만 남김.
  */
 public final class AgentSpawner {
     private AgentSpawner() {}
 
     private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
-    private static final Box WORLD_BOX = new Box(-3.0E7, -512, -3.0E7, 3.0E7, 512, 3.0E7);
     private static final int SEARCH_RADIUS = 2; // 안전 위치 탐색 반경(고정)
 
     /* ===================== 퍼블릭 API ===================== */
@@ -40,12 +49,19 @@ public final class AgentSpawner {
 
     /** 해당 플레이어 소유 에이전트를 "전 월드"에서 모두 제거(0마리 보장) */
     public static void despawnAllFor(ServerPlayerEntity player) {
-        ServerWorld anyWorld = (ServerWorld) player.getWorld();
-        UUID owner = player.getUuid();
-        var list = findOwnedAgentsAcrossServer(anyWorld.getServer(), owner);
-        for (var e : list) e.discard();
-        LOG.info("despawnAll owner={} ownerUuid={} removed={}",
-                player.getGameProfile().getName(), owner, list.size());
+        despawnAllFor(player.getServer(), player.getUuid());
+    }
+
+    /** 주인 UUID 기준 (오프라인 주인 / 외부 제어용) — 제거한 개수 반환 */
+    public static int despawnAllFor(MinecraftServer server, UUID owner) {
+        long tr = AgentTrace.begin();
+        var list = findOwnedAgentsAcrossServer(owner);
+        for (var e : list) {
+            record(Event.DESPAWN, owner, e.getUuid(), (ServerWorld) e.getWorld(), e.getPos(), list.size());
+            AgentPool.release(e);
+        }
+        AgentTrace.end(AgentTrace.Phase.DESPAWN, tr, 0);
+        return list.size();
     }
 
     /**
@@ -53,10 +69,19 @@ public final class AgentSpawner {
      * @return 실제로 배치/유지 성공 시 true, 스폰 실패 등 예외적 상황 시 false
      */
     public static boolean spawnOneFor(ServerPlayerEntity player) {
+        long tr = AgentTrace.begin();
+        try {
+            return spawnOne(player);
+        } finally {
+            AgentTrace.end(AgentTrace.Phase.SPAWN, tr, 0);
+        }
+    }
+
+    private static boolean spawnOne(ServerPlayerEntity player) {
         ServerWorld world = (ServerWorld) player.getWorld();
         UUID owner = player.getUuid();
 
-        var owned = findOwnedAgentsAcrossServer(world.getServer(), owner);
+        var owned = findOwnedAgentsAcrossServer(owner);
 
         // 안전 위치
         Vec3d pos = findSafeNearbyPos(world, player.getBlockPos());
@@ -65,31 +90,22 @@ public final class AgentSpawner {
         if (!owned.isEmpty()) {
             var keep = pickNearest(owned, player.getPos());
             int removed = 0;
-            for (var e : owned) if (e != keep) { e.discard(); removed++; }
+            for (var e : owned) if (e != keep) { AgentPool.release(e); removed++; }
 
             // 차원 불일치 시 이동(실패 시 재소환)
             if (keep.getWorld() != world) {
-                var fromDim = keep.getWorld().getRegistryKey().getValue();
-                var toDim   = world.getRegistryKey().getValue();
-                var moved = keep.moveToWorld(world);
-                if (moved instanceof AgentEntity movedAgent) {
-                    movedAgent.refreshPositionAndAngles(pos.x, pos.y, pos.z, player.getYaw(), 0);
-                    LOG.info("spawn(reuse-move) owner={} ownerUuid={} agentUuid={} fromDim={} toDim={} removed={} target={},{},{}",
-                            player.getGameProfile().getName(), owner, movedAgent.getUuid(),
-                            fromDim, toDim, removed, pos.x, pos.y, pos.z);
+                var moved = moveAcross(keep, world, pos, player.getYaw());
+                if (moved != null) {
+                    record(Event.REUSE_MOVE, owner, moved.getUuid(), world, pos, removed);
                     return true;
                 } else {
-                    keep.discard();
-                    boolean ok = spawnNewAgent(world, player, pos); // 내부에서 로그
-                    LOG.info("spawn(reuse-move-fallback) owner={} ownerUuid={} fallback=respawn removed={} result={}",
-                            player.getGameProfile().getName(), owner, removed, ok);
-                    return ok;
+                    record(Event.REUSE_FALLBACK, owner, keep.getUuid(), world, pos, removed);
+                    AgentPool.release(keep);
+                    return spawnNewAgent(world, player, pos); // 내부에서 기록
                 }
             } else {
                 keep.refreshPositionAndAngles(pos.x, pos.y, pos.z, player.getYaw(), 0);
-                LOG.info("spawn(reuse) owner={} ownerUuid={} agentUuid={} dim={} removed={} target={},{},{}",
-                        player.getGameProfile().getName(), owner, keep.getUuid(),
-                        world.getRegistryKey().getValue(), removed, pos.x, pos.y, pos.z);
+                record(Event.REUSE, owner, keep.getUuid(), world, pos, removed);
                 return true;
             }
         }
@@ -100,66 +116,106 @@ public final class AgentSpawner {
 
     /** 내 에이전트를 현재 위치 근처로 이동(여러 마리면 1마리만 유지) */
     public static boolean callToPlayer(ServerPlayerEntity player) {
+        long tr = AgentTrace.begin();
+        try {
+            return call(player);
+        } finally {
+            AgentTrace.end(AgentTrace.Phase.CALL, tr, 0);
+        }
+    }
+
+    private static boolean call(ServerPlayerEntity player) {
         ServerWorld playerWorld = (ServerWorld) player.getWorld();
         UUID owner = player.getUuid();
 
-        var owned = findOwnedAgentsAcrossServer(playerWorld.getServer(), owner);
+        var owned = findOwnedAgentsAcrossServer(owner);
         if (owned.isEmpty()) return false;
 
         var keep = pickNearest(owned, player.getPos());
         int removed = 0;
-        for (AgentEntity e : owned) if (e != keep) { e.discard(); removed++; }
+        for (AgentEntity e : owned) if (e != keep) { AgentPool.release(e); removed++; }
 
         Vec3d pos = findSafeNearbyPos(playerWorld, player.getBlockPos());
         if (pos == null) pos = player.getPos().add(0, 0.1, 0);
 
         if (keep.getWorld() != playerWorld) {
-            var fromDim = keep.getWorld().getRegistryKey().getValue();
-            var toDim   = playerWorld.getRegistryKey().getValue();
-            var moved = keep.moveToWorld(playerWorld);
-            if (moved instanceof AgentEntity movedAgent) {
-                movedAgent.refreshPositionAndAngles(pos.x, pos.y, pos.z, player.getYaw(), 0);
-                LOG.info("call(move) owner={} ownerUuid={} agentUuid={} fromDim={} toDim={} removed={} target={},{},{}",
-                        player.getGameProfile().getName(), owner, movedAgent.getUuid(),
-                        fromDim, toDim, removed, pos.x, pos.y, pos.z);
+            var moved = moveAcross(keep, playerWorld, pos, player.getYaw());
+            if (moved != null) {
+                record(Event.CALL_MOVE, owner, moved.getUuid(), playerWorld, pos, removed);
             } else {
-                keep.discard();
-                boolean ok = spawnNewAgent(playerWorld, player, pos);
-                LOG.info("call(move-fallback) owner={} ownerUuid={} fallback=respawn removed={} result={}",
-                        player.getGameProfile().getName(), owner, removed, ok);
-                return ok;
+                record(Event.CALL_FALLBACK, owner, keep.getUuid(), playerWorld, pos, removed);
+                AgentPool.release(keep);
+                return spawnNewAgent(playerWorld, player, pos);
             }
         } else {
             keep.refreshPositionAndAngles(pos.x, pos.y, pos.z, player.getYaw(), 0);
-            LOG.info("call(reposition) owner={} ownerUuid={} agentUuid={} dim={} removed={} target={},{},{}",
-                    player.getGameProfile().getName(), owner, keep.getUuid(),
-                    playerWorld.getRegistryKey().getValue(), removed, pos.x, pos.y, pos.z);
+            record(Event.CALL_REPOSITION, owner, keep.getUuid(), playerWorld, pos, removed);
         }
         return true;
     }
 
+    /**
+     * 다른 서버에서 넘겨받은 에이전트 복원 — 안전 위치 탐색 없이 주인 자리에 바로 스폰
+     * (이미 있으면 새로 만들지 않고 넘겨받은 설정만 적용)
+     * @return 복원된 에이전트, 스폰 실패 시 null
+     */
+    public static AgentEntity restoreFor(ServerPlayerEntity player, boolean following, boolean sideRight) {
+        long tr = AgentTrace.begin();
+        try {
+            ServerWorld world = (ServerWorld) player.getWorld();
+            AgentEntity e = findNearestFor(player).orElse(null);
+            boolean reused = e != null;
+            if (!reused) {
+                e = AgentPool.acquire(world);
+                e.refreshPositionAndAngles(player.getX(), player.getY(), player.getZ(), player.getYaw(), 0f);
+                e.setOwner(player.getUuid(), player.getGameProfile().getName());
+            }
+            e.setFollowing(following);
+            e.setSideRight(sideRight);
+            if (!reused && !world.spawnEntity(e)) {
+                record(Event.SPAWN_FAILED, player.getUuid(), null, world, player.getPos(), 0);
+                return null;
+            }
+            record(Event.HANDOFF, player.getUuid(), e.getUuid(), (ServerWorld) e.getWorld(), e.getPos(), reused ? 1 : 0);
+            return e;
+        } finally {
+            AgentTrace.end(AgentTrace.Phase.SPAWN, tr, 0);
+        }
+    }
+
     /** (조회 전용) 플레이어의 에이전트 한 마리(가장 가까운 개체) 반환 — 없으면 Optional.empty() */
     public static Optional<AgentEntity> findNearestFor(ServerPlayerEntity player) {
-        ServerWorld anyWorld = (ServerWorld) player.getWorld();
         UUID owner = player.getUuid();
-        var owned = findOwnedAgentsAcrossServer(anyWorld.getServer(), owner);
+        var owned = findOwnedAgentsAcrossServer(owner);
         if (owned.isEmpty()) return Optional.empty();
         return Optional.ofNullable(pickNearest(owned, player.getPos()));
     }
 
     /* ===================== 내부 유틸 ===================== */
 
-    /** 서버의 모든 월드에서 owner 소유 에이전트를 수집 */
-    private static List<AgentEntity> findOwnedAgentsAcrossServer(MinecraftServer server, UUID owner) {
-        List<AgentEntity> all = new ArrayList<>();
-        for (ServerWorld w : server.getWorlds()) {
-            List<AgentEntity> found = w.getEntitiesByClass(
-                    AgentEntity.class, WORLD_BOX,
-                    e -> e.isAlive() && e.getOwnerUuid().map(owner::equals).orElse(false)
-            );
-            all.addAll(found);
+    /** 서버의 모든 월드에서 owner 소유 에이전트를 수집 (주인 색인 조회 — 엔티티 스캔 없음) */
+    private static List<AgentEntity> findOwnedAgentsAcrossServer(UUID owner) {
+        return AgentOwnerIndex.agentsOf(owner);
+    }
+
+    /**
+     * 다른 차원으로 에이전트 이동 (포탈 탐색 없이 목표 좌표로 바로)
+     * @return 이동된 새 인스턴스, 실패 시 null
+     */
+    private static AgentEntity moveAcross(AgentEntity agent, ServerWorld to, Vec3d pos, float yaw) {
+        long tr = AgentTrace.begin();
+        var moved = FabricDimensions.teleport(agent, to, new TeleportTarget(pos, Vec3d.ZERO, yaw, 0f));
+        AgentTrace.end(AgentTrace.Phase.DIMENSION, tr, AgentTrace.track(agent.getUuid()));
+        return moved instanceof AgentEntity movedAgent ? movedAgent : null;
+    }
+
+    /** 저널 기록 + (켜져 있으면) debug 로그 */
+    private static void record(Event event, UUID owner, UUID agent, ServerWorld world, Vec3d pos, int extra) {
+        AgentJournal.record(event, owner, agent, world, pos, extra);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} ownerUuid={} agentUuid={} dim={} pos={},{},{} extra={}", event.label, owner, agent,
+                    world.getRegistryKey().getValue(), pos.x, pos.y, pos.z, extra);
         }
-        return all;
     }
 
     /** 플레이어 기준 가장 가까운 에이전트 선택(동거리 시 첫 요소) */
@@ -194,16 +250,15 @@ public final class AgentSpawner {
 
     /** 실제 스폰 로직(소유자 세팅 포함). 성공 여부 반환 */
     private static boolean spawnNewAgent(ServerWorld world, ServerPlayerEntity player, Vec3d pos) {
-        AgentEntity e = new AgentEntity(whiteheaven.chiselagent.registry.ModEntities.AGENT, world);
+        AgentEntity e = AgentPool.acquire(world); // 풀에 있으면 재사용 (트래커/속성 재생성 생략)
         e.refreshPositionAndAngles(pos.x, pos.y, pos.z, player.getYaw(), 0f);
         e.setOwner(player.getUuid(), player.getGameProfile().getName());
         e.setFollowing(true); // 기본 동작: 소환되면 따라오기
         boolean added = world.spawnEntity(e);
         if (added) {
-            LOG.info("spawn(new) owner={} ownerUuid={} agentUuid={} dim={} pos={},{},{}",
-                    player.getGameProfile().getName(), player.getUuid(), e.getUuid(),
-                    world.getRegistryKey().getValue(), pos.x, pos.y, pos.z);
+            record(Event.SPAWN_NEW, player.getUuid(), e.getUuid(), world, pos, 0);
         } else {
+            record(Event.SPAWN_FAILED, player.getUuid(), null, world, pos, 0);
             LOG.warn("spawn(new-failed) owner={} ownerUuid={} dim={} pos={},{},{}",
                     player.getGameProfile().getName(), player.getUuid(),
                     world.getRegistryKey().getValue(), pos.x, pos.y, pos.z);
@@ -0,0 +1,176 @@
+// src/main/java/whiteheaven/chiselagent/agent/GhostAgents.java
+
+package whiteheaven.chiselagent.agent;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import whiteheaven.chiselagent.ChiselAgent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 고스트 에이전트 레지스트리 (서버 측)
+ * <p>
+ * 순수 장식용 모드: 서버에는 엔티티가 없고 "주인 X, 시드 S, 방향 R" 레코드만 보관.
+ * 각 클라이언트가 이미 동기화되는 주인 움직임을 기준으로 추적 로직을 직접 돌려 그림.
+ * → 서버 틱/청크 저장/엔티티 추적/대역폭 비용 ≒ 0 (레코드 변경 시 패킷 1개)
+ * </p>
+ * 패킷:
+ * - ghost_add    : UUID owner, long seed, boolean sideRight
+ * - ghost_remove : UUID owner
+ * - ghost_flight : UUID owner, boolean flying (바뀔 때만)
+ * <p>
+ * 크리에이티브 비행(PlayerAbilities)은 바닐라가 본인에게만 보내므로 다른 클라이언트는 알 수 없음
+ * → 고스트 주인의 비행 여부만 따로 전송 ({@link #isFlying}이 클라이언트에서 이 값을 사용)
+ * </p>
+ * <p>
+ * 정책: 접속 시 전체 목록 전송, 종료 시 제거 (일반 에이전트와 동일하게 잔여물 없음)
+ */
+public final class GhostAgents {
+    private GhostAgents() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+
+    public static final Identifier ADD_PACKET    = new Identifier(ChiselAgent.MOD_ID, "ghost_add");
+    public static final Identifier REMOVE_PACKET = new Identifier(ChiselAgent.MOD_ID, "ghost_remove");
+    public static final Identifier FLIGHT_PACKET = new Identifier(ChiselAgent.MOD_ID, "ghost_flight");
+
+    /** 고스트 레코드 */
+    public record Entry(UUID owner, long seed, boolean sideRight) {}
+
+    private static final Map<UUID, Entry> ENTRIES = new HashMap<>(); // 서버 스레드 전용
+    private static final Set<UUID> FLYING = new HashSet<>();          // 서버: 마지막으로 보낸 비행 상태
+    private static final Set<UUID> REMOTE_FLYING = new HashSet<>();   // 클라이언트: 받은 비행 상태 (클라이언트 스레드 전용)
+
+    /** 초기화 시 1회 등록 (고스트 주인 비행 상태 변화 감지) */
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(GhostAgents::tick);
+    }
+
+    /* ===================== 퍼블릭 API ===================== */
+
+    public static boolean has(UUID owner) {
+        return ENTRIES.containsKey(owner);
+    }
+
+    /**
+     * 플레이어가 비행 중인지 (겉날개 또는 크리에이티브 비행)
+     * 서버/본인 클라이언트는 능력치, 다른 클라이언트는 {@link #FLIGHT_PACKET}으로 받은 값
+     */
+    public static boolean isFlying(PlayerEntity p) {
+        if (p.isFallFlying()) return true;
+        if (!p.getWorld().isClient || p.isMainPlayer()) return p.getAbilities().flying;
+        return REMOTE_FLYING.contains(p.getUuid());
+    }
+
+    /** 클라이언트: 받은 비행 상태 반영 ({@link #FLIGHT_PACKET}, 고스트 제거/접속 종료 시 false) */
+    public static void setRemoteFlying(UUID owner, boolean flying) {
+        if (flying) REMOTE_FLYING.add(owner);
+        else REMOTE_FLYING.remove(owner);
+    }
+
+    /** 클라이언트: 접속 종료 시 */
+    public static void clearRemote() {
+        REMOTE_FLYING.clear();
+    }
+
+    /**
+     * 고스트 켜기 (이미 있으면 유지) — 서버 엔티티는 호출 측에서 정리
+     * @return 새로 켰으면 true
+     */
+    public static boolean enable(ServerPlayerEntity player) {
+        UUID owner = player.getUuid();
+        if (ENTRIES.containsKey(owner)) return false;
+
+        var rnd = ThreadLocalRandom.current();
+        Entry e = new Entry(owner, rnd.nextLong(), rnd.nextBoolean());
+        ENTRIES.put(owner, e);
+        broadcast(player.getServer(), ADD_PACKET, write(e));
+        LOG.debug("ghost(on) owner={} ownerUuid={}", player.getGameProfile().getName(), owner);
+        return true;
+    }
+
+    /**
+     * 고스트 끄기
+     * @return 실제로 제거했으면 true
+     */
+    public static boolean disable(MinecraftServer server, UUID owner) {
+        if (ENTRIES.remove(owner) == null) return false;
+        FLYING.remove(owner);
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeUuid(owner);
+        broadcast(server, REMOVE_PACKET, buf);
+        LOG.debug("ghost(off) ownerUuid={}", owner);
+        return true;
+    }
+
+    /** 새로 접속한 플레이어에게 현재 고스트 전체 전송 */
+    public static void syncTo(ServerPlayerEntity player) {
+        if (!ServerPlayNetworking.canSend(player, ADD_PACKET)) return;
+        for (Entry e : ENTRIES.values()) {
+            ServerPlayNetworking.send(player, ADD_PACKET, write(e));
+        }
+        if (!ServerPlayNetworking.canSend(player, FLIGHT_PACKET)) return;
+        for (UUID owner : FLYING) {
+            ServerPlayNetworking.send(player, FLIGHT_PACKET, writeFlight(owner, true));
+        }
+    }
+
+    /** 서버 종료 시 정리 */
+    public static void clear() {
+        ENTRIES.clear();
+        FLYING.clear();
+    }
+
+    /** 고스트 주인의 비행 상태가 바뀌면 전체에 알림 (고스트 수만큼만 검사) */
+    private static void tick(MinecraftServer server) {
+        if (ENTRIES.isEmpty()) return;
+        for (UUID owner : ENTRIES.keySet()) {
+            ServerPlayerEntity p = server.getPlayerManager().getPlayer(owner);
+            boolean flying = p != null && p.getAbilities().flying;
+            if (flying == FLYING.contains(owner)) continue;
+            if (flying) FLYING.add(owner);
+            else FLYING.remove(owner);
+            broadcast(server, FLIGHT_PACKET, writeFlight(owner, flying));
+        }
+    }
+
+    /* ===================== 내부 유틸 ===================== */
+
+    private static PacketByteBuf write(Entry e) {
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeUuid(e.owner());
+        buf.writeLong(e.seed());
+        buf.writeBoolean(e.sideRight());
+        return buf;
+    }
+
+    private static PacketByteBuf writeFlight(UUID owner, boolean flying) {
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeUuid(owner);
+        buf.writeBoolean(flying);
+        return buf;
+    }
+
+    private static void broadcast(MinecraftServer server, Identifier id, PacketByteBuf buf) {
+        for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
+            if (ServerPlayNetworking.canSend(p, id)) {
+                // 같은 버퍼를 여러 번 보내면 읽기 위치가 공유되므로 플레이어마다 복사본 전송
+                ServerPlayNetworking.send(p, id, PacketByteBufs.copy(buf));
+            }
+        }
+    }
+}
@@ -1,17 +1,39 @@
 // src/main/java/whiteheaven/chiselagent/command/AgentCommand.java
 package whiteheaven.chiselagent.command;
 
+import static net.minecraft.server.command.CommandManager.argument;
 import static net.minecraft.server.command.CommandManager.literal;
 
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.command.CommandRegistryAccess;
+import net.minecraft.command.argument.BlockPosArgumentType;
+import net.minecraft.command.argument.BlockStateArgumentType;
+import net.minecraft.command.argument.DimensionArgumentType;
+import net.minecraft.command.argument.GameProfileArgumentType;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.text.Text;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos; // Vec3d → BlockPos 변환(Yarn/Fabric 1.20.4)
+import whiteheaven.chiselagent.agent.AgentJournal;
+import whiteheaven.chiselagent.agent.AgentPurge;
 import whiteheaven.chiselagent.agent.AgentSpawner;
+import whiteheaven.chiselagent.agent.GhostAgents;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.job.BlockJob;
+import whiteheaven.chiselagent.job.BlockJobEngine;
+import whiteheaven.chiselagent.search.BlockSearch;
+import whiteheaven.chiselagent.trace.AgentTrace;
 
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -24,7 +46,16 @@ import java.util.UUID;
  *  - /agent spawn           : (플레이어 전용) 멱등 스폰 — 있으면 1마리 유지+위치/차원 갱신, 없으면 새로 1마리 스폰
  *  - /agent call            : (플레이어 전용) 에이전트를 내 근처(반경 2칸)로 소환/이동(여러 마리면 1마리만 유지)
  *  - /agent where           : (플레이어 전용) 에이전트의 현재 위치 출력(차원/좌표/거리)
- *  - /agent despawn         : (플레이어 전용) 내 에이전트 전부 제거(월드에서 0마리 보장)
+ *  - /agent despawn         : (플레이어 전용) 내 에이전트 전부 제거(월드에서 0마리 보장, 고스트 포함)
+ *  - /agent follow on|off   : (플레이어 전용) 따라오기 토글
+ *  - /agent ghost on|off    : (플레이어 전용) 고스트 모드 — 서버 엔티티 없이 클라이언트가 직접 그리는 장식용 에이전트
+ *  - /agent reload          : (OP 2) config/chisel-agent.json 다시 로드 (차원별 프로파일 즉시 반영)
+ *  - /agent history <player>: (OP 2) 해당 플레이어 에이전트의 최근 생명주기 기록 (오프라인 플레이어 가능)
+ *  - /agent job ...         : (OP 2) 내 에이전트에게 블록 작업 맡기기 (섹션 단위 배치, 틱 예산 안에서 처리)
+ *      clear <from> <to> | replace <from> <to> <block> <with> | pattern <from> <to> <a> <b> | list | cancel
+ *  - /agent find <block> [radius]: (OP 2) 에이전트 주변에서 블록 찾기 (가까운 순, 팔레트 검색 — 작업 스레드에서 처리)
+ *  - /agent trace <seconds> | stop: (OP 2) 추적 단계별 구간 기록 → 월드 폴더 chisel-agent/traces/*.json (Chrome/Perfetto)
+ *  - /agent admin purge [world [dim] | owner <player> | all]: (OP 3) 에이전트 일괄 제거 (틱당 예산만큼 나눠서, 진행 상황 알림)
  * <p>
  * 등록: ChiselAgent#onInitialize() → AgentCommand.register()
  * 권한: 현재 .requires(0) → 모두 사용 가능. 필요하면 개별 서브커맨드에 OP 레벨(2~4) 부여.
@@ -36,11 +67,237 @@ public final class AgentCommand {
     private static final Map<UUID, Integer> LAST_SPAWN_TICK = new HashMap<>();
     private static final int SPAWN_COOLDOWN_TICKS = 40;
 
+    // /agent history 출력 줄 수
+    private static final int HISTORY_LINES = 10;
+
+    // /agent find 기본/최대 반경, 출력 줄 수
+    private static final int FIND_RADIUS = 32;
+    private static final int FIND_MAX_RADIUS = 128;
+    private static final int FIND_LINES = 8;
+
+    // /agent trace 최대 길이 (초) — 구간 버퍼가 고정 크기라 길게 잡아도 뒤쪽은 버려짐
+    private static final int TRACE_MAX_SECONDS = 60;
+
     /** 공통 응답 헬퍼 (실행자에게만 표시) */
     private static void send(ServerCommandSource src, String msg) {
         src.sendFeedback(() -> Text.literal(msg), false);
     }
 
+    /** 저널 기록 출력 (최신순) — 출력한 줄 수 반환 */
+    private static int sendHistory(ServerCommandSource src, GameProfile profile) {
+        var entries = AgentJournal.history(src.getServer(), profile.getId(), HISTORY_LINES);
+        if (entries.isEmpty()) {
+            send(src, profile.getName() + "의 노예 기록이 없어요");
+            return 0;
+        }
+        send(src, profile.getName() + "의 노예 기록 (최근 " + entries.size() + "건, 최신순)");
+        long now = System.currentTimeMillis();
+        for (var e : entries) {
+            String dim = e.dimension() == null ? "?" : e.dimension().toString();
+            String agent = e.agent() == null ? "-" : e.agent().toString().substring(0, 8);
+            send(src, String.format(" %s전 [틱 %d] %s 차원=%s 좌표=%.1f/%.1f/%.1f 노예=%s%s",
+                    ago(now - e.epochMillis()), e.tick(), e.event().label, dim,
+                    e.pos().x, e.pos().y, e.pos().z, agent,
+                    e.extra() > 0 ? " (" + e.extra() + ")" : ""));
+        }
+        return entries.size();
+    }
+
+    /**
+     * 블록 작업 제출 공통 처리: 플레이어/에이전트/부피 확인 후 엔진에 등록
+     * @param kind 작업 종류 (엔진의 submit 메서드 선택)
+     */
+    private static int submitJob(CommandContext<ServerCommandSource> ctx, BlockJob.Kind kind) {
+        var src = ctx.getSource();
+        var player = src.getPlayer();
+        if (player == null) {
+            send(src, "콘솔에서는 사용할 수 없어요");
+            return 0;
+        }
+        var opt = AgentSpawner.findNearestFor(player);
+        if (opt.isEmpty()) {
+            send(src, "노예가 없어요 /agent spawn으로 소환하세요");
+            return 0;
+        }
+        AgentEntity agent = opt.get();
+        ServerWorld world = (ServerWorld) player.getWorld();
+
+        BlockBox box = BlockBox.create(BlockPosArgumentType.getBlockPos(ctx, "from"), BlockPosArgumentType.getBlockPos(ctx, "to"));
+        long volume = BlockJob.volumeOf(box);
+        if (volume > AgentConfig.jobMaxVolume()) {
+            send(src, String.format(Locale.ROOT, "영역이 너무 커요 (%d칸, 최대 %d칸)", volume, AgentConfig.jobMaxVolume()));
+            return 0;
+        }
+
+        BlockJob job = switch (kind) {
+            case CLEAR -> BlockJobEngine.submitClear(world, player.getUuid(), agent.getUuid(), box);
+            case REPLACE -> BlockJobEngine.submitReplace(world, player.getUuid(), agent.getUuid(), box,
+                    BlockStateArgumentType.getBlockState(ctx, "block").getBlockState().getBlock(),
+                    BlockStateArgumentType.getBlockState(ctx, "with").getBlockState());
+            case PATTERN -> BlockJobEngine.submitPattern(world, player.getUuid(), agent.getUuid(), box,
+                    BlockStateArgumentType.getBlockState(ctx, "a").getBlockState(),
+                    BlockStateArgumentType.getBlockState(ctx, "b").getBlockState());
+        };
+        send(src, String.format(Locale.ROOT, "작업 #%d(%s)을 맡겼어요: %d칸", job.id, kind.label, job.volume()));
+        return 1;
+    }
+
+    /** 에이전트 위치 기준 블록 검색 — 결과는 검색이 끝난 뒤 서버 스레드에서 출력 */
+    private static int findBlocks(CommandContext<ServerCommandSource> ctx, int radius) {
+        var src = ctx.getSource();
+        var player = src.getPlayer();
+        if (player == null) {
+            send(src, "콘솔에서는 사용할 수 없어요");
+            return 0;
+        }
+        var opt = AgentSpawner.findNearestFor(player);
+        if (opt.isEmpty()) {
+            send(src, "노예가 없어요 /agent spawn으로 소환하세요");
+            return 0;
+        }
+        AgentEntity agent = opt.get();
+        BlockPos center = agent.getBlockPos();
+        var block = BlockStateArgumentType.getBlockState(ctx, "block").getBlockState().getBlock();
+        String name = block.getName().getString();
+
+        long started = System.nanoTime();
+        BlockSearch.find((ServerWorld) agent.getWorld(), center, radius, BlockSearch.Target.of(block), FIND_LINES)
+                .whenCompleteAsync((found, error) -> {
+                    if (error != null) {
+                        send(src, "검색 실패: " + error.getMessage());
+                        return;
+                    }
+                    double ms = (System.nanoTime() - started) / 1.0e6;
+                    if (found.isEmpty()) {
+                        send(src, String.format(Locale.ROOT, "반경 %d 안에 %s 없음 (%.1fms)", radius, name, ms));
+                        return;
+                    }
+                    send(src, String.format(Locale.ROOT, "%s %d개 (가까운 순, %.1fms)", name, found.size(), ms));
+                    for (BlockPos p : found) {
+                        send(src, String.format(Locale.ROOT, " %d, %d, %d (거리 %.1f)",
+                                p.getX(), p.getY(), p.getZ(), Math.sqrt(p.getSquaredDistance(center))));
+                    }
+                }, src.getServer());
+        return 1;
+    }
+
+    /** /agent job 서브커맨드 (블록 상태 인자가 레지스트리 접근을 필요로 해서 따로 구성) */
+    private static LiteralArgumentBuilder<ServerCommandSource> jobCommand(CommandRegistryAccess registryAccess) {
+        return literal("job")
+                .requires(src -> src.hasPermissionLevel(2))
+
+                // /agent job clear <from> <to> : 영역 비우기
+                .then(literal("clear")
+                        .then(argument("from", BlockPosArgumentType.blockPos())
+                                .then(argument("to", BlockPosArgumentType.blockPos())
+                                        .executes(ctx -> submitJob(ctx, BlockJob.Kind.CLEAR)))))
+
+                // /agent job replace <from> <to> <block> <with> : 특정 블록만 치환
+                .then(literal("replace")
+                        .then(argument("from", BlockPosArgumentType.blockPos())
+                                .then(argument("to", BlockPosArgumentType.blockPos())
+                                        .then(argument("block", BlockStateArgumentType.blockState(registryAccess))
+                                                .then(argument("with", BlockStateArgumentType.blockState(registryAccess))
+                                                        .executes(ctx -> submitJob(ctx, BlockJob.Kind.REPLACE)))))))
+
+                // /agent job pattern <from> <to> <a> <b> : 두 블록 체커보드 채우기
+                .then(literal("pattern")
+                        .then(argument("from", BlockPosArgumentType.blockPos())
+                                .then(argument("to", BlockPosArgumentType.blockPos())
+                                        .then(argument("a", BlockStateArgumentType.blockState(registryAccess))
+                                                .then(argument("b", BlockStateArgumentType.blockState(registryAccess))
+                                                        .executes(ctx -> submitJob(ctx, BlockJob.Kind.PATTERN)))))))
+
+                // /agent job list : 내 작업 진행 상황
+                .then(literal("list").executes(ctx -> {
+                    var src = ctx.getSource();
+                    var player = src.getPlayer();
+                    if (player == null) {
+                        send(src, "콘솔에서는 사용할 수 없어요");
+                        return 0;
+                    }
+                    var jobs = BlockJobEngine.jobsOf(player.getUuid());
+                    if (jobs.isEmpty()) {
+                        send(src, "진행 중인 작업이 없어요");
+                        return 0;
+                    }
+                    for (BlockJob job : jobs) {
+                        send(src, String.format(Locale.ROOT, " #%d %s %s %.0f%% (%d블록 변경, %d틱)",
+                                job.id, job.kind.label, job.box.getCenter().toShortString(),
+                                job.progress() * 100.0, job.changed(), job.ticksActive()));
+                    }
+                    return jobs.size();
+                }))
+
+                // /agent job cancel : 내 작업 전부 취소
+                .then(literal("cancel").executes(ctx -> {
+                    var src = ctx.getSource();
+                    var player = src.getPlayer();
+                    if (player == null) {
+                        send(src, "콘솔에서는 사용할 수 없어요");
+                        return 0;
+                    }
+                    int n = BlockJobEngine.cancel(player.getUuid());
+                    send(src, n > 0 ? "작업 " + n + "건을 취소했어요" : "진행 중인 작업이 없어요");
+                    return n;
+                }));
+    }
+
+    /** /agent admin 서브커맨드 (서버 관리용) */
+    private static LiteralArgumentBuilder<ServerCommandSource> adminCommand() {
+        return literal("admin")
+                .requires(src -> src.hasPermissionLevel(3))
+                .then(literal("purge")
+                        // /agent admin purge : 진행 중인 일괄 제거 현황
+                        .executes(ctx -> {
+                            int pending = AgentPurge.pending();
+                            send(ctx.getSource(), pending > 0 ? "정리 대기 중인 노예 " + pending + "마리" : "진행 중인 정리가 없어요");
+                            return pending;
+                        })
+
+                        // /agent admin purge world [dim] : 한 차원 (기본: 실행 위치의 차원)
+                        .then(literal("world")
+                                .executes(ctx -> startPurge(ctx.getSource(),
+                                        AgentPurge.purgeWorld(ctx.getSource().getWorld(), ctx.getSource())))
+                                .then(argument("dim", DimensionArgumentType.dimension())
+                                        .executes(ctx -> startPurge(ctx.getSource(),
+                                                AgentPurge.purgeWorld(DimensionArgumentType.getDimensionArgument(ctx, "dim"), ctx.getSource())))))
+
+                        // /agent admin purge owner <player> : 주인별 (오프라인 주인 가능)
+                        .then(literal("owner")
+                                .then(argument("player", GameProfileArgumentType.gameProfile())
+                                        .executes(ctx -> {
+                                            int started = 0;
+                                            for (GameProfile profile : GameProfileArgumentType.getProfileArgument(ctx, "player")) {
+                                                started += startPurge(ctx.getSource(),
+                                                        AgentPurge.purgeOwner(profile.getId(), profile.getName(), ctx.getSource()));
+                                            }
+                                            return started;
+                                        })))
+
+                        // /agent admin purge all : 서버 전체
+                        .then(literal("all")
+                                .executes(ctx -> startPurge(ctx.getSource(), AgentPurge.purgeAll(ctx.getSource())))));
+    }
+
+    private static int startPurge(ServerCommandSource src, AgentPurge.Batch batch) {
+        if (batch.total == 0) {
+            send(src, "정리할 노예가 없어요 (" + batch.label + ")");
+            return 0;
+        }
+        send(src, String.format(Locale.ROOT, "노예 %d마리 정리 시작 (%s, 틱당 %d마리)",
+                batch.total, batch.label, AgentConfig.despawnPerTick()));
+        return 1;
+    }
+
+    private static String ago(long millis) {
+        long s = Math.max(0L, millis / 1000L);
+        if (s < 60) return s + "초 ";
+        if (s < 3600) return (s / 60) + "분 ";
+        if (s < 86400) return (s / 3600) + "시간 ";
+        return (s / 86400) + "일 ";
+    }
+
     /** 커맨드 트리 등록 */
     public static void register() {
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
@@ -93,6 +350,9 @@ public final class AgentCommand {
                                         return 0;
                                     }
 
+                                    // 고스트였다면 끄고 실제 엔티티로 전환
+                                    GhostAgents.disable(server, uid);
+
                                     // 이미 노예가 있었는지 사전 체크
                                     boolean had = AgentSpawner.findNearestFor(player).isPresent();
                                     boolean ok = AgentSpawner.spawnOneFor(player); // 멱등 보장
@@ -157,13 +417,14 @@ public final class AgentCommand {
                                         return 0;
                                     }
 
+                                    boolean hadGhost = GhostAgents.disable(src.getServer(), player.getUuid());
                                     var hasSlave = AgentSpawner.findNearestFor(player).isPresent();
-                                    if (!hasSlave) {
+                                    if (!hasSlave && !hadGhost) {
                                         send(src, "노예가 없어요 /agent spawn으로 소환하세요");
                                         return 0;
                                     }
 
-                                    AgentSpawner.despawnAllFor(player);
+                                    if (hasSlave) AgentSpawner.despawnAllFor(player);
                                     send(src, "노예를 제거했어요");
                                     return 1;
                                 })
@@ -206,6 +467,106 @@ public final class AgentCommand {
                                     return 1;
                                 }))
                         )
+
+                        // /agent ghost on|off : 고스트 모드 (서버 엔티티 없음, 각 클라이언트가 시뮬레이션)
+                        .then(literal("ghost")
+                                // /agent ghost on : 실제 에이전트는 정리하고 고스트 레코드만 등록
+                                .then(literal("on").executes(ctx -> {
+                                    var src = ctx.getSource();
+                                    var p = src.getPlayer();
+                                    if (p == null) {
+                                        send(src, "콘솔에서는 사용할 수 없어요");
+                                        return 0;
+                                    }
+                                    if (AgentSpawner.findNearestFor(p).isPresent()) {
+                                        AgentSpawner.despawnAllFor(p);
+                                    }
+                                    boolean on = GhostAgents.enable(p);
+                                    send(src, on ? "고스트 노예가 따라다녀요" : "이미 고스트 모드예요");
+                                    return on ? 1 : 0;
+                                }))
+                                // /agent ghost off
+                                .then(literal("off").executes(ctx -> {
+                                    var src = ctx.getSource();
+                                    var p = src.getPlayer();
+                                    if (p == null) {
+                                        send(src, "콘솔에서는 사용할 수 없어요");
+                                        return 0;
+                                    }
+                                    boolean off = GhostAgents.disable(src.getServer(), p.getUuid());
+                                    send(src, off ? "고스트 노예를 돌려보냈어요" : "고스트 모드가 아니에요");
+                                    return off ? 1 : 0;
+                                }))
+                        )
+
+                        // /agent reload : 설정 파일 다시 로드 (OP 전용)
+                        .then(literal("reload")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .executes(ctx -> {
+                                    var src = ctx.getSource();
+                                    var error = AgentConfig.reload();
+                                    if (error.isPresent()) {
+                                        send(src, "설정 불러오기 실패 (이전 설정 유지): " + error.get());
+                                        return 0;
+                                    }
+                                    send(src, "설정을 다시 불러왔어요 (차원별 프로파일 " + AgentConfig.dimensionProfileCount() + "개)");
+                                    return 1;
+                                })
+                        )
+
+                        // /agent history <player> : 생명주기 저널 조회 (OP 전용)
+                        .then(literal("history")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .then(argument("player", GameProfileArgumentType.gameProfile())
+                                        .executes(ctx -> {
+                                            var src = ctx.getSource();
+                                            int shown = 0;
+                                            for (GameProfile profile : GameProfileArgumentType.getProfileArgument(ctx, "player")) {
+                                                shown += sendHistory(src, profile);
+                                            }
+                                            return shown;
+                                        })
+                                )
+                        )
+
+                        // /agent job ... : 블록 작업 (OP 전용)
+                        .then(jobCommand(registryAccess))
+
+                        // /agent find <block> [radius] : 에이전트 주변 블록 검색 (OP 전용 — 광석 위치가 드러나므로)
+                        .then(literal("find")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .then(argument("block", BlockStateArgumentType.blockState(registryAccess))
+                                        .executes(ctx -> findBlocks(ctx, FIND_RADIUS))
+                                        .then(argument("radius", IntegerArgumentType.integer(1, FIND_MAX_RADIUS))
+                                                .executes(ctx -> findBlocks(ctx, IntegerArgumentType.getInteger(ctx, "radius"))))))
+
+                        // /agent trace <seconds> | stop : 추적 틱 단계별 구간 기록 (OP 전용)
+                        .then(literal("trace")
+                                .requires(src -> src.hasPermissionLevel(2))
+                                .then(argument("seconds", IntegerArgumentType.integer(1, TRACE_MAX_SECONDS))
+                                        .executes(ctx -> {
+                                            var src = ctx.getSource();
+                                            int seconds = IntegerArgumentType.getInteger(ctx, "seconds");
+                                            if (!AgentTrace.start(src.getServer(), seconds, src)) {
+                                                send(src, "이미 기록 중이에요 (/agent trace stop)");
+                                                return 0;
+                                            }
+                                            send(src, seconds + "초 동안 추적 기록을 시작했어요");
+                                            return 1;
+                                        }))
+                                .then(literal("stop").executes(ctx -> {
+                                    var src = ctx.getSource();
+                                    if (!AgentTrace.isActive()) {
+                                        send(src, "기록 중이 아니에요");
+                                        return 0;
+                                    }
+                                    AgentTrace.stop(src.getServer());
+                                    return 1;
+                                }))
+                        )
+
+                        // /agent admin ... : 서버 관리 (OP 3)
+                        .then(adminCommand())
         ));
     }
 }
@@ -0,0 +1,364 @@
+// src/main/java/whiteheaven/chiselagent/config/AgentConfig.java
+package whiteheaven.chiselagent.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 에이전트 설정 (config/chisel-agent.json)
+ * <p>
+ * - 시작 시 1회 로드, /agent reload 로 다시 로드 (파일이 없으면 기본값으로 생성)
+ * - "profiles.default" + 차원 id별 덮어쓰기 → 불변 {@link AgentProfile}로 컴파일
+ * - 다시 로드하면 {@link #version()}이 올라가고, 엔티티는 버전이 바뀐 경우에만 프로파일을 다시 조회
+ * - trackingRange / trackingInterval 은 엔티티 타입 등록 시점에만 읽힘 (재시작 필요)
+ * - "interest": 관전자별 추적 정책 — 주인은 항상, 같은 팀은 전체 범위, 그 외는 strangerRadius 이내만
+ *   (트래커가 청크 섹션을 넘을 때만 다시 판정하므로 반경은 대략 16블록 단위로 적용됨)
+ * - "jobs": 블록 작업 엔진 틱 예산 (칸 수 / 시간) + 작업 1건 최대 부피 + 일괄 제거 틱당 개수
+ * - "ipc": 외부 플래너용 로컬 소켓 (기본 꺼짐) — 서버 시작 시점에만 읽힘, voxelWindow는 복셀 인지 창 크기 (0이면 끔)
+ *   권한 있는 채널: 접속하면 OP 확인 없이 아무 주인의 에이전트/블록 작업을 조작할 수 있음
+ *   → 소켓 파일은 서버 계정 전용(0600)으로 만들고, 접속 직후 "ipc.token"을 보내야 요청/텔레메트리가 열림
+ *   (token이 비어 있으면 IPC를 열지 않음 — 기본 설정 파일에는 무작위 값을 넣어 생성)
+ * - "handoff": 프록시 뒤 서버 간 에이전트 인계 (기본 꺼짐) — 공유 폴더, 스냅샷 유효 시간, 접속 후 기다리는 시간,
+ *   아무 서버도 안 가져간 파일을 시작 시 지우는 기준(fileTtlSeconds)
+ * </p>
+ * 파싱 실패 시 이전 설정을 그대로 유지하고 오류 메시지를 돌려줌
+ */
+public final class AgentConfig {
+    private AgentConfig() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String FILE_NAME = "chisel-agent.json";
+
+    /** 컴파일된 설정 스냅샷 (불변) */
+    private record Snapshot(int trackingRange, int trackingInterval,
+                            double strangerRadiusSq, boolean teamsFullRange,
+                            int jobMaxBlocksPerTick, int jobTickBudgetMicros, long jobMaxVolume, int despawnPerTick,
+                            boolean ipcEnabled, String ipcSocket, String ipcToken, int telemetryIntervalTicks, int voxelWindowSize,
+                            boolean handoffEnabled, String handoffDirectory, int handoffMaxAgeSeconds, int handoffWaitSeconds,
+                            int handoffFileTtlSeconds,
+                            AgentProfile defaults, Map<Identifier, AgentProfile> dimensions) {}
+
+    private static final double DEFAULT_STRANGER_RADIUS = 24.0;
+    private static final int DEFAULT_JOB_BLOCKS_PER_TICK = 32_768;
+    private static final int DEFAULT_JOB_BUDGET_MICROS = 4_000;
+    private static final long DEFAULT_JOB_MAX_VOLUME = 4_000_000L;
+    private static final int DEFAULT_DESPAWN_PER_TICK = 32;
+    private static final String DEFAULT_IPC_SOCKET = "chisel-agent.sock";
+    private static final int DEFAULT_TELEMETRY_INTERVAL = 2;
+    private static final int DEFAULT_VOXEL_WINDOW = 32;
+    private static final String DEFAULT_HANDOFF_DIRECTORY = "chisel-agent-handoff";
+    private static final int DEFAULT_HANDOFF_MAX_AGE = 120;
+    private static final int DEFAULT_HANDOFF_WAIT = 10;
+    private static final int DEFAULT_HANDOFF_FILE_TTL = 3_600;
+
+    private static volatile Snapshot current;
+    private static volatile int version = 0;
+
+    /* ===================== 조회 ===================== */
+
+    /** 설정 버전 (다시 로드할 때마다 증가) — 엔티티의 프로파일 캐시 무효화 기준 */
+    public static int version() {
+        snapshot();
+        return version;
+    }
+
+    /** 해당 차원의 프로파일 (차원 전용 항목이 없으면 기본 프로파일) */
+    public static AgentProfile profileFor(RegistryKey<World> dimension) {
+        Snapshot s = snapshot();
+        return s.dimensions().getOrDefault(dimension.getValue(), s.defaults());
+    }
+
+    public static int trackingRange() {
+        return snapshot().trackingRange();
+    }
+
+    public static int trackingInterval() {
+        return snapshot().trackingInterval();
+    }
+
+    /** 주인/팀원이 아닌 관전자가 에이전트를 받는 최대 거리² (음수면 제한 없음) */
+    public static double strangerRadiusSquared() {
+        return snapshot().strangerRadiusSq();
+    }
+
+    /** 주인과 같은 스코어보드 팀이면 추적 범위 전체에서 보이게 할지 */
+    public static boolean teamsFullRange() {
+        return snapshot().teamsFullRange();
+    }
+
+    /** 블록 작업: 틱당 최대로 훑는 칸 수 */
+    public static int jobMaxBlocksPerTick() {
+        return snapshot().jobMaxBlocksPerTick();
+    }
+
+    /** 블록 작업: 틱당 시간 예산 (µs) */
+    public static int jobTickBudgetMicros() {
+        return snapshot().jobTickBudgetMicros();
+    }
+
+    /** 블록 작업 1건의 최대 부피 (칸) */
+    public static long jobMaxVolume() {
+        return snapshot().jobMaxVolume();
+    }
+
+    /** 일괄 제거(/agent admin purge, 접속 종료): 틱당 최대 제거 수 */
+    public static int despawnPerTick() {
+        return snapshot().despawnPerTick();
+    }
+
+    /** 서버 간 에이전트 인계 사용 여부 */
+    public static boolean handoffEnabled() {
+        return snapshot().handoffEnabled();
+    }
+
+    /** 인계 스냅샷 공유 폴더 (상대 경로면 서버 실행 폴더 기준 — 여러 서버가 같은 폴더를 가리켜야 함) */
+    public static String handoffDirectory() {
+        return snapshot().handoffDirectory();
+    }
+
+    /** 이보다 오래된 스냅샷은 무시 (초) */
+    public static int handoffMaxAgeSeconds() {
+        return snapshot().handoffMaxAgeSeconds();
+    }
+
+    /** 접속 후 이전 서버의 스냅샷을 기다리는 시간 (초) — 프록시는 보통 새 서버 접속 후 이전 서버 연결을 끊음 */
+    public static int handoffWaitSeconds() {
+        return snapshot().handoffWaitSeconds();
+    }
+
+    /** 공유 폴더에서 이보다 오래된 파일은 서버 시작 시 지움 (초) */
+    public static int handoffFileTtlSeconds() {
+        return snapshot().handoffFileTtlSeconds();
+    }
+
+    /** 로컬 IPC 소켓 사용 여부 */
+    public static boolean ipcEnabled() {
+        return snapshot().ipcEnabled();
+    }
+
+    /** IPC 소켓 경로 (게임 폴더 기준 상대 경로 또는 절대 경로) */
+    public static String ipcSocket() {
+        return snapshot().ipcSocket();
+    }
+
+    /** IPC 접속 인증 토큰 (비어 있으면 IPC를 열지 않음) */
+    public static String ipcToken() {
+        return snapshot().ipcToken();
+    }
+
+    /** 텔레메트리 스냅샷 주기 (틱) */
+    public static int telemetryIntervalTicks() {
+        return snapshot().telemetryIntervalTicks();
+    }
+
+    /** 복셀 인지 창 한 변 (칸, 4의 배수) — 0이면 인지 전송 안 함 */
+    public static int voxelWindowSize() {
+        return snapshot().voxelWindowSize();
+    }
+
+    /* ===================== 로드 ===================== */
+
+    /**
+     * 설정 파일 다시 로드
+     * @return 실패 시 오류 메시지 (이전 설정 유지), 성공 시 empty
+     */
+    public static synchronized Optional<String> reload() {
+        try {
+            Snapshot s = read(configPath());
+            current = s;
+            version++;
+            LOG.info("config loaded: {} dimension profile(s)", s.dimensions().size());
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("config load failed, keeping previous settings: {}", e.toString());
+            if (current == null) current = defaults();
+            return Optional.of(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    /** 차원별 프로파일 개수 (명령어 응답용) */
+    public static int dimensionProfileCount() {
+        return snapshot().dimensions().size();
+    }
+
+    /* ===================== 내부 유틸 ===================== */
+
+    private static Snapshot snapshot() {
+        Snapshot s = current;
+        if (s == null) {
+            reload();
+            s = current;
+        }
+        return s;
+    }
+
+    /** 음수(제한 없음)는 그대로 음수로 유지 */
+    private static double square(double radius) {
+        return radius < 0 ? -1.0 : radius * radius;
+    }
+
+    /** 0 이하는 끔, 그 외는 8~64 범위의 4의 배수로 */
+    private static int voxelWindow(int size) {
+        if (size <= 0) return 0;
+        return (Math.min(64, Math.max(8, size)) + 3) & ~3;
+    }
+
+    private static Path configPath() {
+        return FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+    }
+
+    private static Snapshot defaults() {
+        return new Snapshot(64, 3, square(DEFAULT_STRANGER_RADIUS), true,
+                DEFAULT_JOB_BLOCKS_PER_TICK, DEFAULT_JOB_BUDGET_MICROS, DEFAULT_JOB_MAX_VOLUME, DEFAULT_DESPAWN_PER_TICK,
+                false, DEFAULT_IPC_SOCKET, "", DEFAULT_TELEMETRY_INTERVAL, DEFAULT_VOXEL_WINDOW,
+                false, DEFAULT_HANDOFF_DIRECTORY, DEFAULT_HANDOFF_MAX_AGE, DEFAULT_HANDOFF_WAIT,
+                DEFAULT_HANDOFF_FILE_TTL,
+                AgentProfile.DEFAULT, Map.of());
+    }
+
+    private static Snapshot read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            writeDefault(path);
+        }
+        JsonObject root;
+        try (Reader r = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            root = JsonParser.parseReader(r).getAsJsonObject();
+        }
+
+        int trackingRange = root.has("trackingRange") ? root.get("trackingRange").getAsInt() : 64;
+        int trackingInterval = root.has("trackingInterval") ? root.get("trackingInterval").getAsInt() : 3;
+
+        JsonObject interest = root.has("interest") ? root.getAsJsonObject("interest") : new JsonObject();
+        double strangerRadius = interest.has("strangerRadius") ? interest.get("strangerRadius").getAsDouble() : DEFAULT_STRANGER_RADIUS;
+        boolean teamsFullRange = !interest.has("teamsFullRange") || interest.get("teamsFullRange").getAsBoolean();
+
+        JsonObject jobs = root.has("jobs") ? root.getAsJsonObject("jobs") : new JsonObject();
+        int jobBlocks = jobs.has("maxBlocksPerTick") ? jobs.get("maxBlocksPerTick").getAsInt() : DEFAULT_JOB_BLOCKS_PER_TICK;
+        int jobMicros = jobs.has("tickBudgetMicros") ? jobs.get("tickBudgetMicros").getAsInt() : DEFAULT_JOB_BUDGET_MICROS;
+        long jobVolume = jobs.has("maxVolume") ? jobs.get("maxVolume").getAsLong() : DEFAULT_JOB_MAX_VOLUME;
+        int despawnPerTick = jobs.has("despawnPerTick") ? jobs.get("despawnPerTick").getAsInt() : DEFAULT_DESPAWN_PER_TICK;
+
+        JsonObject ipc = root.has("ipc") ? root.getAsJsonObject("ipc") : new JsonObject();
+        boolean ipcEnabled = ipc.has("enabled") && ipc.get("enabled").getAsBoolean();
+        String ipcSocket = ipc.has("socket") ? ipc.get("socket").getAsString() : DEFAULT_IPC_SOCKET;
+        String ipcToken = ipc.has("token") ? ipc.get("token").getAsString() : "";
+        int telemetryInterval = ipc.has("telemetryIntervalTicks") ? ipc.get("telemetryIntervalTicks").getAsInt() : DEFAULT_TELEMETRY_INTERVAL;
+        int voxelWindow = ipc.has("voxelWindow") ? ipc.get("voxelWindow").getAsInt() : DEFAULT_VOXEL_WINDOW;
+
+        JsonObject handoff = root.has("handoff") ? root.getAsJsonObject("handoff") : new JsonObject();
+        boolean handoffEnabled = handoff.has("enabled") && handoff.get("enabled").getAsBoolean();
+        String handoffDir = handoff.has("directory") ? handoff.get("directory").getAsString() : DEFAULT_HANDOFF_DIRECTORY;
+        int handoffMaxAge = handoff.has("maxAgeSeconds") ? handoff.get("maxAgeSeconds").getAsInt() : DEFAULT_HANDOFF_MAX_AGE;
+        int handoffWait = handoff.has("waitSeconds") ? handoff.get("waitSeconds").getAsInt() : DEFAULT_HANDOFF_WAIT;
+        int handoffFileTtl = handoff.has("fileTtlSeconds") ? handoff.get("fileTtlSeconds").getAsInt() : DEFAULT_HANDOFF_FILE_TTL;
+
+        JsonObject profiles = root.has("profiles") ? root.getAsJsonObject("profiles") : new JsonObject();
+        AgentProfile base = profiles.has("default")
+                ? AgentProfile.fromJson(profiles.getAsJsonObject("default"), AgentProfile.DEFAULT)
+                : AgentProfile.DEFAULT;
+
+        Map<Identifier, AgentProfile> dims = new HashMap<>();
+        for (Map.Entry<String, JsonElement> e : profiles.entrySet()) {
+            if (e.getKey().equals("default")) continue;
+            Identifier id = Identifier.tryParse(e.getKey());
+            if (id == null) throw new IllegalArgumentException("잘못된 차원 id: " + e.getKey());
+            dims.put(id, AgentProfile.fromJson(e.getValue().getAsJsonObject(), base));
+        }
+
+        return new Snapshot(Math.max(8, trackingRange), Math.max(1, trackingInterval),
+                square(strangerRadius), teamsFullRange,
+                Math.max(256, jobBlocks), Math.max(100, jobMicros), Math.max(1L, jobVolume), Math.max(1, despawnPerTick),
+                ipcEnabled, ipcSocket, ipcToken, Math.max(1, telemetryInterval), voxelWindow(voxelWindow),
+                handoffEnabled && !handoffDir.isBlank(), handoffDir, Math.max(1, handoffMaxAge), Math.max(0, handoffWait),
+                Math.max(Math.max(1, handoffMaxAge), handoffFileTtl),
+                base, Map.copyOf(dims));
+    }
+
+    /** 기본 설정 파일 생성 (네더/엔드는 따라잡기 동작을 다르게) */
+    private static void writeDefault(Path path) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("trackingRange", 64);
+        root.addProperty("trackingInterval", 3);
+
+        // 관전자별 추적 정책: strangerRadius < 0 이면 제한 없음, 0 이면 남에게는 안 보임
+        // 판정은 관전자/에이전트가 청크 섹션을 넘을 때만 다시 하므로 경계가 16블록 정도 늦게/이르게 적용될 수 있음
+        JsonObject interest = new JsonObject();
+        interest.addProperty("strangerRadius", DEFAULT_STRANGER_RADIUS);
+        interest.addProperty("teamsFullRange", true);
+        root.add("interest", interest);
+
+        // 블록 작업 엔진: 틱당 칸 수/시간 중 먼저 닿는 쪽에서 멈추고 다음 틱에 이어서 처리
+        // despawnPerTick: 에이전트 일괄 제거(관리자 정리/접속 종료)도 틱당 이 수만큼 나눠서
+        JsonObject jobs = new JsonObject();
+        jobs.addProperty("maxBlocksPerTick", DEFAULT_JOB_BLOCKS_PER_TICK);
+        jobs.addProperty("tickBudgetMicros", DEFAULT_JOB_BUDGET_MICROS);
+        jobs.addProperty("maxVolume", DEFAULT_JOB_MAX_VOLUME);
+        jobs.addProperty("despawnPerTick", DEFAULT_DESPAWN_PER_TICK);
+        root.add("jobs", jobs);
+
+        // 외부 플래너용 로컬 소켓 (유닉스 도메인 소켓, 같은 호스트 전용)
+        // 권한 있는 채널 (OP 확인 없이 에이전트/블록 작업 조작) — 클라이언트는 접속 직후 token을 보내야 함
+        JsonObject ipc = new JsonObject();
+        ipc.addProperty("enabled", false);
+        ipc.addProperty("socket", DEFAULT_IPC_SOCKET);
+        ipc.addProperty("token", UUID.randomUUID().toString().replace("-", ""));
+        ipc.addProperty("telemetryIntervalTicks", DEFAULT_TELEMETRY_INTERVAL);
+        ipc.addProperty("voxelWindow", DEFAULT_VOXEL_WINDOW);
+        root.add("ipc", ipc);
+
+        // 서버 간 에이전트 인계: 나갈 때 스냅샷을 공유 폴더에 쓰고, 다른 서버 접속 시 가져와 바로 복원
+        // fileTtlSeconds: 아무 서버도 안 가져간 파일은 서버 시작 시 이보다 오래됐으면 지움 (maxAgeSeconds 이상)
+        JsonObject handoff = new JsonObject();
+        handoff.addProperty("enabled", false);
+        handoff.addProperty("directory", DEFAULT_HANDOFF_DIRECTORY);
+        handoff.addProperty("maxAgeSeconds", DEFAULT_HANDOFF_MAX_AGE);
+        handoff.addProperty("waitSeconds", DEFAULT_HANDOFF_WAIT);
+        handoff.addProperty("fileTtlSeconds", DEFAULT_HANDOFF_FILE_TTL);
+        root.add("handoff", handoff);
+
+        JsonObject profiles = new JsonObject();
+        profiles.add("default", AgentProfile.DEFAULT.toJson());
+
+        // 네더: 좁은 통로/용암 — 빨리 따라잡고 조금만 멀어져도 텔레포트
+        JsonObject nether = new JsonObject();
+        nether.addProperty("fastRadius", 6.0);
+        nether.addProperty("fastMultiplier", 2.0);
+        nether.addProperty("teleportDistance", 18.0);
+        profiles.add("minecraft:the_nether", nether);
+
+        // 엔드: 엘리트라 비행 위주 — 비행 추격 속도를 높이고 텔레포트는 덜 자주
+        JsonObject end = new JsonObject();
+        end.addProperty("flySpeed", 0.6);
+        end.addProperty("fastMultiplier", 1.8);
+        end.addProperty("teleportDistance", 40.0);
+        profiles.add("minecraft:the_end", end);
+
+        root.add("profiles", profiles);
+
+        Files.createDirectories(path.getParent());
+        try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            GSON.toJson(root, w);
+        }
+    }
+}
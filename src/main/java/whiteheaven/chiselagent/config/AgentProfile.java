@@ -0,0 +1,155 @@
+// src/main/java/whiteheaven/chiselagent/config/AgentProfile.java
+package whiteheaven.chiselagent.config;
+
+import com.google.gson.JsonObject;
+
+/**
+ * 에이전트 추적 튜닝 프로파일 (불변)
+ * <p>
+ * 설정 파일의 "default" 또는 차원별 항목 하나가 이 객체 하나로 컴파일됨.
+ * 틱 경로는 엔티티가 캐시해 둔 이 객체의 필드만 읽음 (맵 조회/문자열 파싱 없음).
+ * 각도는 로드 시 라디안으로 미리 변환.
+ * </p>
+ *
+ * @param walkSpeed        지상 보행 최대 이동량 (블록/틱)
+ * @param swimSpeed        수영 최대 이동량
+ * @param flySpeed         비행 추격 최대 이동량
+ * @param mountSpeed       탈것 추격 이동량 (데이터팩 탈것 프로파일에 없는 탈것용 기본값)
+ * @param slowRadius       이 거리 이내면 감속
+ * @param fastRadius       이 거리 이상이면 가속
+ * @param slowMultiplier   감속 배율
+ * @param fastMultiplier   가속(따라잡기) 배율
+ * @param teleportDistance 이 거리를 넘으면 텔레포트
+ * @param heightLerp       수직 보정 비율
+ * @param backMinRad       뒤쪽 궤도 최소 각도 (라디안)
+ * @param backMaxRad       뒤쪽 궤도 최대 각도 (라디안)
+ * @param orbitMinRadius   궤도 최소 거리
+ * @param orbitMaxRadius   궤도 최대 거리
+ * @param orbitMinTicks    궤도 위치 최소 유지 틱
+ * @param orbitMaxTicks    궤도 위치 최대 유지 틱
+ * @param chaseEnterSpeed  주인 속도가 이 값을 넘으면(비행/탈것) 예측 추격 모드 진입 (블록/틱)
+ * @param chaseExitSpeed   이 값 아래로 떨어지면 추격 모드 해제 (진입값보다 작게 → 경계에서 깜빡임 방지)
+ * @param chaseLeadTicks   몇 틱 뒤의 목표 위치를 예측해서 그 틱에 도착하도록 겨냥할지 (클수록 부드럽고 느리게 따라붙음)
+ * @param chaseMaxAccel    추격 중 에이전트 자신의 속도 변화 상한 (블록/틱²)
+ * @param chaseMaxFactor   한 틱 최대 이동량 = 주인 속도 × 이 배율 + flySpeed
+ * @param chaseTeleportFactor 추격 중 텔레포트 거리 배율 (teleportDistance × 이 값)
+ */
+public record AgentProfile(
+        double walkSpeed,
+        double swimSpeed,
+        double flySpeed,
+        double mountSpeed,
+        double slowRadius,
+        double fastRadius,
+        double slowMultiplier,
+        double fastMultiplier,
+        double teleportDistance,
+        double heightLerp,
+        double backMinRad,
+        double backMaxRad,
+        double orbitMinRadius,
+        double orbitMaxRadius,
+        int orbitMinTicks,
+        int orbitMaxTicks,
+        double chaseEnterSpeed,
+        double chaseExitSpeed,
+        double chaseLeadTicks,
+        double chaseMaxAccel,
+        double chaseMaxFactor,
+        double chaseTeleportFactor
+) {
+
+    /** 기본값 (예전 AgentEntity 상수와 동일) */
+    public static final AgentProfile DEFAULT = new AgentProfile(
+            0.2,   // ≈ 4블록/초 (플레이어 보통 걷기 ≈4.3블록/초; 에이전트를 살짝 느리게 설정)
+            0.27,  // ≈ 5.4블록/초 (스프린트 수영 ≈5.6블록/초 수준)
+            0.43,  // ≈ 8.6블록/초 (엘리트라 활공 시 수평 속도 ≈8~10블록/초 참고)
+            0.4,   // ≈ 8블록/초 (말 평균 질주 ≈7~9블록/초; 보트 등은 탈것 프로파일에서 따로 지정)
+            1.6, 8.0,
+            0.35, 1.6,
+            30.0,
+            0.25,
+            Math.toRadians(130.0), Math.toRadians(170.0),
+            2.6, 4.2,
+            60, 140,
+            0.5, 0.35,   // ≈ 10블록/초 이상이면 추격 모드 (엘리트라/얼음 보트/질주하는 말)
+            4.0,
+            0.4,
+            1.5,
+            2.0
+    );
+
+    public AgentProfile {
+        // 범위가 뒤집힌 설정은 조용히 바로잡음 (랜덤 범위 계산에서 음수 폭 방지)
+        if (backMaxRad < backMinRad) { double t = backMinRad; backMinRad = backMaxRad; backMaxRad = t; }
+        if (orbitMaxRadius < orbitMinRadius) { double t = orbitMinRadius; orbitMinRadius = orbitMaxRadius; orbitMaxRadius = t; }
+        orbitMinTicks = Math.max(1, orbitMinTicks);
+        orbitMaxTicks = Math.max(orbitMinTicks, orbitMaxTicks);
+        chaseExitSpeed = Math.min(chaseExitSpeed, chaseEnterSpeed);
+        chaseLeadTicks = Math.max(1.0, chaseLeadTicks);
+        chaseMaxAccel = Math.max(0.01, chaseMaxAccel);
+        chaseTeleportFactor = Math.max(1.0, chaseTeleportFactor);
+    }
+
+    /**
+     * JSON 항목을 base 위에 덮어써서 새 프로파일 생성 (없는 키는 base 값 유지)
+     */
+    static AgentProfile fromJson(JsonObject json, AgentProfile base) {
+        return new AgentProfile(
+                num(json, "walkSpeed", base.walkSpeed),
+                num(json, "swimSpeed", base.swimSpeed),
+                num(json, "flySpeed", base.flySpeed),
+                num(json, "mountSpeed", base.mountSpeed),
+                num(json, "slowRadius", base.slowRadius),
+                num(json, "fastRadius", base.fastRadius),
+                num(json, "slowMultiplier", base.slowMultiplier),
+                num(json, "fastMultiplier", base.fastMultiplier),
+                num(json, "teleportDistance", base.teleportDistance),
+                num(json, "heightLerp", base.heightLerp),
+                Math.toRadians(num(json, "backMinDeg", Math.toDegrees(base.backMinRad))),
+                Math.toRadians(num(json, "backMaxDeg", Math.toDegrees(base.backMaxRad))),
+                num(json, "orbitMinRadius", base.orbitMinRadius),
+                num(json, "orbitMaxRadius", base.orbitMaxRadius),
+                (int) num(json, "orbitMinTicks", base.orbitMinTicks),
+                (int) num(json, "orbitMaxTicks", base.orbitMaxTicks),
+                num(json, "chaseEnterSpeed", base.chaseEnterSpeed),
+                num(json, "chaseExitSpeed", base.chaseExitSpeed),
+                num(json, "chaseLeadTicks", base.chaseLeadTicks),
+                num(json, "chaseMaxAccel", base.chaseMaxAccel),
+                num(json, "chaseMaxFactor", base.chaseMaxFactor),
+                num(json, "chaseTeleportFactor", base.chaseTeleportFactor)
+        );
+    }
+
+    /** 기본 설정 파일 작성용 */
+    JsonObject toJson() {
+        JsonObject o = new JsonObject();
+        o.addProperty("walkSpeed", walkSpeed);
+        o.addProperty("swimSpeed", swimSpeed);
+        o.addProperty("flySpeed", flySpeed);
+        o.addProperty("mountSpeed", mountSpeed);
+        o.addProperty("slowRadius", slowRadius);
+        o.addProperty("fastRadius", fastRadius);
+        o.addProperty("slowMultiplier", slowMultiplier);
+        o.addProperty("fastMultiplier", fastMultiplier);
+        o.addProperty("teleportDistance", teleportDistance);
+        o.addProperty("heightLerp", heightLerp);
+        o.addProperty("backMinDeg", Math.round(Math.toDegrees(backMinRad) * 1000.0) / 1000.0);
+        o.addProperty("backMaxDeg", Math.round(Math.toDegrees(backMaxRad) * 1000.0) / 1000.0);
+        o.addProperty("orbitMinRadius", orbitMinRadius);
+        o.addProperty("orbitMaxRadius", orbitMaxRadius);
+        o.addProperty("orbitMinTicks", orbitMinTicks);
+        o.addProperty("orbitMaxTicks", orbitMaxTicks);
+        o.addProperty("chaseEnterSpeed", chaseEnterSpeed);
+        o.addProperty("chaseExitSpeed", chaseExitSpeed);
+        o.addProperty("chaseLeadTicks", chaseLeadTicks);
+        o.addProperty("chaseMaxAccel", chaseMaxAccel);
+        o.addProperty("chaseMaxFactor", chaseMaxFactor);
+        o.addProperty("chaseTeleportFactor", chaseTeleportFactor);
+        return o;
+    }
+
+    private static double num(JsonObject json, String key, double fallback) {
+        return json.has(key) ? json.get(key).getAsDouble() : fallback;
+    }
+}
@@ -0,0 +1,40 @@
+// src/main/java/whiteheaven/chiselagent/config/VehicleProfile.java
+package whiteheaven.chiselagent.config;
+
+import com.google.gson.JsonObject;
+
+/**
+ * 탈것 추격 프로파일 (불변)
+ * <p>
+ * 주인이 탈것에 탔을 때 에이전트가 쓰는 값. 데이터팩
+ * {@code data/<ns>/agent_vehicles/*.json} 항목 하나가 이 객체 하나로 컴파일됨.
+ * </p>
+ *
+ * @param speed             틱당 최대 이동량 (블록/틱)
+ * @param catchUpMultiplier 멀리 떨어졌을 때(fastRadius 밖) 가속 배율
+ * @param lerpXZ            궤도 목표를 주인 쪽으로 당기는 수평 보간 비율 (0=주인 위치, 1=궤도 위치)
+ * @param lerpY             수직 보간 비율
+ * @param verticalOffset    주인 기준 수직 오프셋 (블록)
+ */
+public record VehicleProfile(double speed, double catchUpMultiplier,
+                             double lerpXZ, double lerpY, double verticalOffset) {
+
+    /** 목록에 없는 탈것: 차원 프로파일의 mountSpeed/fastMultiplier + 예전 고정 보간값 */
+    public static VehicleProfile fallback(AgentProfile profile) {
+        return new VehicleProfile(profile.mountSpeed(), profile.fastMultiplier(), 0.45, 0.25, -0.20);
+    }
+
+    static VehicleProfile fromJson(JsonObject json) {
+        return new VehicleProfile(
+                num(json, "speed", 0.4),
+                num(json, "catchUpMultiplier", 1.6),
+                num(json, "lerpXZ", 0.45),
+                num(json, "lerpY", 0.25),
+                num(json, "verticalOffset", -0.20)
+        );
+    }
+
+    private static double num(JsonObject json, String key, double fallback) {
+        return json.has(key) ? json.get(key).getAsDouble() : fallback;
+    }
+}
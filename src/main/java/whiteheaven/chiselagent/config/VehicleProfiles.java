@@ -0,0 +1,130 @@
+// src/main/java/whiteheaven/chiselagent/config/VehicleProfiles.java
+package whiteheaven.chiselagent.config;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.entity.EntityType;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import whiteheaven.chiselagent.ChiselAgent;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 탈것 타입 → {@link VehicleProfile} 레지스트리 (데이터팩 로드)
+ * <p>
+ * 파일: {@code data/<ns>/agent_vehicles/*.json}
+ * <pre>
+ * {
+ *   "priority": 0,                         // 같은 타입에 여러 파일이 걸리면 높은 쪽 우선
+ *   "entities": ["minecraft:boat", "#c:boats"],  // 엔티티 id 또는 #태그
+ *   "speed": 0.45, "catchUpMultiplier": 1.6,
+ *   "lerpXZ": 0.45, "lerpY": 0.25, "verticalOffset": -0.2
+ * }
+ * </pre>
+ * - 조회 결과는 EntityType별로 캐시 (태그 검사는 타입당 최초 1회)
+ * - 에이전트는 주인의 탈것이 바뀔 때만 조회 (매 틱 문자열 생성/비교 없음)
+ * - /reload 시 캐시를 비우고 {@link #version()} 증가
+ * </p>
+ */
+public final class VehicleProfiles implements SimpleSynchronousResourceReloadListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+    private static final String DIRECTORY = "agent_vehicles";
+
+    /** 파일 한 개를 컴파일한 결과 */
+    private record Rule(int priority, List<EntityType<?>> types, List<TagKey<EntityType<?>>> tags, VehicleProfile profile) {}
+
+    private static volatile List<Rule> rules = List.of();
+    private static volatile int version = 0;
+    // 타입별 조회 캐시 — 규칙이 없는 타입은 NONE으로 기록
+    // (싱글플레이에서는 서버 스레드와 클라이언트 고스트가 함께 조회하므로 동시성 맵 사용; EntityType은 동일성 비교)
+    private static final Map<EntityType<?>, VehicleProfile> CACHE = new ConcurrentHashMap<>();
+    private static final VehicleProfile NONE = new VehicleProfile(0, 0, 0, 0, 0);
+
+    /* ===================== 조회 ===================== */
+
+    /** 데이터가 다시 로드될 때마다 증가 — 에이전트의 탈것 프로파일 캐시 무효화 기준 */
+    public static int version() {
+        return version;
+    }
+
+    /**
+     * 탈것 타입의 프로파일
+     * @param fallbackProfile 목록에 없을 때 쓸 차원 프로파일
+     */
+    public static VehicleProfile resolve(EntityType<?> type, AgentProfile fallbackProfile) {
+        VehicleProfile hit = CACHE.get(type);
+        if (hit == null) {
+            hit = match(type);
+            CACHE.put(type, hit);
+        }
+        return hit == NONE ? VehicleProfile.fallback(fallbackProfile) : hit;
+    }
+
+    private static VehicleProfile match(EntityType<?> type) {
+        for (Rule rule : rules) { // priority 내림차순 정렬되어 있음
+            if (rule.types().contains(type)) return rule.profile();
+            for (TagKey<EntityType<?>> tag : rule.tags()) {
+                if (type.isIn(tag)) return rule.profile();
+            }
+        }
+        return NONE;
+    }
+
+    /* ===================== 리로드 ===================== */
+
+    @Override
+    public Identifier getFabricId() {
+        return new Identifier(ChiselAgent.MOD_ID, DIRECTORY);
+    }
+
+    @Override
+    public void reload(ResourceManager manager) {
+        List<Rule> loaded = new ArrayList<>();
+        for (Map.Entry<Identifier, Resource> e : manager.findResources(DIRECTORY, id -> id.getPath().endsWith(".json")).entrySet()) {
+            try (Reader r = e.getValue().getReader()) {
+                loaded.add(parse(JsonParser.parseReader(r).getAsJsonObject()));
+            } catch (Exception ex) {
+                LOG.warn("vehicle profile {} skipped: {}", e.getKey(), ex.toString());
+            }
+        }
+        loaded.sort(Comparator.comparingInt(Rule::priority).reversed());
+
+        rules = List.copyOf(loaded);
+        CACHE.clear();
+        version++;
+        LOG.info("vehicle profiles loaded: {} file(s)", loaded.size());
+    }
+
+    private static Rule parse(JsonObject json) {
+        List<EntityType<?>> types = new ArrayList<>();
+        List<TagKey<EntityType<?>>> tags = new ArrayList<>();
+
+        for (JsonElement el : json.getAsJsonArray("entities")) {
+            String raw = el.getAsString();
+            if (raw.startsWith("#")) {
+                tags.add(TagKey.of(RegistryKeys.ENTITY_TYPE, new Identifier(raw.substring(1))));
+                continue;
+            }
+            Identifier id = new Identifier(raw);
+            // 설치되지 않은 모드의 탈것은 조용히 무시 (선택적 호환)
+            Registries.ENTITY_TYPE.getOrEmpty(id).ifPresent(types::add);
+        }
+        int priority = json.has("priority") ? json.get("priority").getAsInt() : 0;
+        return new Rule(priority, List.copyOf(types), List.copyOf(tags), VehicleProfile.fromJson(json));
+    }
+}
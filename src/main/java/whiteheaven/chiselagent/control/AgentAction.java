@@ -0,0 +1,71 @@
+// src/main/java/whiteheaven/chiselagent/control/AgentAction.java
+package whiteheaven.chiselagent.control;
+
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockBox;
+
+import java.util.UUID;
+
+/**
+ * 외부 제어 액션 1건 (불변 — 아무 스레드에서 만들어 {@link AgentControl#submit}으로 넘김)
+ * <p>
+ * 대상은 항상 주인 UUID (그 주인의 에이전트 전체 또는 가장 가까운 1마리).
+ * 블록 id는 서버 스레드에서 처리할 때 레지스트리로 해석 (없는 id면 그 액션만 무시)
+ * </p>
+ */
+public record AgentAction(Type type, UUID owner,
+                          double x, double y, double z,
+                          boolean on,
+                          BlockBox box, Identifier blockA, Identifier blockB) {
+
+    /** 소켓 프로토콜의 타입 바이트 = ordinal + 1 (순서 바꾸지 말 것, 새 항목은 끝에 추가) */
+    public enum Type {
+        MOVE_TO,      // 따라오기 끄고 지정 좌표로 이동
+        FOLLOW,       // 따라오기 켜기/끄기 (on)
+        CALL,         // 주인 근처로 호출 (주인 접속 중일 때만)
+        DESPAWN,      // 전부 제거
+        JOB_CLEAR,    // 영역 비우기 (box)
+        JOB_REPLACE,  // blockA → blockB 치환 (box)
+        JOB_PATTERN,  // blockA/blockB 체커보드 (box)
+        JOB_CANCEL;   // 작업 전부 취소
+
+        private static final Type[] VALUES = values();
+
+        /** 소켓 타입 바이트 → 타입 (모르는 값이면 null) */
+        public static Type byWireId(int id) {
+            return id >= 1 && id <= VALUES.length ? VALUES[id - 1] : null;
+        }
+    }
+
+    public static AgentAction moveTo(UUID owner, double x, double y, double z) {
+        return new AgentAction(Type.MOVE_TO, owner, x, y, z, false, null, null, null);
+    }
+
+    public static AgentAction follow(UUID owner, boolean on) {
+        return new AgentAction(Type.FOLLOW, owner, 0, 0, 0, on, null, null, null);
+    }
+
+    public static AgentAction call(UUID owner) {
+        return new AgentAction(Type.CALL, owner, 0, 0, 0, false, null, null, null);
+    }
+
+    public static AgentAction despawn(UUID owner) {
+        return new AgentAction(Type.DESPAWN, owner, 0, 0, 0, false, null, null, null);
+    }
+
+    public static AgentAction clearJob(UUID owner, BlockBox box) {
+        return new AgentAction(Type.JOB_CLEAR, owner, 0, 0, 0, false, box, null, null);
+    }
+
+    public static AgentAction replaceJob(UUID owner, BlockBox box, Identifier from, Identifier to) {
+        return new AgentAction(Type.JOB_REPLACE, owner, 0, 0, 0, false, box, from, to);
+    }
+
+    public static AgentAction patternJob(UUID owner, BlockBox box, Identifier a, Identifier b) {
+        return new AgentAction(Type.JOB_PATTERN, owner, 0, 0, 0, false, box, a, b);
+    }
+
+    public static AgentAction cancelJobs(UUID owner) {
+        return new AgentAction(Type.JOB_CANCEL, owner, 0, 0, 0, false, null, null, null);
+    }
+}
@@ -0,0 +1,137 @@
+// src/main/java/whiteheaven/chiselagent/control/AgentControl.java
+package whiteheaven.chiselagent.control;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.Block;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.Vec3d;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import whiteheaven.chiselagent.agent.AgentSpawner;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentOwnerIndex;
+import whiteheaven.chiselagent.job.BlockJob;
+import whiteheaven.chiselagent.job.BlockJobEngine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 외부 제어 경로 (다른 모드 / 로컬 소켓 → 서버 스레드)
+ * <p>
+ * - {@link #submit}: 아무 스레드에서나 호출, 락 없는 고정 크기 큐에 넣기만 함 (가득 차면 false)
+ * - 서버 틱 시작 시 한 번 큐를 비우며 일괄 처리 — 액션마다 명령어 파싱/엔티티 스캔 없음
+ *   (대상 에이전트는 {@link AgentOwnerIndex}에서 바로 조회)
+ * - 처리 중 예외는 그 액션만 버리고 로그
+ * </p>
+ */
+public final class AgentControl {
+    private AgentControl() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+
+    private static final int CAPACITY = 4096;
+    private static final MpscRing<AgentAction> QUEUE = new MpscRing<>(CAPACITY);
+    private static final AtomicLong REJECTED = new AtomicLong();
+
+    /** 초기화 시 1회 등록 */
+    public static void register() {
+        ServerTickEvents.START_SERVER_TICK.register(AgentControl::drain);
+    }
+
+    /**
+     * 액션 제출 (스레드 안전, 기다리지 않음)
+     * @return 큐가 가득 차서 버려졌으면 false
+     */
+    public static boolean submit(AgentAction action) {
+        if (QUEUE.offer(action)) return true;
+        REJECTED.incrementAndGet();
+        return false;
+    }
+
+    /** 지금까지 큐가 가득 차서 버려진 액션 수 */
+    public static long rejected() {
+        return REJECTED.get();
+    }
+
+    /** 서버 종료 시 남은 액션 버림 (서버 스레드) */
+    public static void clear() {
+        while (QUEUE.poll() != null) { }
+    }
+
+    /* ===================== 서버 스레드 ===================== */
+
+    private static void drain(MinecraftServer server) {
+        // 이번 틱에 처리하는 동안 들어온 것은 다음 틱으로 (한 틱에 최대 큐 크기만큼)
+        for (int i = 0; i < CAPACITY; i++) {
+            AgentAction a = QUEUE.poll();
+            if (a == null) break;
+            try {
+                apply(server, a);
+            } catch (RuntimeException e) {
+                LOG.warn("agent action {} for {} failed: {}", a.type(), a.owner(), e.toString());
+            }
+        }
+    }
+
+    private static void apply(MinecraftServer server, AgentAction a) {
+        switch (a.type()) {
+            case MOVE_TO -> {
+                Vec3d target = new Vec3d(a.x(), a.y(), a.z());
+                for (AgentEntity agent : AgentOwnerIndex.agentsOf(a.owner())) agent.setMoveTarget(target);
+            }
+            case FOLLOW -> {
+                for (AgentEntity agent : AgentOwnerIndex.agentsOf(a.owner())) agent.setFollowing(a.on());
+            }
+            case CALL -> {
+                ServerPlayerEntity player = server.getPlayerManager().getPlayer(a.owner());
+                if (player != null) AgentSpawner.callToPlayer(player);
+            }
+            case DESPAWN -> AgentSpawner.despawnAllFor(server, a.owner());
+            case JOB_CLEAR, JOB_REPLACE, JOB_PATTERN -> startJob(a);
+            case JOB_CANCEL -> BlockJobEngine.cancel(a.owner());
+        }
+    }
+
+    /** 주인의 에이전트가 있는 월드에서 블록 작업 시작 */
+    private static void startJob(AgentAction a) {
+        AgentEntity agent = AgentOwnerIndex.firstOf(a.owner());
+        if (agent == null || a.box() == null) return;
+        BlockBox box = a.box();
+        long volume = BlockJob.volumeOf(box);
+        if (volume > AgentConfig.jobMaxVolume()) {
+            LOG.debug("agent action {} for {} rejected: volume {}", a.type(), a.owner(), volume);
+            return;
+        }
+        ServerWorld world = (ServerWorld) agent.getWorld();
+        switch (a.type()) {
+            case JOB_CLEAR -> BlockJobEngine.submitClear(world, a.owner(), agent.getUuid(), box);
+            case JOB_REPLACE -> {
+                Block from = block(a.blockA());
+                Block to = block(a.blockB());
+                if (from != null && to != null) {
+                    BlockJobEngine.submitReplace(world, a.owner(), agent.getUuid(), box, from, to.getDefaultState());
+                }
+            }
+            case JOB_PATTERN -> {
+                Block first = block(a.blockA());
+                Block second = block(a.blockB());
+                if (first != null && second != null) {
+                    BlockJobEngine.submitPattern(world, a.owner(), agent.getUuid(), box,
+                            first.getDefaultState(), second.getDefaultState());
+                }
+            }
+            default -> { }
+        }
+    }
+
+    /** 등록된 블록 id만 (없으면 null — 기본값인 공기로 바뀌지 않게) */
+    private static Block block(Identifier id) {
+        return id != null && Registries.BLOCK.containsId(id) ? Registries.BLOCK.get(id) : null;
+    }
+}
@@ -0,0 +1,74 @@
+// src/main/java/whiteheaven/chiselagent/control/MpscRing.java
+package whiteheaven.chiselagent.control;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 고정 크기 락 없는 다중 생산자 / 단일 소비자 링 버퍼
+ * <p>
+ * - 칸마다 시퀀스 번호를 두고, 생산자는 꼬리 위치를 CAS로 선점한 뒤 값을 쓰고 시퀀스를 올려 공개
+ * - 소비자(서버 스레드 1개)는 머리 칸의 시퀀스만 확인하고 읽음 — CAS 없음
+ * - 가득 차면 {@link #offer}가 즉시 false (생산자는 절대 기다리지 않음)
+ * </p>
+ * {@link #poll}은 반드시 한 스레드에서만 호출할 것
+ */
+final class MpscRing<E> {
+
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // 소비자 전용
+
+    /** @param capacity 2의 거듭제곱으로 올림 */
+    MpscRing(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = cap - 1;
+        this.slots = new Object[cap];
+        this.sequence = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) sequence.set(i, i);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /** 아무 스레드에서나 호출 — 가득 찼으면 false */
+    boolean offer(E e) {
+        long pos = tail.get();
+        int idx;
+        while (true) {
+            idx = (int) (pos & mask);
+            long diff = sequence.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;   // 칸 선점
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;                                   // 소비자가 아직 비우지 않은 칸 → 가득 참
+            } else {
+                pos = tail.get();                               // 다른 생산자가 먼저 가져감
+            }
+        }
+        slots[idx] = e;
+        sequence.set(idx, pos + 1); // volatile 쓰기로 값 공개
+        return true;
+    }
+
+    /** 소비자 스레드 전용 — 비었으면 null */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int idx = (int) (head & mask);
+        if (sequence.get(idx) != head + 1) return null;
+        E e = (E) slots[idx];
+        slots[idx] = null;
+        sequence.set(idx, head + slots.length); // 한 바퀴 뒤의 생산자에게 칸 반납
+        head++;
+        return e;
+    }
+
+    /** 대략적인 대기 개수 (통계용) */
+    int size() {
+        return (int) Math.max(0L, tail.get() - head);
+    }
+}
@@ -0,0 +1,113 @@
+// src/main/java/whiteheaven/chiselagent/entity/AgentBaseEntity.java
+package whiteheaven.chiselagent.entity;
+
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.attribute.DefaultAttributeContainer;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Arm;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+
+import java.util.Collections;
+
+/**
+ * AgentBaseEntity - 에이전트 전용 경량 엔티티 베이스
+ * <p>
+ * LivingEntity를 상속하는 이유는 오직 렌더러(LivingEntityRenderer / PlayerEntityModel) 호환 때문.
+ * MobEntity/LivingEntity의 무거운 틱 경로(goal/brain, 장비·속성 동기화, 상태이상, 호흡,
+ * 유체 밀림 이동, 밀치기, 낙하 피해 등)는 전부 건너뛰고 아래만 직접 수행:
+ * - 이전 프레임 회전값(prevYaw/prevBodyYaw/prevHeadYaw) 갱신 → 렌더 보간
+ * - 물 접촉/유체 높이 갱신 → 수영 판정용
+ * - (클라이언트) 서버 위치/머리 회전 보간 + 팔다리 애니메이션
+ * </p>
+ * MobEntity 필드(goal selector, navigation, 컨트롤러, 장비 배열 등)가 없어서 인스턴스당 힙도 줄어듦.
+ */
+public abstract class AgentBaseEntity extends LivingEntity {
+
+    protected AgentBaseEntity(EntityType<? extends AgentBaseEntity> type, World world) {
+        super(type, world);
+    }
+
+    /**
+     * 기본 속성: LivingEntity 최소 세트 + 체력 20, 이동 속도 0 (직접 위치 제어)
+     */
+    public static DefaultAttributeContainer.Builder createBaseAttributes() {
+        return LivingEntity.createLivingAttributes()
+                .add(EntityAttributes.GENERIC_MAX_HEALTH, 20.0)
+                .add(EntityAttributes.GENERIC_MOVEMENT_SPEED, 0.0);
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 경량 틱 (super.tick() 호출 안 함)
+    // ────────────────────────────────────────────────────────────────
+
+    @Override
+    public void tick() {
+        // 렌더 보간용 이전 값
+        this.prevHorizontalSpeed = this.horizontalSpeed;
+        this.prevYaw = this.getYaw();
+        this.prevPitch = this.getPitch();
+        this.prevBodyYaw = this.bodyYaw;
+        this.prevHeadYaw = this.headYaw;
+        this.lastHandSwingProgress = this.handSwingProgress;
+
+        // 물 접촉/유체 높이 (isTouchingWater, getFluidHeight가 이 값을 읽음)
+        // ※ updateSwimming()은 호출하지 않음 — 수영 플래그는 추적 로직이 직접 관리
+        this.updateWaterState();
+
+        if (this.getWorld().isClient) {
+            tickClientInterpolation();
+        }
+        this.firstUpdate = false;
+    }
+
+    /**
+     * 클라이언트 보간: LivingEntity#tickMovement 중 서버 위치/회전 보간 부분만 수행
+     */
+    private void tickClientInterpolation() {
+        if (this.bodyTrackingIncrements > 0) {
+            double steps = this.bodyTrackingIncrements;
+            double x = this.getX() + (this.serverX - this.getX()) / steps;
+            double y = this.getY() + (this.serverY - this.getY()) / steps;
+            double z = this.getZ() + (this.serverZ - this.getZ()) / steps;
+            this.setYaw(this.getYaw() + (float) (MathHelper.wrapDegrees(this.serverYaw - this.getYaw()) / steps));
+            this.setPitch(this.getPitch() + (float) ((this.serverPitch - this.getPitch()) / steps));
+            --this.bodyTrackingIncrements;
+            this.setPosition(x, y, z);
+        }
+        if (this.headTrackingIncrements > 0) {
+            this.headYaw += (float) (MathHelper.wrapDegrees(this.serverHeadYaw - this.headYaw) / this.headTrackingIncrements);
+            --this.headTrackingIncrements;
+        }
+        // 서버는 몸/머리 방향을 항상 같게 유지 → 몸통도 머리 방향 그대로
+        this.bodyYaw = this.headYaw;
+        this.updateLimbs(false);
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 장비 없음 (LivingEntity 추상 메서드)
+    // ────────────────────────────────────────────────────────────────
+
+    @Override
+    public Iterable<ItemStack> getArmorItems() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ItemStack getEquippedStack(EquipmentSlot slot) {
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public void equipStack(EquipmentSlot slot, ItemStack stack) {
+        // 장비 불가
+    }
+
+    @Override
+    public Arm getMainArm() {
+        return Arm.RIGHT;
+    }
+}
@@ -1,25 +1,36 @@
 // src/main/java/whiteheaven/chiselagent/entity/AgentEntity.java
 package whiteheaven.chiselagent.entity;
 
+import net.fabricmc.fabric.api.dimension.v1.FabricDimensions;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityPose;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.MovementType;
 import net.minecraft.entity.attribute.DefaultAttributeContainer;
-import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.data.DataTracker;
 import net.minecraft.entity.data.TrackedData;
 import net.minecraft.entity.data.TrackedDataHandlerRegistry;
-import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.scoreboard.AbstractTeam;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.text.Text;
+import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.random.Random;
+import net.minecraft.world.RaycastContext;
+import net.minecraft.world.TeleportTarget;
 import net.minecraft.world.World;
+import whiteheaven.chiselagent.agent.GhostAgents;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.config.AgentProfile;
+import whiteheaven.chiselagent.config.VehicleProfile;
+import whiteheaven.chiselagent.config.VehicleProfiles;
+import whiteheaven.chiselagent.trace.AgentTrace;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -31,26 +42,19 @@ import java.util.UUID;
  * - 주인 플레이어의 이동 상태(지상/수영/비행/탑승)에 맞춰 자동 추적
  * - AI/Pathfinding 없이 직접 위치 제어로 부드러운 동행
  * - 뒤쪽 130°~170° 궤도 영역에서 랜덤 위치 유지
+ * - 걸어가다 주인이 안 보이면 주인이 지나간 자취를 따라감 (모퉁이/문 통과, 보이는 지점으로 지름길)
  * - 수영 시 수평 누운 자세 + 허우적거림 애니메이션 완벽 구현
  * - 물가 턱 자동 오르기, 차원 이동 자동 추적
  * - 무적 처리 및 충돌 무시
+ * - 경량 베이스({@link AgentBaseEntity}) 위에서 동작 (MobEntity 틱/필드 없음)
  * </p>
  * MC 1.20.4 / Yarn 1.20.4+build.3 / Fabric Loader 0.16.9 / Fabric API 0.97.2+1.20.4
  */
-public class AgentEntity extends MobEntity {
+public class AgentEntity extends AgentBaseEntity {
 
-    // ── 속도 프로파일(틱당 최대 이동량; ≒블록/틱) ─────────────────────────
-    private static final double WALK_SPEED = 0.2;   // ≈ 4블록/초 (플레이어 보통 걷기 ≈4.3블록/초; 에이전트를 살짝 느리게 설정)
-    private static final double SWIM_SPEED = 0.27;  // ≈ 5.4블록/초 (수영 시 속도; 스프린트 수영 ≈5.6블록/초 수준)
-    private static final double FLY_SPEED  = 0.43;  // ≈ 8.6블록/초 (비행 추격 속도; 엘리트라 활공 시 수평 속도 ≈8~10블록/초 참고)
-    private static final double BOAT_SPEED = 0.45;  // ≈ 9.0블록/초 (보트 탑승 플레이어 추격용; 보트 일반 속도 ≈8블록/초)
-    private static final double MOUNT_SPEED= 0.4;   // ≈ 8블록/초 (그 외 탈것 추격용; 말 평균 질주 ≈7~9블록/초)
-
-    private static final double SLOW_RADIUS = 1.6; // 너무 가까우면 (1.6블록 이내) 감속
-    private static final double FAST_RADIUS = 8.0; // 멀리 떨어지면 (8블록 이상) 가속
-
-    private static final double TELEPORT_DISTANCE = 30.0; // 너무 멀면 (≈30블록) 텔레포트로 따라잡기
-    private static final double HEIGHT_LERP = 0.25;       // 수직 보정 비율 (높이 차의 25%만 즉시 반영하여 부드럽게 고도 맞춤)
+    // ── 속도/거리/궤도 튜닝값은 설정 파일의 차원별 프로파일({@link AgentProfile})에서 읽음 ──
+    //    (기본값: 걷기 0.2, 수영 0.27, 비행 0.43, 탈것 0.4 블록/틱, 텔레포트 30블록 …)
+    //    탈것별 값(보트/카트/말 등)은 데이터팩 탈것 프로파일({@link VehicleProfiles})에서 읽음
 
     // 시야 동기화 임계값: 에이전트가 플레이어 앞/옆에 있으면 같은 방향 유지, 뒤에 있으면 플레이어 쪽 바라봄
     private static final double AHEAD_SAME_DIR   = 0.15;
@@ -58,14 +62,8 @@ public class AgentEntity extends MobEntity {
     // (앞쪽 판정: forward 방향 내적 >0.15, 옆쪽 판정: 오른쪽 방향 내적 절대값 >0.75)
 
     // ── 플레이어 뒤쪽 궤도(Orbital) 추종 위치 설정 ───────────────────────
-    // 정면을 0°로 할 때 뒤쪽 130°~170° 범위에서 랜덤 각도로 일정 거리 유지
-    private static final double BACK_MIN_DEG   = 130.0;
-    private static final double BACK_MAX_DEG   = 170.0;
-    private static final double ORBIT_MIN_RADIUS = 2.6;
-    private static final double ORBIT_MAX_RADIUS = 4.2;
-    private static final int    ORBIT_MIN_TICKS  = 60;
-    private static final int    ORBIT_MAX_TICKS  = 140;
-    // (랜덤 각도 130°~170°, 거리 2.6~4.2블록 설정하여 ORBIT_MIN_TICKS~MAX_TICKS 틱 동안 유지 후 새 위치 선정)
+    // 정면을 0°로 할 때 뒤쪽 130°~170° 범위에서 랜덤 각도로 일정 거리 유지 (범위는 프로파일 값)
+    // (랜덤 각도 130°~170°, 거리 2.6~4.2블록 설정하여 orbitMinTicks~orbitMaxTicks 틱 동안 유지 후 새 위치 선정)
     // 이렇게 약간씩 좌우 위치를 바꿔가며 뒤를 따라다녀 항상 같은 위치에 있지 않도록 함.
     // (플레이어 1인칭 시야에서 가끔 보일 수 있도록 좌/우 교대 배치 효과)
 
@@ -76,26 +74,97 @@ public class AgentEntity extends MobEntity {
     // 플레이어 수중 판정 비율
     private static final double SWIM_DEPTH_RATIO = 0.8; // 신장 대비 80% 이상 물에 잠기면 수영 상황으로 판단
 
-    // ── 궤도 상태 관리 변수 ────────────────────────────────────────────
-    private float  orbitAngleRad = Float.NaN; // 현재 유지 중인 궤도 각도 (라디안)
-    private double orbitRadius   = 3.5;       // 현재 유지 중인 궤도 거리
-    private int    orbitTicksLeft = 0;        // 현재 궤도 위치 유지 남은 틱 수
+    // ── 변경 감지 임계값 (클라이언트에 보이는 값이 바뀔 때만 기록 → 정지 상태에서 패킷 ≈0) ──
+    // 회전은 트래커가 1바이트(360/256°)로 양자화해서 보내므로 그 단위보다 작은 변화는 무시
+    private static final float  ROTATION_QUANTUM    = 360.0f / 256.0f;
+    private static final double HORIZONTAL_DEADBAND = 0.03; // 이 거리 미만의 수평 이동은 생략 (블록)
+    private static final double VERTICAL_DEADBAND   = 0.03; // 이 높이 미만의 수직 보정은 생략 (블록)
+    private static final int    POSE_HOLD_TICKS     = 4;    // 새 자세가 이 틱 수만큼 유지돼야 실제로 전환
+
+    // ── 지정 좌표 이동 (외부 제어 MOVE_TO) ──
+    private static final double ARRIVE_DISTANCE   = 0.3; // 이 거리 안이면 도착
+    private static final int    MOVE_TARGET_TICKS = 600; // 이 틱 안에 못 가면 포기 (벽에 막힘 등)
+
+    // ── 자취 따라가기 (지상 보행 중 주인이 안 보이면 직선 대신 주인이 걸어간 길을 따라감) ──
+    private static final int    TRAIL_CAPACITY        = 64;  // 기억할 최근 지점 수 (2의 거듭제곱)
+    private static final double TRAIL_EPSILON         = 0.6; // 주인이 이만큼 움직여야 새 지점 기록 (블록)
+    private static final double TRAIL_REACH           = 0.7; // 지점에 이만큼 다가가면 다음 지점으로
+    private static final double TRAIL_RAY_HEIGHT      = 0.6; // 시야 검사 높이 (발 위; 1칸 턱은 막힌 것으로 봄)
+    private static final int    TRAIL_SHORTCUT_CHECKS = 3;   // 틱당 지름길 시야 검사 상한 (주인 시야 검사 1회 별도)
+
+    // ── 주인 움직임 추정 (고속 추격용: 위치 변화량 → 지수평활 속도/가속도) ──
+    private static final double OWNER_VEL_SMOOTHING = 0.5;  // 새 관측값 비중
+    private static final double OWNER_ACC_SMOOTHING = 0.3;
+    private static final double OWNER_ACC_LIMIT     = 0.15; // 가속도 추정 상한 (블록/틱², 로켓 부스트 순간값 억제)
+    private static final double OWNER_JUMP_LIMIT    = 10.0; // 한 틱에 이보다 많이 움직이면 텔레포트로 보고 추정 초기화
+
+    // ── 추적 상태 표 행 (궤도/기울기/목표는 월드별 AgentStateTable 배열에 있음) ──
+    int stateRow = -1;              // 표 행 번호 (-1 = 아직 없음)
+    private boolean stateFresh = false; // 이번 틱 목표가 표에서 기록됐는지
+    private double stateTargetX, stateTargetY, stateTargetZ;
 
     // ── 수영 시 기울기 (Leaning) 값 ─────────────────────────────────────
     private float lean    = 0.0f; // 현재 틱에서의 기울기 (0=똑바로 섬, 1=완전히 누움)
     private float prevLean= 0.0f; // 이전 틱의 기울기 (보간용)
 
+    // ── 자세 히스테리시스 (물 경계에서 수평/수직 자세가 매 틱 뒤집히는 것 방지) ──
+    private boolean appliedHorizontalPose = false; // 실제로 적용 중인 자세
+    private int     poseCandidateTicks    = 0;     // 반대 자세가 연속으로 요구된 틱 수
+
+    // ── 고속 추격 상태 (엘리트라/얼음 보트 등 고정 속도로는 못 따라가는 경우) ──
+    private double  ownerLastX, ownerLastY, ownerLastZ; // 직전 틱 주인 위치
+    private double  ownerVelX, ownerVelY, ownerVelZ;    // 추정 주인 속도 (블록/틱)
+    private double  ownerAccX, ownerAccY, ownerAccZ;    // 추정 주인 가속도 (블록/틱²)
+    private boolean ownerTracked = false;               // 직전 위치가 유효한지 (첫 틱/순간이동 후 false)
+    private boolean chasing      = false;               // 예측 추격 모드 여부
+    private double  chaseVelX, chaseVelY, chaseVelZ;    // 추격 중 에이전트 자신의 속도
+
+    // ── 주인 자취 (지상 보행 경로 추종) ──
+    private final OwnerTrail trail = new OwnerTrail(TRAIL_CAPACITY, TRAIL_EPSILON);
+    private long trailCursor = -1; // 향하고 있는 자취 지점 번호 (-1 = 자취를 따라가지 않는 중)
+
+    // ── 주인 이름 (서버 전용: 로그/NBT용, 클라이언트로 동기화하지 않음) ─────────
+    private String ownerName = "";
+
+    // ── 현재 차원의 튜닝 프로파일 캐시 (설정 버전/월드가 바뀔 때만 다시 조회) ──
+    private AgentProfile profile = AgentProfile.DEFAULT;
+    private int profileVersion = -1;
+    private World profileWorld = null;
+
+    // ── 주인 탈것 프로파일 캐시 (탈것이 바뀌거나 데이터팩이 다시 로드될 때만 조회) ──
+    private Entity lastVehicle = null;
+    private VehicleProfile vehicleProfile = null;
+    private int vehicleProfileVersion = -1;
+    private AgentProfile lastVehicleBase = null; // 목록에 없는 탈것의 기본값을 뽑은 차원 프로파일
+
+    // ── 현재 이동 방식 (외부 텔레메트리용, 서버 전용) ──
+    private MoveMode moveMode = MoveMode.WALK;
+
+    // ── 지정 좌표 이동 상태 (따라오기가 꺼져 있을 때만 동작, 저장하지 않음) ──
+    private Vec3d moveTarget = null;
+    private int   moveTargetTicks = 0;
+
+    // ── 고스트 모드 (클라이언트 전용 엔티티: 서버 엔티티 없이 각 클라이언트가 직접 추적 시뮬레이션) ──
+    private boolean ghost = false;
+
     // ────────────────────────────────────────────────────────────────
     // 데이터 트래커 (클라이언트 동기화)
+    //  - 불리언 상태는 FLAGS 1바이트에 비트로 묶어 전송
+    //  - 주인은 UUID만 전송 → 이름표는 클라이언트가 플레이어 목록에서 직접 만듦
     // ────────────────────────────────────────────────────────────────
-    private static final TrackedData<Boolean> FOLLOWING =
-            DataTracker.registerData(AgentEntity.class, TrackedDataHandlerRegistry.BOOLEAN);
+    private static final TrackedData<Byte> FLAGS =
+            DataTracker.registerData(AgentEntity.class, TrackedDataHandlerRegistry.BYTE);
     private static final TrackedData<Optional<UUID>> OWNER_UUID =
             DataTracker.registerData(AgentEntity.class, TrackedDataHandlerRegistry.OPTIONAL_UUID);
-    private static final TrackedData<String> OWNER_NAME =
-            DataTracker.registerData(AgentEntity.class, TrackedDataHandlerRegistry.STRING);
-    private static final TrackedData<Boolean> SIDE_RIGHT =
-            DataTracker.registerData(AgentEntity.class, TrackedDataHandlerRegistry.BOOLEAN);
+
+    private static final byte FLAG_FOLLOWING  = 0x01; // 따라오기 활성화
+    private static final byte FLAG_SIDE_RIGHT = 0x02; // 궤도 기본 방향(오른쪽)
+
+    // 예전 버전이 setCustomName으로 붙이던 자동 이름표 접미사 (로드 시 제거용)
+    private static final String LEGACY_LABEL_SUFFIX = "의 노예";
+    // 저장 형식 표시 (없으면 자동 이름표를 붙이던 예전 저장 → 로드 시 1회만 정리)
+    private static final String NBT_LABEL_VERSION = "LabelVersion";
+    private static final int LABEL_VERSION = 1;
 
     // ────────────────────────────────────────────────────────────────
     // 엔티티 초기화
@@ -107,43 +176,152 @@ public class AgentEntity extends MobEntity {
      * - 이동 속도 0 (AI 미사용, 직접 제어)
      */
     public static DefaultAttributeContainer.Builder createAttributes() {
-        return MobEntity.createMobAttributes()
-                .add(EntityAttributes.GENERIC_MAX_HEALTH, 20.0)
-                .add(EntityAttributes.GENERIC_MOVEMENT_SPEED, 0.0);
+        return AgentBaseEntity.createBaseAttributes();
     }
 
     /**
      * 엔티티 생성자
-     * 무적, AI 비활성화, 중력 무시, 영구 존재 설정
+     * 무적, 중력 무시 설정 (AI/디스폰 로직은 경량 베이스에 아예 없음)
      */
-    public AgentEntity(EntityType<? extends MobEntity> type, World world) {
+    public AgentEntity(EntityType<? extends AgentEntity> type, World world) {
         super(type, world);
         setHealth(20f);
         setInvulnerable(true);
-        setAiDisabled(true);
         setNoGravity(true);
-        setPersistent();
     }
 
     @Override
     protected void initDataTracker() {
         super.initDataTracker();
         dataTracker.startTracking(OWNER_UUID, Optional.empty());
-        dataTracker.startTracking(OWNER_NAME, "");
-        dataTracker.startTracking(FOLLOWING, true);
-        dataTracker.startTracking(SIDE_RIGHT, true);
+        dataTracker.startTracking(FLAGS, (byte) (FLAG_FOLLOWING | FLAG_SIDE_RIGHT));
     }
 
     // ────────────────────────────────────────────────────────────────
     // Getter/Setter
     // ────────────────────────────────────────────────────────────────
 
-    public boolean isFollowing() { return dataTracker.get(FOLLOWING); }
-    public void setFollowing(boolean on) { dataTracker.set(FOLLOWING, on); }
-    public boolean isSideRight() { return dataTracker.get(SIDE_RIGHT); }
-    public void setSideRight(boolean right) { dataTracker.set(SIDE_RIGHT, right); }
+    public boolean isFollowing() { return getFlag(FLAG_FOLLOWING); }
+    public void setFollowing(boolean on) {
+        setFlag(FLAG_FOLLOWING, on);
+        if (on) moveTarget = null;
+    }
+    public boolean isSideRight() { return getFlag(FLAG_SIDE_RIGHT); }
+    public void setSideRight(boolean right) { setFlag(FLAG_SIDE_RIGHT, right); }
     public Optional<UUID> getOwnerUuid() { return dataTracker.get(OWNER_UUID); }
-    public String getOwnerName() { return dataTracker.get(OWNER_NAME); }
+    /** 주인 이름 — 서버에서만 유효 (클라이언트는 빈 문자열; 이름표는 UUID로 직접 조회) */
+    public String getOwnerName() { return ownerName; }
+    public boolean isGhost() { return ghost; }
+    /** 마지막 추적 틱에서 사용한 이동 방식 */
+    public MoveMode getMoveMode() { return moveMode; }
+
+    /** 따라오기를 끄고 지정 좌표로 걸어감 (도착하거나 {@link #MOVE_TARGET_TICKS} 지나면 멈춤) */
+    public void setMoveTarget(Vec3d target) {
+        setFollowing(false);
+        this.moveTarget = target;
+        this.moveTargetTicks = 0;
+    }
+
+    public Optional<Vec3d> getMoveTarget() { return Optional.ofNullable(moveTarget); }
+
+    /** 이동 방식 (텔레메트리에는 ordinal 1바이트로 저장 — 순서 바꾸지 말 것) */
+    public enum MoveMode {
+        WALK, SWIM, FLY, MOUNT;
+
+        /** 플레이어의 현재 이동 방식 (비행은 {@link GhostAgents#isFlying} — 다른 클라이언트에서도 맞게) */
+        public static MoveMode of(PlayerEntity p) {
+            if (p.hasVehicle()) return MOUNT;
+            if (GhostAgents.isFlying(p)) return FLY;
+            if (p.isSwimming() || p.isTouchingWater()) return SWIM;
+            return WALK;
+        }
+    }
+
+    /**
+     * 클라이언트 전용 고스트로 전환 — 이후 클라이언트 틱에서 추적 로직을 직접 실행
+     * @param seed 서버가 정해 준 시드 (모든 클라이언트가 같은 궤도 난수열을 쓰도록)
+     */
+    public void markGhost(long seed) {
+        this.ghost = true;
+        this.random.setSeed(seed);
+    }
+
+    /**
+     * 풀에서 꺼낸 인스턴스 재초기화 ({@link AgentPool} 전용 — 제거된 뒤 월드에 다시 넣기 전)
+     * 새 UUID, 트래커 값은 생성 직후 기본값, 추적/캐시 상태는 처음 상태로 (위치/주인은 호출 쪽이 설정)
+     * 이름표/상태 효과/불/발광/명령 태그처럼 이전 주인 때 붙은 엔티티 상태도 지움
+     * DataTracker/속성 컨테이너는 그대로 재사용 — 다시 만들지 않는 것이 풀의 목적
+     */
+    void resetForReuse() {
+        unsetRemoved();
+        setUuid(MathHelper.randomUuid(this.random));
+        this.firstUpdate = true;
+        this.age = 0;
+
+        // 트래커 (값이 같으면 dirty 표시 없음)
+        dataTracker.set(OWNER_UUID, Optional.empty());
+        dataTracker.set(FLAGS, (byte) (FLAG_FOLLOWING | FLAG_SIDE_RIGHT));
+        setSwimming(false);
+        setPose(EntityPose.STANDING);
+        setHealth(20f);
+
+        // 플레이어가 바꿀 수 있는 엔티티 상태 (이름표, 물약, 불, 발광, /tag) — 다음 주인에게 넘어가지 않게
+        setCustomName(null);
+        setCustomNameVisible(false);
+        clearStatusEffects();
+        setFireTicks(0);
+        setFrozenTicks(0);
+        setAir(getMaxAir());
+        setGlowing(false);
+        setInvisible(false);
+        getCommandTags().clear();
+        this.hurtTime = 0;
+        this.deathTime = 0;
+
+        // 물리
+        setVelocity(Vec3d.ZERO);
+        this.fallDistance = 0f;
+        this.noClip = false;
+        setNoGravity(true);
+
+        // 추적 상태
+        stateRow = -1;
+        stateFresh = false;
+        lean = prevLean = 0.0f;
+        appliedHorizontalPose = false;
+        poseCandidateTicks = 0;
+        ownerTracked = false;
+        chasing = false;
+        ownerVelX = ownerVelY = ownerVelZ = 0.0;
+        ownerAccX = ownerAccY = ownerAccZ = 0.0;
+        chaseVelX = chaseVelY = chaseVelZ = 0.0;
+        trail.clear();
+        trailCursor = -1;
+        moveMode = MoveMode.WALK;
+        moveTarget = null;
+        moveTargetTicks = 0;
+        ownerName = "";
+
+        // 캐시 (다음 조회 때 다시 채움)
+        profile = AgentProfile.DEFAULT;
+        profileVersion = -1;
+        profileWorld = null;
+        lastVehicle = null;
+        vehicleProfile = null;
+        vehicleProfileVersion = -1;
+        lastVehicleBase = null;
+    }
+
+    private boolean getFlag(byte mask) {
+        return (dataTracker.get(FLAGS) & mask) != 0;
+    }
+
+    /** 값이 실제로 바뀔 때만 트래커에 기록 (같은 값이면 dirty 표시/패킷 없음) */
+    private void setFlag(byte mask, boolean on) {
+        byte flags = dataTracker.get(FLAGS);
+        byte next = (byte) (on ? (flags | mask) : (flags & ~mask));
+        if (next != flags) dataTracker.set(FLAGS, next);
+    }
 
     // ────────────────────────────────────────────────────────────────
     // 수영 애니메이션 오버라이드 (핵심 수정 부분)
@@ -173,15 +351,25 @@ public class AgentEntity extends MobEntity {
 
     @Override
     public void tick() {
-        super.tick();
+        super.tick(); // 경량 베이스 틱 (회전 보간값/물 상태/클라 보간)
 
-        // 클라이언트에서는 실행 안 함 (서버 전용)
-        if (getWorld().isClient) return;
+        // 클라이언트: 서버가 보낸 포즈에 맞춰 기울기만 보간 (추적 로직은 서버/고스트 전용)
+        if (getWorld().isClient && !ghost) {
+            updateLean(isInSwimmingPose());
+            return;
+        }
 
-        // 추적 비활성화 상태면 동작 안 함
-        if (!isFollowing()) return;
+        // 추적 비활성화 상태: 지정 좌표가 있으면 그쪽으로만 이동
+        if (!isFollowing()) {
+            if (moveTarget != null && !ghost) moveToTargetTick();
+            return;
+        }
 
-        followOwnerTick();
+        long t = ghost ? 0L : AgentTickStats.begin();
+        long tr = ghost ? 0L : AgentTrace.begin();
+        followOwnerTick(tr);
+        if (tr != 0L) AgentTrace.end(AgentTrace.Phase.FOLLOW_TICK, tr, AgentTrace.track(getUuid()));
+        AgentTickStats.end(t);
     }
 
     // ────────────────────────────────────────────────────────────────
@@ -217,7 +405,28 @@ public class AgentEntity extends MobEntity {
             }
         }
 
-        // 기울기 값 부드럽게 보간 (0.3 = 30% 속도로 목표값에 접근)
+        // 기울기 보간은 상태 표가 다음 틱 배치 처리에서
+        if (stateRow >= 0) AgentStateTable.of(getWorld()).leanTarget(stateRow, horizontalPose);
+    }
+
+    /**
+     * 자세 히스테리시스: 요청된 자세가 {@link #POSE_HOLD_TICKS}틱 연속 유지될 때만 전환
+     * (수면 경계에서 포즈/수영 플래그가 매 틱 바뀌며 데이터 트래커 패킷을 만드는 것 방지)
+     */
+    private boolean stablePose(boolean requested) {
+        if (requested == appliedHorizontalPose) {
+            poseCandidateTicks = 0;
+        } else if (++poseCandidateTicks >= POSE_HOLD_TICKS) {
+            appliedHorizontalPose = requested;
+            poseCandidateTicks = 0;
+        }
+        return appliedHorizontalPose;
+    }
+
+    /**
+     * 기울기 값 부드럽게 보간 (0.3 = 30% 속도로 목표값에 접근)
+     */
+    private void updateLean(boolean horizontalPose) {
         this.prevLean = this.lean;
         float targetLean = horizontalPose ? 1.0f : 0.0f;
         this.lean += (targetLean - this.lean) * 0.3f;
@@ -228,29 +437,34 @@ public class AgentEntity extends MobEntity {
     // ────────────────────────────────────────────────────────────────
 
     /**
-     * 매 틱마다 주인 플레이어 추적 처리
-     * - 차원 이동 대응
+     * 매 틱마다 주인 플레이어 추적 처리 (서버 엔티티 / 클라이언트 고스트 공용)
+     * - 차원 이동 대응 (서버 엔티티만)
      * - 상태별 속도 선택
      * - 위치 업데이트
      * - 시선 동기화
+     *
+     * @param tr 추적 기록 시작 시각 ({@link AgentTrace}가 꺼져 있거나 고스트면 0 — 단계 기록 생략)
      */
-    private void followOwnerTick() {
-        ServerWorld myWorld = (ServerWorld) getWorld();
-        Optional<UUID> ownerIdOpt = getOwnerUuid();
-        if (ownerIdOpt.isEmpty()) return;
+    private void followOwnerTick(long tr) {
+        int id = tr == 0L ? 0 : AgentTrace.track(getUuid()); // 트랙 번호 (엔티티 id는 풀에서 재사용되므로 UUID 기준)
 
         // 주인 플레이어 찾기
-        ServerPlayerEntity owner = myWorld.getServer().getPlayerManager().getPlayer(ownerIdOpt.get());
+        PlayerEntity owner = resolveOwner();
+        tr = AgentTrace.lap(AgentTrace.Phase.OWNER, tr, id);
         if (owner == null) return;
 
-        // 차원 이동 대응 (주인이 다른 월드에 있으면 따라감)
-        if (owner.getWorld() != myWorld) {
-            var movedEntity = this.moveToWorld((ServerWorld) owner.getWorld());
-            if (movedEntity != null) {
-                movedEntity.refreshPositionAndAngles(
-                        owner.getX(), owner.getY(), owner.getZ(), owner.getYaw(), 0
-                );
-            }
+        // 차원 이동 대응 (주인이 다른 월드에 있으면 따라감; 고스트는 관리자가 재생성)
+        if (owner.getWorld() != getWorld()) {
+            if (ghost) return;
+            ownerTracked = false;
+            chasing = false;
+            trail.clear();
+            trailCursor = -1;
+            // moveToWorld는 포탈 탐색(lastNetherPortalPosition 필요)을 거치므로 포탈을 안 탄 에이전트에는 쓸 수 없음
+            //  → 주인 위치를 목표로 직접 지정해서 이동
+            FabricDimensions.teleport(this, (ServerWorld) owner.getWorld(),
+                    new TeleportTarget(owner.getPos(), Vec3d.ZERO, owner.getYaw(), 0f));
+            AgentTrace.end(AgentTrace.Phase.DIMENSION, tr, id);
             return;
         }
 
@@ -258,7 +472,7 @@ public class AgentEntity extends MobEntity {
         // 주인 상태 판정
         // ──────────────────────────────────────────────────────────
 
-        boolean ownerFlying   = owner.getAbilities().flying || owner.isFallFlying();
+        boolean ownerFlying   = GhostAgents.isFlying(owner); // 고스트: 능력치 대신 서버가 보낸 값
         boolean ownerSwimming = owner.isSwimming();
         boolean headUnder     = this.isHeadUnderwater();
         boolean fullyUnder    = this.isFullyUnderwater();
@@ -269,65 +483,104 @@ public class AgentEntity extends MobEntity {
         // 수평 포즈: 완전히 잠수한 경우에만 수평 누운 자세
         boolean horizontalPose = ownerSwimming || fullyUnder;
 
-        // 수영 비주얼 강제 적용 (수정된 로직)
+        // 수영 비주얼 적용 (짧은 깜빡임은 히스테리시스로 흡수)
+        horizontalPose = stablePose(horizontalPose);
         applySwimVisuals(horizontalPose);
 
+        // 땅을 밟고 지나간 위치만 자취로 기록 (비행/탈것 경로는 걸어서 갈 수 있다는 보장이 없음)
+        if (owner.isOnGround() && !ownerFlying && !owner.hasVehicle()) {
+            trail.record(owner.getX(), owner.getY(), owner.getZ());
+        }
+        tr = AgentTrace.lap(AgentTrace.Phase.MODE, tr, id);
+
         // ──────────────────────────────────────────────────────────
         // 목표 위치 계산
         // ──────────────────────────────────────────────────────────
 
-        Vec3d targetPos = computeFollowerTarget(owner);
+        AgentProfile prof = profile();
+        VehicleProfile vp = updateVehicleProfile(owner, prof);
+        Vec3d targetPos = followerTarget(owner);
 
-        // 너무 멀면 텔레포트
-        if (this.getPos().distanceTo(targetPos) > TELEPORT_DISTANCE) {
+        // 다른 주인의 에이전트와 겹치지 않도록 분리 오프셋 적용 (공간 해시: 주변 셀만 조회, 서버 전용)
+        if (getWorld() instanceof ServerWorld myWorld) {
+            AgentSpatialHash hash = AgentSpatialHash.of(myWorld);
+            hash.update(this);
+            targetPos = targetPos.add(hash.separationOffset(this));
+        }
+
+        // 고속 이동(비행/탈것) 중이면 예측 추격 모드
+        updateOwnerMotion(owner);
+        updateChaseMode(prof, ownerFlying || owner.hasVehicle());
+        tr = AgentTrace.lap(AgentTrace.Phase.TARGET, tr, id);
+
+        // 너무 멀면 텔레포트 (추격 중에는 속도를 맞춰 따라붙으므로 더 멀어져야 텔레포트)
+        double teleportDistance = chasing ? prof.teleportDistance() * prof.chaseTeleportFactor() : prof.teleportDistance();
+        if (this.getPos().distanceTo(targetPos) > teleportDistance) {
             this.refreshPositionAfterTeleport(targetPos.x, targetPos.y, targetPos.z);
-            syncYawTo(owner, swimMode, horizontalPose, targetPos);
+            chaseVelX = ownerVelX; chaseVelY = ownerVelY; chaseVelZ = ownerVelZ;
+            trailCursor = -1;
+            syncYawTraced(owner, swimMode, horizontalPose, targetPos, tr, id);
+            return;
+        }
+
+        if (chasing) {
+            moveMode = owner.hasVehicle() ? MoveMode.MOUNT : MoveMode.FLY;
+            chaseStep(targetPos, prof);
+            syncYawTraced(owner, swimMode, horizontalPose, targetPos, tr, id);
             return;
         }
 
-        // 현재 위치와 목표 위치 차이 계산
+        // 속도 선정은 원래 목표까지 거리 기준
         Vec3d currentPos = this.getPos();
-        Vec3d diff = targetPos.subtract(currentPos);
-        double distHorizontal = Math.hypot(diff.x, diff.z);
+        double distHorizontal = Math.hypot(targetPos.x - currentPos.x, targetPos.z - currentPos.z);
+
+        // 지상 보행 중 주인이 안 보이면 궤도 목표 대신 자취 위 지점으로 조향
+        Vec3d steerPos = targetPos;
+        if (!ownerFlying && !owner.hasVehicle() && !swimMode) {
+            Vec3d waypoint = trailWaypoint(owner);
+            if (waypoint != null) steerPos = waypoint;
+        } else {
+            trailCursor = -1;
+        }
+        Vec3d diff = steerPos.subtract(currentPos);
+        double steerHorizontal = Math.hypot(diff.x, diff.z);
 
         // ──────────────────────────────────────────────────────────
         // 상태별 기본 속도 선정
         // ──────────────────────────────────────────────────────────
 
         double baseSpeed;
-        if (owner.hasVehicle()) {
-            // 탈것 탑승 중
-            baseSpeed = BOAT_SPEED;
-            var vehicle = owner.getVehicle();
-            String vehicleName = (vehicle == null ? "" : vehicle.getType().toString().toLowerCase());
-            if (!vehicleName.contains("boat")) {
-                baseSpeed = MOUNT_SPEED;
-            }
+        double catchUp = prof.fastMultiplier();
+        if (vp != null) {
+            // 탈것 탑승 중 (탈것 타입별 프로파일)
+            baseSpeed = vp.speed();
+            catchUp = vp.catchUpMultiplier();
         } else if (ownerFlying) {
-            baseSpeed = FLY_SPEED;
+            baseSpeed = prof.flySpeed();
         } else if (swimMode) {
-            baseSpeed = SWIM_SPEED;
+            baseSpeed = prof.swimSpeed();
         } else {
-            baseSpeed = WALK_SPEED;
+            baseSpeed = prof.walkSpeed();
         }
 
         // 거리 기반 가감속
         double maxStep = baseSpeed;
-        if (distHorizontal > FAST_RADIUS) {
-            maxStep *= 1.6;  // 가속
-        } else if (distHorizontal < SLOW_RADIUS) {
-            maxStep *= 0.35; // 감속
+        if (distHorizontal > prof.fastRadius()) {
+            maxStep *= catchUp; // 가속
+        } else if (distHorizontal < prof.slowRadius()) {
+            maxStep *= prof.slowMultiplier(); // 감속
         }
 
-        // 수평 이동 벡터 계산
-        Vec3d horizMove = new Vec3d(diff.x, 0, diff.z);
+        // 수평 이동 벡터 계산 (데드밴드 안이면 제자리 — 목표 주변 미세 떨림 방지)
+        Vec3d horizMove = steerHorizontal < HORIZONTAL_DEADBAND ? Vec3d.ZERO : new Vec3d(diff.x, 0, diff.z);
         if (horizMove.lengthSquared() > maxStep * maxStep) {
             horizMove = horizMove.normalize().multiply(maxStep);
         }
 
-        // 수직 이동 계산 (부드러운 보간)
-        double newY = currentPos.y + MathHelper.clamp(diff.y * HEIGHT_LERP, -maxStep, maxStep);
-        Vec3d nextPos = new Vec3d(currentPos.x + horizMove.x, newY, currentPos.z + horizMove.z);
+        // 수직 이동 계산 (부드러운 보간; 점근적으로 끝없이 다가가지 않도록 데드밴드)
+        double dy = Math.abs(diff.y) < VERTICAL_DEADBAND ? 0.0 : MathHelper.clamp(diff.y * prof.heightLerp(), -maxStep, maxStep);
+        Vec3d nextPos = new Vec3d(currentPos.x + horizMove.x, currentPos.y + dy, currentPos.z + horizMove.z);
+        boolean idle = horizMove == Vec3d.ZERO && dy == 0.0;
 
         // ──────────────────────────────────────────────────────────
         // 상황별 이동 처리
@@ -335,9 +588,10 @@ public class AgentEntity extends MobEntity {
 
         if (!ownerFlying && !owner.hasVehicle() && !swimMode) {
             // 1) 지상 보행
+            moveMode = MoveMode.WALK;
             this.noClip = false;
             try { this.setStepHeight(1.25F); } catch (Throwable ignored) {}
-            this.move(MovementType.SELF, nextPos.subtract(currentPos));
+            if (!idle) tracedMove(nextPos.subtract(currentPos), tr != 0L, id);
             if (this.isOnGround()) {
                 this.setVelocity(this.getVelocity().multiply(1.0, 0.0, 1.0));
             }
@@ -345,6 +599,7 @@ public class AgentEntity extends MobEntity {
 
         } else if (swimMode) {
             // 2) 수중 이동 (물가 턱 오르기 처리 포함)
+            moveMode = MoveMode.SWIM;
             this.noClip = false;
             try { this.setStepHeight(1.25F); } catch (Throwable ignored) {}
 
@@ -371,21 +626,208 @@ public class AgentEntity extends MobEntity {
                 }
             }
 
-            this.move(MovementType.SELF, nextPos.subtract(currentPos));
+            if (!nextPos.equals(currentPos)) tracedMove(nextPos.subtract(currentPos), tr != 0L, id);
             this.setNoGravity(true);
 
         } else {
             // 3) 공중 비행/빠른 이동
+            moveMode = owner.hasVehicle() ? MoveMode.MOUNT : MoveMode.FLY;
             this.noClip = true;
-            try {
-                this.setPosition(nextPos.x, nextPos.y, nextPos.z);
-            } catch (Throwable t) {
-                this.updatePosition(nextPos.x, nextPos.y, nextPos.z);
+            if (!idle) {
+                try {
+                    this.setPosition(nextPos.x, nextPos.y, nextPos.z);
+                } catch (Throwable t) {
+                    this.updatePosition(nextPos.x, nextPos.y, nextPos.z);
+                }
             }
         }
 
         // 시선 동기화
+        syncYawTraced(owner, swimMode, horizontalPose, targetPos, tr, id);
+    }
+
+    /** 이동 단계를 닫고 시선 동기화 (추적 기록 중일 때만 구간 기록) */
+    private void syncYawTraced(PlayerEntity owner, boolean swimMode, boolean horizontalPose,
+                               Vec3d targetPos, long tr, int id) {
+        tr = AgentTrace.lap(AgentTrace.Phase.MOVEMENT, tr, id);
         syncYawTo(owner, swimMode, horizontalPose, targetPos);
+        AgentTrace.end(AgentTrace.Phase.YAW, tr, id);
+    }
+
+    /** 충돌 이동 (move() 자체 비용은 이동 단계 안의 별도 구간) */
+    private void tracedMove(Vec3d delta, boolean traced, int id) {
+        long t = traced ? AgentTrace.begin() : 0L;
+        this.move(MovementType.SELF, delta);
+        AgentTrace.end(AgentTrace.Phase.MOVE_CALL, t, id);
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 자취 따라가기
+    // ────────────────────────────────────────────────────────────────
+
+    /**
+     * 주인이 안 보일 때 향할 자취 지점 (보이면 null → 평소 궤도 목표)
+     * - 처음에는 에이전트에서 가장 가까운 지점부터, 도착하면 다음 지점으로
+     * - 앞쪽 지점 중 보이는 가장 먼 지점으로 지름길 (틱당 검사 수 상한, 최근 지점부터)
+     * 주인이 이미 걸어간 길이라 지나갈 수 있다는 게 보장됨 → 경로 탐색 없이 모퉁이/문을 돌아감
+     */
+    private Vec3d trailWaypoint(PlayerEntity owner) {
+        if (trail.isEmpty() || canSeeFromFeet(owner.getX(), owner.getY(), owner.getZ())) {
+            trailCursor = -1;
+            return null;
+        }
+        if (!trail.contains(trailCursor)) trailCursor = trail.nearest(this.getX(), this.getY(), this.getZ());
+
+        long newest = trail.newest();
+        while (trailCursor < newest && reachedTrailPoint(trailCursor)) trailCursor++;
+
+        long ahead = newest - trailCursor;
+        if (ahead > 0) {
+            long stride = Math.max(1L, (ahead + TRAIL_SHORTCUT_CHECKS - 1) / TRAIL_SHORTCUT_CHECKS);
+            long seq = newest;
+            for (int n = 0; n < TRAIL_SHORTCUT_CHECKS && seq > trailCursor; n++, seq -= stride) {
+                if (canSeeFromFeet(trail.x(seq), trail.y(seq), trail.z(seq))) {
+                    trailCursor = seq;
+                    break;
+                }
+            }
+        }
+        return new Vec3d(trail.x(trailCursor), trail.y(trailCursor), trail.z(trailCursor));
+    }
+
+    private boolean reachedTrailPoint(long seq) {
+        double dx = trail.x(seq) - this.getX(), dz = trail.z(seq) - this.getZ();
+        return dx * dx + dz * dz < TRAIL_REACH * TRAIL_REACH && Math.abs(trail.y(seq) - this.getY()) < 1.5;
+    }
+
+    /** 발 위 일정 높이끼리 블록 충돌 없이 이어지는지 (유체 무시) */
+    private boolean canSeeFromFeet(double x, double y, double z) {
+        Vec3d from = new Vec3d(this.getX(), this.getY() + TRAIL_RAY_HEIGHT, this.getZ());
+        Vec3d to = new Vec3d(x, y + TRAIL_RAY_HEIGHT, z);
+        return this.getWorld().raycast(new RaycastContext(from, to, RaycastContext.ShapeType.COLLIDER,
+                RaycastContext.FluidHandling.NONE, this)).getType() == HitResult.Type.MISS;
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 지정 좌표 이동
+    // ────────────────────────────────────────────────────────────────
+
+    /** 목표 좌표로 보행 속도(가속 배율 적용)만큼 직선 이동 (충돌 처리, 1.25칸 턱 넘기) */
+    private void moveToTargetTick() {
+        Vec3d diff = moveTarget.subtract(this.getPos());
+        double dist = diff.length();
+        if (dist < ARRIVE_DISTANCE || ++moveTargetTicks > MOVE_TARGET_TICKS) {
+            moveTarget = null;
+            return;
+        }
+
+        AgentProfile prof = profile();
+        double step = Math.min(dist, prof.walkSpeed() * prof.fastMultiplier());
+        moveMode = MoveMode.WALK;
+        this.noClip = false;
+        try { this.setStepHeight(1.25F); } catch (Throwable ignored) {}
+        this.move(MovementType.SELF, diff.multiply(step / dist));
+
+        if (diff.horizontalLengthSquared() > 1.0e-4) {
+            float newYaw = approachAngle(this.getYaw(), (float) (Math.toDegrees(Math.atan2(diff.z, diff.x)) - 90.0));
+            if (quantizeAngle(newYaw) != quantizeAngle(this.getYaw())) {
+                this.setYaw(newYaw);
+                this.setBodyYaw(newYaw);
+                this.setHeadYaw(newYaw);
+            }
+        }
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 고속 예측 추격
+    // ────────────────────────────────────────────────────────────────
+
+    /**
+     * 주인 속도/가속도 추정 (매 틱 위치 변화량을 지수평활)
+     * 서버 플레이어의 velocity는 클라이언트 이동 패킷으로 갱신되지 않고, 고스트에서는 아예 없으므로 위치로 계산
+     */
+    private void updateOwnerMotion(PlayerEntity owner) {
+        double x = owner.getX(), y = owner.getY(), z = owner.getZ();
+        double rx = x - ownerLastX, ry = y - ownerLastY, rz = z - ownerLastZ;
+        ownerLastX = x; ownerLastY = y; ownerLastZ = z;
+
+        if (!ownerTracked || rx * rx + ry * ry + rz * rz > OWNER_JUMP_LIMIT * OWNER_JUMP_LIMIT) {
+            // 첫 관측 또는 순간이동: 추정값 초기화
+            ownerTracked = true;
+            ownerVelX = ownerVelY = ownerVelZ = 0.0;
+            ownerAccX = ownerAccY = ownerAccZ = 0.0;
+            return;
+        }
+
+        double vx = MathHelper.lerp(OWNER_VEL_SMOOTHING, ownerVelX, rx);
+        double vy = MathHelper.lerp(OWNER_VEL_SMOOTHING, ownerVelY, ry);
+        double vz = MathHelper.lerp(OWNER_VEL_SMOOTHING, ownerVelZ, rz);
+        double ax = MathHelper.lerp(OWNER_ACC_SMOOTHING, ownerAccX, vx - ownerVelX);
+        double ay = MathHelper.lerp(OWNER_ACC_SMOOTHING, ownerAccY, vy - ownerVelY);
+        double az = MathHelper.lerp(OWNER_ACC_SMOOTHING, ownerAccZ, vz - ownerVelZ);
+        double aLen = Math.sqrt(ax * ax + ay * ay + az * az);
+        if (aLen > OWNER_ACC_LIMIT) {
+            double k = OWNER_ACC_LIMIT / aLen;
+            ax *= k; ay *= k; az *= k;
+        }
+        ownerVelX = vx; ownerVelY = vy; ownerVelZ = vz;
+        ownerAccX = ax; ownerAccY = ay; ownerAccZ = az;
+    }
+
+    /** 추격 모드 진입/해제 (진입·해제 속도를 달리해서 경계에서 깜빡이지 않게) */
+    private void updateChaseMode(AgentProfile prof, boolean fastTravel) {
+        double speedSq = ownerVelX * ownerVelX + ownerVelY * ownerVelY + ownerVelZ * ownerVelZ;
+        boolean next = fastTravel && (chasing
+                ? speedSq > prof.chaseExitSpeed() * prof.chaseExitSpeed()
+                : speedSq > prof.chaseEnterSpeed() * prof.chaseEnterSpeed());
+        if (next && !chasing) {
+            // 진입 시 주인 속도에서 출발 (정지 상태에서 가속하느라 뒤처지지 않게)
+            chaseVelX = ownerVelX; chaseVelY = ownerVelY; chaseVelZ = ownerVelZ;
+        }
+        chasing = next;
+    }
+
+    /**
+     * 추격 1틱 이동
+     * - chaseLeadTicks 뒤의 목표 위치(등가속도 예측)에 그 틱 수 만에 도착하는 속도를 겨냥
+     *   → 오차가 0이면 주인 속도와 같아짐 (고정 최대 이동량으로 자르지 않음)
+     * - 에이전트 자신의 속도 변화는 chaseMaxAccel로 제한 (급격한 꺾임/떨림 방지)
+     * - 한 틱 이동량 상한은 주인 속도에 비례
+     */
+    private void chaseStep(Vec3d targetPos, AgentProfile prof) {
+        double t = prof.chaseLeadTicks();
+        double half = 0.5 * t * t;
+        double px = targetPos.x + ownerVelX * t + ownerAccX * half;
+        double py = targetPos.y + ownerVelY * t + ownerAccY * half;
+        double pz = targetPos.z + ownerVelZ * t + ownerAccZ * half;
+
+        // 원하는 속도
+        double wx = (px - this.getX()) / t;
+        double wy = (py - this.getY()) / t;
+        double wz = (pz - this.getZ()) / t;
+
+        // 가속도 제한
+        double dx = wx - chaseVelX, dy = wy - chaseVelY, dz = wz - chaseVelZ;
+        double dLen = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (dLen > prof.chaseMaxAccel()) {
+            double k = prof.chaseMaxAccel() / dLen;
+            dx *= k; dy *= k; dz *= k;
+        }
+        double vx = chaseVelX + dx, vy = chaseVelY + dy, vz = chaseVelZ + dz;
+
+        // 속도 상한 (주인 속도 비례)
+        double ownerSpeed = Math.sqrt(ownerVelX * ownerVelX + ownerVelY * ownerVelY + ownerVelZ * ownerVelZ);
+        double maxSpeed = ownerSpeed * prof.chaseMaxFactor() + prof.flySpeed();
+        double vLen = Math.sqrt(vx * vx + vy * vy + vz * vz);
+        if (vLen > maxSpeed) {
+            double k = maxSpeed / vLen;
+            vx *= k; vy *= k; vz *= k;
+        }
+        chaseVelX = vx; chaseVelY = vy; chaseVelZ = vz;
+
+        // 비행과 같이 충돌 없이 이동 (고속에서 지형에 걸리면 곧바로 텔레포트 거리로 벌어짐)
+        this.noClip = true;
+        this.setPosition(this.getX() + vx, this.getY() + vy, this.getZ() + vz);
     }
 
     // ────────────────────────────────────────────────────────────────
@@ -400,7 +842,7 @@ public class AgentEntity extends MobEntity {
      * @param horizontalPose 수평 자세 여부
      * @param targetPos 목표 위치
      */
-    private void syncYawTo(ServerPlayerEntity owner, boolean swimMode,
+    private void syncYawTo(PlayerEntity owner, boolean swimMode,
                            boolean horizontalPose, Vec3d targetPos) {
         // 눈 위치 계산
         double ax = this.getX();
@@ -421,7 +863,7 @@ public class AgentEntity extends MobEntity {
         double lateral = relPos.dotProduct(playerRight);
 
         // 플레이어 이동 상태
-        Vec3d playerHorizVel = owner.getVelocity().multiply(1, 0, 1);
+        Vec3d playerHorizVel = ownerVelocity(owner).multiply(1, 0, 1);
         double playerSpeed   = playerHorizVel.length();
         double forwardSpeed  = playerHorizVel.dotProduct(playerForward);
 
@@ -483,40 +925,65 @@ public class AgentEntity extends MobEntity {
             }
         }
 
-        // 부드럽게 보간
-        float newYaw   = MathHelper.lerpAngleDegrees(0.35f, this.getYaw(), targetYaw);
-        float newPitch = MathHelper.lerp(0.35f, this.getPitch(), targetPitch);
+        // 부드럽게 보간 — 남은 차이가 양자화 단위 수준이면 목표로 바로 붙임 (끝없는 점근 방지)
+        float newYaw   = approachAngle(this.getYaw(), targetYaw);
+        float newPitch = approachAngle(this.getPitch(), targetPitch);
 
-        this.setYaw(newYaw);
-        this.setBodyYaw(newYaw);
-        this.setHeadYaw(newYaw);
-        this.setPitch(newPitch);
+        // 클라이언트에 보이는 값(1바이트 각도)이 바뀔 때만 기록 → 회전/머리 방향 패킷 억제
+        if (quantizeAngle(newYaw) != quantizeAngle(this.getYaw())) {
+            this.setYaw(newYaw);
+        }
+        if (quantizeAngle(newYaw) != quantizeAngle(this.getHeadYaw())) {
+            this.setBodyYaw(newYaw);
+            this.setHeadYaw(newYaw);
+        }
+        if (quantizeAngle(newPitch) != quantizeAngle(this.getPitch())) {
+            this.setPitch(newPitch);
+        }
     }
 
-    // ────────────────────────────────────────────────────────────────
-    // 궤도 위치 재설정
-    // ────────────────────────────────────────────────────────────────
+    /** 0.35 비율 보간, 한 틱 이동량이 양자화 단위보다 작으면 목표값으로 스냅 */
+    private static float approachAngle(float current, float target) {
+        float delta = MathHelper.wrapDegrees(target - current);
+        if (Math.abs(delta) < ROTATION_QUANTUM) return current; // 이미 같은 값으로 보임
+        float step = delta * 0.35f;
+        return Math.abs(step) < ROTATION_QUANTUM ? target : current + step;
+    }
+
+    /** 엔티티 트래커와 같은 방식의 1바이트 각도 */
+    private static int quantizeAngle(float degrees) {
+        return MathHelper.floor(degrees * 256.0f / 360.0f) & 0xFF;
+    }
 
     /**
-     * 뒤쪽 따라다닐 새로운 각도/거리 생성
-     * 130°~170° 범위에서 랜덤 선택
+     * 주인 탈것 프로파일 갱신 — 탈것(또는 데이터팩 버전)이 바뀐 경우에만 레지스트리 조회
+     * @return 탑승 중이면 프로파일, 아니면 null
      */
-    private void reseedOrbit() {
-        double minRad = Math.toRadians(BACK_MIN_DEG);
-        double maxRad = Math.toRadians(BACK_MAX_DEG);
-        double angle = minRad + this.random.nextDouble() * (maxRad - minRad);
-
-        // 좌/우 선택 (15% 확률로 방향 전환)
-        double sign = isSideRight() ? -1.0 : 1.0;
-        if (this.random.nextFloat() < 0.15f) {
-            sign = -sign;
+    private VehicleProfile updateVehicleProfile(PlayerEntity owner, AgentProfile prof) {
+        Entity vehicle = owner.getVehicle();
+        int v = VehicleProfiles.version();
+        if (vehicle != lastVehicle || v != vehicleProfileVersion || (vehicle != null && prof != lastVehicleBase)) {
+            lastVehicle = vehicle;
+            lastVehicleBase = prof;
+            vehicleProfileVersion = v;
+            vehicleProfile = (vehicle == null) ? null : VehicleProfiles.resolve(vehicle.getType(), prof);
         }
+        return vehicleProfile;
+    }
 
-        this.orbitAngleRad = (float)(sign * angle);
-        this.orbitRadius = ORBIT_MIN_RADIUS +
-                this.random.nextDouble() * (ORBIT_MAX_RADIUS - ORBIT_MIN_RADIUS);
-        this.orbitTicksLeft = ORBIT_MIN_TICKS +
-                this.random.nextInt(ORBIT_MAX_TICKS - ORBIT_MIN_TICKS + 1);
+    /**
+     * 현재 차원의 튜닝 프로파일
+     * 설정이 다시 로드되었거나 월드가 바뀐 경우에만 조회하고, 평소에는 캐시된 불변 객체를 그대로 반환
+     */
+    private AgentProfile profile() {
+        int v = AgentConfig.version();
+        World w = getWorld();
+        if (v != profileVersion || w != profileWorld) {
+            profile = AgentConfig.profileFor(w.getRegistryKey());
+            profileVersion = v;
+            profileWorld = w;
+        }
+        return profile;
     }
 
     // ────────────────────────────────────────────────────────────────
@@ -524,71 +991,93 @@ public class AgentEntity extends MobEntity {
     // ────────────────────────────────────────────────────────────────
 
     /**
-     * 플레이어 주변 따라다닐 목표 좌표 계산
-     * - 뒤쪽 궤도 영역에서 랜덤 위치 선정
-     * - 이동 속도에 따른 전방 리드 적용
-     * - 상태별 수직 오프셋 적용
+     * 플레이어 주변 따라다닐 목표 좌표
+     * - 궤도/전방 리드/수직 오프셋은 월드 상태 표가 계산 ({@link AgentStateTable}, 이번 틱 배치 처리 결과)
+     * - 배치 처리 뒤에 로드된 경우 자기 행만 바로 처리
+     * - 탈것 탑승 시 탈것 프로파일 비율로 더 가깝게 보간 (이번 틱에 갱신된 탈것 프로파일 기준)
      *
      * @param p 주인 플레이어
      * @return 목표 위치 벡터
      */
-    private Vec3d computeFollowerTarget(ServerPlayerEntity p) {
-        boolean flying   = p.getAbilities().flying || p.isFallFlying();
-        boolean swimming = isPlayerDeepEnough(p) && (p.isSwimming() || p.isTouchingWater());
-
-        // 수직 오프셋 (에이전트를 플레이어보다 약간 아래 배치)
-        double verticalOffset = -0.20;
-        if (flying) {
-            verticalOffset = -0.80;  // 비행 시 더 아래
-        } else if (swimming) {
-            verticalOffset = -0.30;  // 수영 시 약간 아래
+    private Vec3d followerTarget(PlayerEntity p) {
+        AgentStateTable table = AgentStateTable.of(getWorld());
+        if (!stateFresh) table.processRow(table.add(this));
+        stateFresh = false;
+
+        double targetX = stateTargetX, targetY = stateTargetY, targetZ = stateTargetZ;
+        VehicleProfile vp = this.vehicleProfile;
+        if (vp != null) {
+            targetX = MathHelper.lerp(vp.lerpXZ(), p.getX(), targetX);
+            targetZ = MathHelper.lerp(vp.lerpXZ(), p.getZ(), targetZ);
+            targetY = MathHelper.lerp(vp.lerpY(), p.getY(), p.getY() + vp.verticalOffset());
         }
+        return new Vec3d(targetX, targetY, targetZ);
+    }
 
-        // 궤도 갱신 체크
-        if (orbitTicksLeft <= 0 || Double.isNaN(orbitAngleRad)) {
-            reseedOrbit();
-        } else {
-            orbitTicksLeft--;
+    /**
+     * 상태 표 수집 단계: 주인 입력을 행에 씀 (따라오기 중이고 주인이 같은 월드에 있을 때만 계산 대상)
+     */
+    void gatherState(AgentStateTable table, int row) {
+        PlayerEntity p = isFollowing() ? resolveOwner() : null;
+        if (p == null || p.getWorld() != getWorld()) {
+            table.skip(row);
+            stateFresh = false;
+            return;
         }
-
-        // 뒤쪽 궤도 위치 계산
-        double baseYaw = Math.toRadians(p.getYaw());
-        double yawOffset = baseYaw + orbitAngleRad;
-        double offsetX = -Math.sin(yawOffset) * orbitRadius;
-        double offsetZ =  Math.cos(yawOffset) * orbitRadius;
-
-        // 이동 속도에 따른 전방 리드
-        double playerSpeed = p.getVelocity().horizontalLength();
-        double forwardLead = 0.0;
-        if (!flying && !p.hasVehicle()) {
-            if      (playerSpeed < 0.05) forwardLead = 0.5;
-            else if (playerSpeed < 0.12) forwardLead = 0.3;
-            else if (playerSpeed < 0.20) forwardLead = 0.1;
+        double vx, vz;
+        if (ghost) {
+            vx = p.getX() - p.prevX;
+            vz = p.getZ() - p.prevZ;
+        } else {
+            Vec3d v = p.getVelocity();
+            vx = v.x;
+            vz = v.z;
         }
+        table.input(row, p.getX(), p.getY(), p.getZ(), p.getYaw(), Math.sqrt(vx * vx + vz * vz),
+                AgentStateTable.modeOf(p, isPlayerDeepEnough(p)), p.hasVehicle(), isSideRight(), profile());
+    }
 
-        // 전방 방향 벡터
-        double fx = -Math.sin(baseYaw);
-        double fz =  Math.cos(baseYaw);
+    /** 상태 표 기록 단계: 기울기 + 이번 틱 목표 */
+    void applyState(AgentStateTable table, int row) {
+        this.prevLean = table.prevLean(row);
+        this.lean = table.lean(row);
+        this.stateTargetX = table.targetX(row);
+        this.stateTargetY = table.targetY(row);
+        this.stateTargetZ = table.targetZ(row);
+        this.stateFresh = true;
+    }
 
-        // 최종 목표 좌표
-        double targetX = p.getX() + offsetX + forwardLead * fx;
-        double targetZ = p.getZ() + offsetZ + forwardLead * fz;
-        double targetY = p.getY() + verticalOffset;
+    /** 궤도 재설정 난수 (고스트는 시드 고정) */
+    Random orbitRandom() {
+        return this.random;
+    }
 
-        if (flying) {
-            targetY = p.getY() + 0.5 + verticalOffset;
-        } else if (swimming) {
-            targetY = p.getY() + 0.2 + verticalOffset;
-        }
+    // ────────────────────────────────────────────────────────────────
+    // 주인 조회
+    // ────────────────────────────────────────────────────────────────
 
-        // 탈것 탑승 시 더 가깝게 보간
-        if (p.hasVehicle()) {
-            targetX = MathHelper.lerp(0.45, p.getX(), targetX);
-            targetZ = MathHelper.lerp(0.45, p.getZ(), targetZ);
-            targetY = MathHelper.lerp(0.25, p.getY(), targetY);
+    /**
+     * 주인 플레이어 조회
+     * - 서버 엔티티: 서버 전체 플레이어 목록 (다른 차원에 있어도 찾음)
+     * - 고스트: 클라이언트 월드의 플레이어 (같은 월드에 있을 때만)
+     * @return 주인 (없으면 null)
+     */
+    private PlayerEntity resolveOwner() {
+        Optional<UUID> ownerIdOpt = getOwnerUuid();
+        if (ownerIdOpt.isEmpty()) return null;
+        if (getWorld() instanceof ServerWorld sw) {
+            return sw.getServer().getPlayerManager().getPlayer(ownerIdOpt.get());
         }
+        return getWorld().getPlayerByUuid(ownerIdOpt.get());
+    }
 
-        return new Vec3d(targetX, targetY, targetZ);
+    /**
+     * 주인 이동 속도
+     * 클라이언트에서는 다른 플레이어의 velocity가 동기화되지 않으므로 위치 변화량으로 계산
+     */
+    private Vec3d ownerVelocity(PlayerEntity p) {
+        if (ghost) return new Vec3d(p.getX() - p.prevX, p.getY() - p.prevY, p.getZ() - p.prevZ);
+        return p.getVelocity();
     }
 
     // ────────────────────────────────────────────────────────────────
@@ -624,7 +1113,7 @@ public class AgentEntity extends MobEntity {
      * @param p 플레이어
      * @return true면 수영 가능한 깊이
      */
-    private boolean isPlayerDeepEnough(ServerPlayerEntity p) {
+    private boolean isPlayerDeepEnough(PlayerEntity p) {
         double waterHeight  = p.getFluidHeight(FluidTags.WATER);
         double entityHeight = p.getDimensions(p.getPose()).height;
         return entityHeight > 0.0 && (waterHeight / entityHeight) >= SWIM_DEPTH_RATIO;
@@ -636,19 +1125,14 @@ public class AgentEntity extends MobEntity {
 
     /**
      * 에이전트의 주인 설정
+     * (이름표는 클라이언트가 UUID로 주인 이름을 찾아 직접 그림 → 커스텀 이름은 설정하지 않음)
      * @param uuid 주인 UUID
-     * @param name 주인 이름
+     * @param name 주인 이름 (서버 로그/NBT용)
      */
     public void setOwner(UUID uuid, String name) {
         dataTracker.set(OWNER_UUID, Optional.ofNullable(uuid));
-        dataTracker.set(OWNER_NAME, (name == null ? "" : name));
-
-        if (!this.hasCustomName()) {
-            String ownerName = (name == null || name.isBlank()) ? null : name;
-            String label = (ownerName == null) ? "Agent" : ownerName + "의 노예";
-            this.setCustomName(Text.literal(label));
-            this.setCustomNameVisible(true);
-        }
+        this.ownerName = (name == null ? "" : name);
+        if (!getWorld().isClient) AgentOwnerIndex.update(this);
     }
 
     /**
@@ -661,13 +1145,14 @@ public class AgentEntity extends MobEntity {
         if (nbt.containsUuid("OwnerUUID")) {
             dataTracker.set(OWNER_UUID, Optional.of(nbt.getUuid("OwnerUUID")));
         }
-        dataTracker.set(OWNER_NAME, nbt.getString("OwnerName"));
-
-        if (!this.hasCustomName()) {
-            String owner = getOwnerName();
-            String label = (owner == null || owner.isBlank()) ? "Agent" : owner + "의 노예";
-            this.setCustomName(Text.literal(label));
-            this.setCustomNameVisible(true);
+        this.ownerName = nbt.getString("OwnerName");
+
+        // 예전 버전이 저장한 자동 이름표는 제거 (이름표 Text가 계속 동기화되지 않도록)
+        // 표시가 있는 저장은 건너뜀 → 플레이어가 이름표로 붙인 이름은 건드리지 않음
+        if (nbt.getInt(NBT_LABEL_VERSION) < LABEL_VERSION
+                && this.hasCustomName() && isLegacyAutoLabel(this.getCustomName().getString())) {
+            this.setCustomName(null);
+            this.setCustomNameVisible(false);
         }
 
         setFollowing(nbt.getBoolean("Following"));
@@ -676,6 +1161,12 @@ public class AgentEntity extends MobEntity {
         }
     }
 
+    /** 예전 자동 이름표: "<주인>의 노예", 주인 이름이 없을 때만 "Agent" */
+    private boolean isLegacyAutoLabel(String label) {
+        if (ownerName.isBlank()) return label.equals("Agent");
+        return label.equals(ownerName + LEGACY_LABEL_SUFFIX);
+    }
+
     /**
      * NBT에 데이터 저장
      */
@@ -687,6 +1178,7 @@ public class AgentEntity extends MobEntity {
         nbt.putString("OwnerName", getOwnerName());
         nbt.putBoolean("Following", isFollowing());
         nbt.putBoolean("SideRight", isSideRight());
+        nbt.putInt(NBT_LABEL_VERSION, LABEL_VERSION);
     }
 
     // ────────────────────────────────────────────────────────────────
@@ -695,6 +1187,7 @@ public class AgentEntity extends MobEntity {
 
     /**
      * 다른 엔티티에게 밀리지 않음
+     * (에이전트끼리의 겹침은 물리 충돌 대신 {@link AgentSpatialHash} 분리 오프셋으로 처리)
      */
     @Override
     public boolean isPushable() {
@@ -716,4 +1209,41 @@ public class AgentEntity extends MobEntity {
     public boolean damage(DamageSource source, float amount) {
         return false;
     }
+
+    // ────────────────────────────────────────────────────────────────
+    // 관전자별 추적 정책 (interest management)
+    // ────────────────────────────────────────────────────────────────
+
+    /**
+     * 이 관전자에게 에이전트를 추적(스폰/이동 패킷 전송)시킬지
+     * - 주인: 항상 (추적 범위 전체)
+     * - 주인과 같은 스코어보드 팀: 설정 teamsFullRange 면 추적 범위 전체
+     * - 그 외: strangerRadius 이내일 때만 (붐비는 곳에서 남의 에이전트 패킷 팬아웃 차단)
+     * <p>
+     * 엔티티 트래커는 이걸 매 이동마다 부르지 않음 — 관전자/엔티티가 청크 섹션을 넘을 때와
+     * 추적 범위 재검사 때만 부름. 그래서 strangerRadius는 대략 16블록 단위로 적용되고,
+     * 남의 에이전트는 반경 안에 들어온 뒤 섹션 경계를 넘어야 보이기 시작함 (반경을 벗어날 때도 마찬가지).
+     * 불리는 횟수는 적지만 트래커 갱신 경로이므로 UUID 비교 + 거리² 비교 수준으로 유지.
+     * 이동 패킷은 상대 좌표라 관전자별로 전송 주기를 다르게 하면 위치가 어긋남 → 주기 차등 대신 범위로만 거름
+     * </p>
+     */
+    @Override
+    public boolean canBeSpectated(ServerPlayerEntity viewer) {
+        if (!super.canBeSpectated(viewer)) return false;
+
+        Optional<UUID> owner = getOwnerUuid();
+        if (owner.isEmpty() || owner.get().equals(viewer.getUuid())) return true;
+
+        double radiusSq = AgentConfig.strangerRadiusSquared();
+        if (radiusSq < 0) return true; // 제한 없음
+
+        if (AgentConfig.teamsFullRange()) {
+            AbstractTeam viewerTeam = viewer.getScoreboardTeam();
+            if (viewerTeam != null && !ownerName.isEmpty()
+                    && viewerTeam == getWorld().getScoreboard().getScoreHolderTeam(ownerName)) {
+                return true;
+            }
+        }
+        return this.squaredDistanceTo(viewer) <= radiusSq;
+    }
 }
\ No newline at end of file
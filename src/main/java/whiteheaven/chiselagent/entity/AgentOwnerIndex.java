@@ -0,0 +1,82 @@
+// src/main/java/whiteheaven/chiselagent/entity/AgentOwnerIndex.java
+package whiteheaven.chiselagent.entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 주인 UUID → 로드된 에이전트 목록 (서버 전체, 모든 차원)
+ * <p>
+ * - 에이전트가 월드에 로드될 때 등록, 언로드/제거될 때 해제 (ChiselAgent 이벤트 연결)
+ * - 로드된 뒤 주인이 바뀌면 {@link AgentEntity#setOwner}가 {@link #update}로 다시 분류
+ * - 주인별 조회가 전 차원 엔티티 스캔 없이 O(1) → 명령어/외부 제어 큐가 액션마다 스캔하지 않음
+ * </p>
+ * 서버 스레드 전용 (동기화 없음)
+ */
+public final class AgentOwnerIndex {
+    private AgentOwnerIndex() {}
+
+    private static final Map<UUID, ArrayList<AgentEntity>> BY_OWNER = new HashMap<>();
+    private static final Map<AgentEntity, UUID> OWNER_OF = new IdentityHashMap<>();
+    private static final UUID NO_OWNER = new UUID(0L, 0L);
+
+    public static void add(AgentEntity agent) {
+        if (OWNER_OF.containsKey(agent)) return;
+        UUID owner = agent.getOwnerUuid().orElse(NO_OWNER);
+        OWNER_OF.put(agent, owner);
+        BY_OWNER.computeIfAbsent(owner, k -> new ArrayList<>(2)).add(agent);
+    }
+
+    public static void remove(AgentEntity agent) {
+        UUID owner = OWNER_OF.remove(agent);
+        if (owner == null) return;
+        ArrayList<AgentEntity> list = BY_OWNER.get(owner);
+        if (list == null) return;
+        list.remove(agent);
+        if (list.isEmpty()) BY_OWNER.remove(owner);
+    }
+
+    /** 등록된 에이전트의 주인이 바뀌었으면 다시 분류 (등록 전이면 무시) */
+    public static void update(AgentEntity agent) {
+        UUID old = OWNER_OF.get(agent);
+        if (old == null || old.equals(agent.getOwnerUuid().orElse(NO_OWNER))) return;
+        remove(agent);
+        add(agent);
+    }
+
+    /** 주인의 살아있는 에이전트 (복사본, 없으면 빈 목록) */
+    public static List<AgentEntity> agentsOf(UUID owner) {
+        ArrayList<AgentEntity> list = BY_OWNER.get(owner);
+        if (list == null) return List.of();
+        List<AgentEntity> out = new ArrayList<>(list.size());
+        for (AgentEntity e : list) if (e.isAlive()) out.add(e);
+        return out;
+    }
+
+    /** 주인의 첫 번째 살아있는 에이전트 (할당 없음, 없으면 null) */
+    public static AgentEntity firstOf(UUID owner) {
+        ArrayList<AgentEntity> list = BY_OWNER.get(owner);
+        if (list == null) return null;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            if (list.get(i).isAlive()) return list.get(i);
+        }
+        return null;
+    }
+
+    /** 로드된 모든 살아있는 에이전트 (복사본, 주인 없는 개체 포함) */
+    public static List<AgentEntity> all() {
+        List<AgentEntity> out = new ArrayList<>(OWNER_OF.size());
+        for (AgentEntity e : OWNER_OF.keySet()) if (e.isAlive()) out.add(e);
+        return out;
+    }
+
+    /** 서버 종료 시 정리 */
+    public static void clearAll() {
+        BY_OWNER.clear();
+        OWNER_OF.clear();
+    }
+}
@@ -0,0 +1,69 @@
+// src/main/java/whiteheaven/chiselagent/entity/AgentPool.java
+package whiteheaven.chiselagent.entity;
+
+import net.minecraft.server.world.ServerWorld;
+import whiteheaven.chiselagent.registry.ModEntities;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 월드별 에이전트 인스턴스 풀 (접속/종료가 잦을 때 엔티티 생성 비용/가비지 줄이기)
+ * <p>
+ * - {@link #release}: 월드에서 제거(discard)하고, 풀에 자리가 있으면 인스턴스를 보관
+ * - {@link #acquire}: 같은 월드 풀에서 꺼내 {@link AgentEntity#resetForReuse}로 재초기화, 없으면 새로 생성
+ *   (DataTracker/속성 컨테이너 생성을 건너뜀 — 위치/주인 설정과 spawnEntity는 호출 쪽)
+ * - 월드당 최대 {@link #MAX_PER_WORLD}개, 서버 종료 시 전부 버림
+ * - 재사용 개체는 새 UUID를 받음 → 제거 전 UUID로 잡아 둔 참조(일괄 제거 큐, 저널)와 헷갈리지 않음
+ * </p>
+ * 서버 스레드 전용
+ */
+public final class AgentPool {
+    private AgentPool() {}
+
+    private static final int MAX_PER_WORLD = 16;
+
+    private static final Map<ServerWorld, ArrayDeque<AgentEntity>> POOLS = new IdentityHashMap<>();
+    private static long reused = 0L;
+    private static long created = 0L;
+
+    /** 새 에이전트 인스턴스 (월드에 넣기 전 상태) */
+    public static AgentEntity acquire(ServerWorld world) {
+        ArrayDeque<AgentEntity> pool = POOLS.get(world);
+        AgentEntity agent = pool == null ? null : pool.pollFirst();
+        if (agent != null) {
+            agent.resetForReuse();
+            reused++;
+            return agent;
+        }
+        created++;
+        return new AgentEntity(ModEntities.AGENT, world);
+    }
+
+    /** 월드에서 제거하고 (자리가 있으면) 풀에 보관 — 이미 제거된 개체는 무시 */
+    public static void release(AgentEntity agent) {
+        if (agent.isRemoved()) return;
+        agent.discard();
+        if (agent.isGhost() || !(agent.getWorld() instanceof ServerWorld world)) return;
+        ArrayDeque<AgentEntity> pool = POOLS.computeIfAbsent(world, w -> new ArrayDeque<>(MAX_PER_WORLD));
+        if (pool.size() < MAX_PER_WORLD) pool.addLast(agent);
+    }
+
+    /** 풀에서 꺼내 쓴 횟수 */
+    public static long reused() {
+        return reused;
+    }
+
+    /** 풀이 비어 새로 만든 횟수 */
+    public static long created() {
+        return created;
+    }
+
+    /** 서버 종료 시 */
+    public static void clearAll() {
+        POOLS.clear();
+        reused = 0L;
+        created = 0L;
+    }
+}
@@ -0,0 +1,168 @@
+// src/main/java/whiteheaven/chiselagent/entity/AgentSpatialHash.java
+package whiteheaven.chiselagent.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 월드별 에이전트 공간 해시 (수평 XZ 격자)
+ * <p>
+ * - 에이전트는 월드에 로드될 때 등록, 언로드/제거될 때 해제 (ChiselAgent 이벤트 연결)
+ * - 매 틱 각 에이전트가 자기 셀만 갱신(셀이 바뀐 경우에만 버킷 이동) → 전체 재구성 없음
+ * - 분리 오프셋은 주변 3x3 셀만, 거리를 재는 다른 주인 이웃은 최대 {@link #MAX_NEIGHBORS}개까지 → 밀집 상황에서도 에이전트 수에 선형
+ * </p>
+ * 서버 스레드 전용 (동기화 없음)
+ */
+public final class AgentSpatialHash {
+
+    private static final Map<ServerWorld, AgentSpatialHash> WORLDS = new IdentityHashMap<>();
+
+    // 분리 반경(블록): 이보다 가까운 다른 주인의 에이전트끼리 서로 밀어냄 (히트박스 폭 0.6 + 여유)
+    private static final double SEPARATION_RADIUS = 1.1;
+    private static final double SEPARATION_STRENGTH = 0.6; // 겹침 깊이 대비 밀어내는 비율
+    private static final double VERTICAL_TOLERANCE = 1.8;  // 높이 차가 키(1.8) 이상이면 겹침 아님
+    private static final int    MAX_NEIGHBORS = 12;        // 한 번 조회에서 거리를 잴 최대 다른 주인 이웃 수 (최악의 경우 상한)
+
+    private final Long2ObjectOpenHashMap<ArrayList<AgentEntity>> cells = new Long2ObjectOpenHashMap<>();
+    private final Object2LongOpenHashMap<AgentEntity> cellOf = new Object2LongOpenHashMap<>();
+
+    private AgentSpatialHash() {}
+
+    /** 해당 월드의 해시 (없으면 생성) */
+    public static AgentSpatialHash of(ServerWorld world) {
+        return WORLDS.computeIfAbsent(world, w -> new AgentSpatialHash());
+    }
+
+    /** 서버 종료 시 전체 정리 */
+    public static void clearAll() {
+        WORLDS.clear();
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 등록/해제/갱신
+    // ────────────────────────────────────────────────────────────────
+
+    public void add(AgentEntity agent) {
+        if (cellOf.containsKey(agent)) return;
+        long key = cellKey(agent.getX(), agent.getZ());
+        cellOf.put(agent, key);
+        cells.computeIfAbsent(key, k -> new ArrayList<>(4)).add(agent);
+    }
+
+    public void remove(AgentEntity agent) {
+        if (!cellOf.containsKey(agent)) return;
+        removeFromCell(agent, cellOf.removeLong(agent));
+    }
+
+    /** 현재 위치 기준으로 셀 갱신 — 셀이 바뀐 경우에만 버킷 이동 */
+    public void update(AgentEntity agent) {
+        long key = cellKey(agent.getX(), agent.getZ());
+        if (!cellOf.containsKey(agent)) {
+            add(agent);
+            return;
+        }
+        long old = cellOf.getLong(agent);
+        if (old == key) return;
+        removeFromCell(agent, old);
+        cellOf.put(agent, key);
+        cells.computeIfAbsent(key, k -> new ArrayList<>(4)).add(agent);
+    }
+
+    public int size() {
+        return cellOf.size();
+    }
+
+    /** 등록된 에이전트 전체 (읽기 전용으로 순회할 것) */
+    public Iterable<AgentEntity> agents() {
+        return cellOf.keySet();
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 분리 오프셋
+    // ────────────────────────────────────────────────────────────────
+
+    /**
+     * 주변에서 겹친 "다른 주인" 에이전트로부터 멀어지는 수평 오프셋 계산
+     * @return 목표 위치에 더할 오프셋 (겹침 없으면 {@link Vec3d#ZERO})
+     */
+    public Vec3d separationOffset(AgentEntity self) {
+        Optional<UUID> myOwner = self.getOwnerUuid();
+        double x = self.getX(), y = self.getY(), z = self.getZ();
+        int cx = MathHelper.floor(x / SEPARATION_RADIUS);
+        int cz = MathHelper.floor(z / SEPARATION_RADIUS);
+
+        double pushX = 0.0, pushZ = 0.0;
+        int checked = 0;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                ArrayList<AgentEntity> bucket = cells.get(pack(cx + dx, cz + dz));
+                if (bucket == null) continue;
+                for (int i = 0, n = bucket.size(); i < n; i++) {
+                    AgentEntity other = bucket.get(i);
+                    if (other == self) continue;
+                    if (myOwner.equals(other.getOwnerUuid())) continue; // 같은 주인끼리는 무시
+                    if (Math.abs(y - other.getY()) >= VERTICAL_TOLERANCE) continue;
+                    // 예산은 실제로 거리를 재는 후보만 셈 (같은 주인 무리에 막혀 낯선 이웃을 놓치지 않게)
+                    if (++checked > MAX_NEIGHBORS) return toOffset(pushX, pushZ);
+
+                    double ox = x - other.getX();
+                    double oz = z - other.getZ();
+
+                    double distSq = ox * ox + oz * oz;
+                    if (distSq >= SEPARATION_RADIUS * SEPARATION_RADIUS) continue;
+
+                    double dist = Math.sqrt(distSq);
+                    if (dist < 1.0e-4) {
+                        // 완전히 같은 위치: 두 id 쌍으로 정한 기준 방향, 작은 id 쪽만 반대로 (양쪽이 정반대로 밀리도록)
+                        double a = Math.min(self.getId(), other.getId()) * 2.399963; // 황금각
+                        double sign = self.getId() < other.getId() ? -1.0 : 1.0;
+                        ox = Math.cos(a) * sign;
+                        oz = Math.sin(a) * sign;
+                        dist = 1.0;
+                    }
+                    double depth = (SEPARATION_RADIUS - Math.min(dist, SEPARATION_RADIUS)) / SEPARATION_RADIUS;
+                    pushX += ox / dist * depth;
+                    pushZ += oz / dist * depth;
+                }
+            }
+        }
+        return toOffset(pushX, pushZ);
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 내부 유틸
+    // ────────────────────────────────────────────────────────────────
+
+    private static Vec3d toOffset(double pushX, double pushZ) {
+        if (pushX == 0.0 && pushZ == 0.0) return Vec3d.ZERO;
+        double len = Math.hypot(pushX, pushZ);
+        double scale = SEPARATION_STRENGTH * SEPARATION_RADIUS;
+        if (len > 1.0) scale /= len; // 여러 이웃이 겹쳐도 반경 이상으로 튀지 않도록 제한
+        return new Vec3d(pushX * scale, 0.0, pushZ * scale);
+    }
+
+    private void removeFromCell(AgentEntity agent, long key) {
+        ArrayList<AgentEntity> bucket = cells.get(key);
+        if (bucket == null) return;
+        bucket.remove(agent);
+        if (bucket.isEmpty()) cells.remove(key);
+    }
+
+    private static long cellKey(double x, double z) {
+        return pack(MathHelper.floor(x / SEPARATION_RADIUS), MathHelper.floor(z / SEPARATION_RADIUS));
+    }
+
+    private static long pack(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,339 @@
+// src/main/java/whiteheaven/chiselagent/entity/AgentStateTable.java
+package whiteheaven.chiselagent.entity;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.random.Random;
+import net.minecraft.world.World;
+import whiteheaven.chiselagent.agent.GhostAgents;
+import whiteheaven.chiselagent.config.AgentProfile;
+import whiteheaven.chiselagent.trace.AgentTrace;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 월드별 에이전트 추적 상태 표 (구조 배열: 궤도/기울기/목표/주인 속도를 행 번호로 묶은 기본형 배열)
+ * <p>
+ * 월드 틱 시작에 한 번 {@link #process()}:
+ * ① 수집 — 엔티티가 주인 입력(위치/방향/속도/상태)을 자기 행에 씀
+ * ② 계산 — 배열만 도는 한 루프로 궤도 갱신 + 목표 좌표 + 기울기 보간
+ * ③ 기록 — 결과를 엔티티에 돌려줌 (기울기는 렌더용 필드, 목표는 이번 틱 추적용)
+ * <p>
+ * - 엔티티 틱은 이번 틱 목표를 읽기만 함 (탈것 보간/분리 오프셋/이동은 엔티티 쪽)
+ * - 배치 처리 전에 로드된 엔티티는 {@link #processRow}로 자기 행만 처리
+ * - 행 제거는 마지막 행을 빈자리로 옮김 (배열에 빈칸 없음)
+ * - 서버 월드 표는 서버 스레드, 클라이언트 월드 표(고스트)는 클라이언트 스레드 전용 — 맵도 따로 둠
+ * - 표가 월드를 붙잡지 않게: 서버 월드는 언로드 때, 클라이언트 월드는 차원 이동으로 바뀐 다음 틱에 버림
+ * </p>
+ */
+public final class AgentStateTable {
+
+    private static final Map<World, AgentStateTable> SERVER = new IdentityHashMap<>();
+    private static final Map<World, AgentStateTable> CLIENT = new IdentityHashMap<>();
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LEAN_RATE = 0.3f; // 목표 기울기로 다가가는 비율 (틱당)
+
+    static final byte MODE_WALK = 0;
+    static final byte MODE_FLY  = 1;
+    static final byte MODE_SWIM = 2;
+
+    private AgentEntity[] agents = new AgentEntity[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // ── 입력 (수집 단계에서 채움) ──
+    private boolean[] active;          // 이번 틱 계산 대상 (따라오기 + 주인이 같은 월드)
+    private double[] ownerX, ownerY, ownerZ;
+    private double[] ownerYaw;         // 라디안
+    private double[] ownerSpeed;       // 수평 속도 (블록/틱)
+    private byte[] ownerMode;          // MODE_*
+    private boolean[] ownerRiding;
+    private boolean[] sideRight;
+    private float[] leanTarget;        // 직전 틱 자세 (0=서 있음, 1=누움)
+    private AgentProfile[] profiles;   // 궤도 재설정 범위
+    private Random[] randoms;          // 엔티티 난수 (고스트는 시드 고정 → 클라이언트마다 같은 궤도)
+
+    // ── 상태 ──
+    private float[] orbitAngle;        // 라디안 (NaN = 아직 정하지 않음)
+    private double[] orbitRadius;
+    private int[] orbitTicks;
+    private float[] lean, prevLean;
+
+    // ── 출력 ──
+    private double[] targetX, targetY, targetZ;
+
+    private AgentStateTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /** 월드 틱 이벤트 등록 (서버) — ChiselAgent#onInitialize() 에서 호출 */
+    public static void register() {
+        ServerTickEvents.START_WORLD_TICK.register(w -> {
+            AgentStateTable t = SERVER.get(w);
+            if (t == null) return;
+            long tr = AgentTrace.begin();
+            t.process();
+            AgentTrace.end(AgentTrace.Phase.STATE_TABLE, tr, 0);
+        });
+        ServerWorldEvents.UNLOAD.register((server, w) -> SERVER.remove(w));
+    }
+
+    /** 월드 표 (없으면 생성) */
+    public static AgentStateTable of(World world) {
+        return (world.isClient ? CLIENT : SERVER).computeIfAbsent(world, w -> new AgentStateTable());
+    }
+
+    /** 클라이언트 월드 배치 처리 (고스트용 — 엔티티 틱 전 클라이언트 틱 이벤트에서 호출) */
+    public static void processClient(World world) {
+        // 클라이언트 월드는 한 번에 하나 — 차원을 옮기면 이전 ClientWorld 표(와 월드)를 놓아 줌
+        if (CLIENT.size() > 1 || (CLIENT.size() == 1 && !CLIENT.containsKey(world))) {
+            CLIENT.keySet().removeIf(w -> w != world);
+        }
+        AgentStateTable t = CLIENT.get(world);
+        if (t != null) t.process();
+    }
+
+    /** 엔티티 언로드/제거 시 (행은 첫 추적 틱에 생김) */
+    public static void remove(AgentEntity agent, World world) {
+        AgentStateTable t = (world.isClient ? CLIENT : SERVER).get(world);
+        if (t != null) t.removeRow(agent);
+    }
+
+    /** 서버 종료 시 */
+    public static void clearAll() {
+        SERVER.clear();
+    }
+
+    /** 클라이언트 접속 종료 시 */
+    public static void clearClient() {
+        CLIENT.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 행 관리
+    // ────────────────────────────────────────────────────────────────
+
+    /** @return 새 행 번호 (이미 있으면 그 행) */
+    int add(AgentEntity agent) {
+        if (agent.stateRow >= 0 && agent.stateRow < size && agents[agent.stateRow] == agent) return agent.stateRow;
+        if (size == agents.length) grow(size * 2);
+        int row = size++;
+        agents[row] = agent;
+        active[row] = false;
+        orbitAngle[row] = Float.NaN;
+        orbitRadius[row] = 3.5;
+        orbitTicks[row] = 0;
+        lean[row] = prevLean[row] = leanTarget[row] = 0.0f;
+        randoms[row] = agent.orbitRandom();
+        agent.stateRow = row;
+        return row;
+    }
+
+    private void removeRow(AgentEntity agent) {
+        int row = agent.stateRow;
+        if (row < 0 || row >= size || agents[row] != agent) return;
+        int last = --size;
+        if (row != last) {
+            move(last, row);
+            agents[row].stateRow = row;
+        }
+        agents[last] = null;
+        profiles[last] = null;
+        randoms[last] = null;
+        agent.stateRow = -1;
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 입력 (엔티티 → 행)
+    // ────────────────────────────────────────────────────────────────
+
+    void input(int row, double x, double y, double z, float yawDeg, double speed,
+               byte mode, boolean riding, boolean right, AgentProfile prof) {
+        active[row] = true;
+        ownerX[row] = x;
+        ownerY[row] = y;
+        ownerZ[row] = z;
+        ownerYaw[row] = Math.toRadians(yawDeg);
+        ownerSpeed[row] = speed;
+        ownerMode[row] = mode;
+        ownerRiding[row] = riding;
+        sideRight[row] = right;
+        profiles[row] = prof;
+    }
+
+    void skip(int row) {
+        active[row] = false;
+    }
+
+    /** 다음 틱 기울기 보간 목표 (자세가 정해진 뒤 엔티티가 씀) */
+    void leanTarget(int row, boolean horizontalPose) {
+        leanTarget[row] = horizontalPose ? 1.0f : 0.0f;
+    }
+
+    /** 주인 이동 상태 (비행 > 수영 > 지상) */
+    static byte modeOf(PlayerEntity p, boolean deepEnough) {
+        if (GhostAgents.isFlying(p)) return MODE_FLY;
+        if (deepEnough && (p.isSwimming() || p.isTouchingWater())) return MODE_SWIM;
+        return MODE_WALK;
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 처리
+    // ────────────────────────────────────────────────────────────────
+
+    /** 전체 행 배치 처리 (수집 → 계산 → 기록) */
+    void process() {
+        int n = size;
+        for (int i = 0; i < n; i++) agents[i].gatherState(this, i);
+        for (int i = 0; i < n; i++) {
+            if (active[i]) computeRow(i);
+        }
+        for (int i = 0; i < n; i++) {
+            if (active[i]) agents[i].applyState(this, i);
+        }
+    }
+
+    /** 한 행만 처리 (배치 처리 뒤 로드된 엔티티 / 배치 처리가 없는 월드) */
+    void processRow(int row) {
+        agents[row].gatherState(this, row);
+        if (!active[row]) return;
+        computeRow(row);
+        agents[row].applyState(this, row);
+    }
+
+    /**
+     * 행 하나 계산 — 기본형 배열만 읽고 씀 (궤도 재설정 때만 프로파일/난수 참조)
+     * - 뒤쪽 궤도 영역의 목표 + 이동 속도에 따른 전방 리드 + 상태별 수직 오프셋
+     */
+    private void computeRow(int i) {
+        prevLean[i] = lean[i];
+        lean[i] += (leanTarget[i] - lean[i]) * LEAN_RATE;
+
+        if (orbitTicks[i] <= 0 || Float.isNaN(orbitAngle[i])) reseed(i);
+        else orbitTicks[i]--;
+
+        double yaw = ownerYaw[i];
+        double yawOffset = yaw + orbitAngle[i];
+        byte mode = ownerMode[i];
+
+        double forwardLead = 0.0;
+        if (mode != MODE_FLY && !ownerRiding[i]) {
+            double speed = ownerSpeed[i];
+            if      (speed < 0.05) forwardLead = 0.5;
+            else if (speed < 0.12) forwardLead = 0.3;
+            else if (speed < 0.20) forwardLead = 0.1;
+        }
+
+        // 비행: 0.5 - 0.8, 수영: 0.2 - 0.3, 지상: -0.2
+        double verticalOffset = mode == MODE_FLY ? -0.30 : mode == MODE_SWIM ? -0.10 : -0.20;
+
+        targetX[i] = ownerX[i] - Math.sin(yawOffset) * orbitRadius[i] - forwardLead * Math.sin(yaw);
+        targetZ[i] = ownerZ[i] + Math.cos(yawOffset) * orbitRadius[i] + forwardLead * Math.cos(yaw);
+        targetY[i] = ownerY[i] + verticalOffset;
+    }
+
+    /** 뒤쪽 새 각도/거리 (좌우는 15% 확률로 반대쪽) */
+    private void reseed(int i) {
+        AgentProfile prof = profiles[i];
+        Random random = randoms[i];
+        double angle = prof.backMinRad() + random.nextDouble() * (prof.backMaxRad() - prof.backMinRad());
+        double sign = sideRight[i] ? -1.0 : 1.0;
+        if (random.nextFloat() < 0.15f) sign = -sign;
+
+        orbitAngle[i] = (float) (sign * angle);
+        orbitRadius[i] = prof.orbitMinRadius() + random.nextDouble() * (prof.orbitMaxRadius() - prof.orbitMinRadius());
+        orbitTicks[i] = prof.orbitMinTicks() + random.nextInt(prof.orbitMaxTicks() - prof.orbitMinTicks() + 1);
+    }
+
+    // ────────────────────────────────────────────────────────────────
+    // 출력 (행 → 엔티티)
+    // ────────────────────────────────────────────────────────────────
+
+    double targetX(int row) { return targetX[row]; }
+    double targetY(int row) { return targetY[row]; }
+    double targetZ(int row) { return targetZ[row]; }
+    float lean(int row) { return lean[row]; }
+    float prevLean(int row) { return prevLean[row]; }
+
+    // ────────────────────────────────────────────────────────────────
+    // 배열 관리
+    // ────────────────────────────────────────────────────────────────
+
+    private void move(int from, int to) {
+        agents[to] = agents[from];
+        active[to] = active[from];
+        ownerX[to] = ownerX[from];
+        ownerY[to] = ownerY[from];
+        ownerZ[to] = ownerZ[from];
+        ownerYaw[to] = ownerYaw[from];
+        ownerSpeed[to] = ownerSpeed[from];
+        ownerMode[to] = ownerMode[from];
+        ownerRiding[to] = ownerRiding[from];
+        sideRight[to] = sideRight[from];
+        leanTarget[to] = leanTarget[from];
+        profiles[to] = profiles[from];
+        randoms[to] = randoms[from];
+        orbitAngle[to] = orbitAngle[from];
+        orbitRadius[to] = orbitRadius[from];
+        orbitTicks[to] = orbitTicks[from];
+        lean[to] = lean[from];
+        prevLean[to] = prevLean[from];
+        targetX[to] = targetX[from];
+        targetY[to] = targetY[from];
+        targetZ[to] = targetZ[from];
+    }
+
+    private void allocate(int capacity) {
+        active = new boolean[capacity];
+        ownerX = new double[capacity];
+        ownerY = new double[capacity];
+        ownerZ = new double[capacity];
+        ownerYaw = new double[capacity];
+        ownerSpeed = new double[capacity];
+        ownerMode = new byte[capacity];
+        ownerRiding = new boolean[capacity];
+        sideRight = new boolean[capacity];
+        leanTarget = new float[capacity];
+        profiles = new AgentProfile[capacity];
+        randoms = new Random[capacity];
+        orbitAngle = new float[capacity];
+        orbitRadius = new double[capacity];
+        orbitTicks = new int[capacity];
+        lean = new float[capacity];
+        prevLean = new float[capacity];
+        targetX = new double[capacity];
+        targetY = new double[capacity];
+        targetZ = new double[capacity];
+    }
+
+    private void grow(int capacity) {
+        agents = Arrays.copyOf(agents, capacity);
+        active = Arrays.copyOf(active, capacity);
+        ownerX = Arrays.copyOf(ownerX, capacity);
+        ownerY = Arrays.copyOf(ownerY, capacity);
+        ownerZ = Arrays.copyOf(ownerZ, capacity);
+        ownerYaw = Arrays.copyOf(ownerYaw, capacity);
+        ownerSpeed = Arrays.copyOf(ownerSpeed, capacity);
+        ownerMode = Arrays.copyOf(ownerMode, capacity);
+        ownerRiding = Arrays.copyOf(ownerRiding, capacity);
+        sideRight = Arrays.copyOf(sideRight, capacity);
+        leanTarget = Arrays.copyOf(leanTarget, capacity);
+        profiles = Arrays.copyOf(profiles, capacity);
+        randoms = Arrays.copyOf(randoms, capacity);
+        orbitAngle = Arrays.copyOf(orbitAngle, capacity);
+        orbitRadius = Arrays.copyOf(orbitRadius, capacity);
+        orbitTicks = Arrays.copyOf(orbitTicks, capacity);
+        lean = Arrays.copyOf(lean, capacity);
+        prevLean = Arrays.copyOf(prevLean, capacity);
+        targetX = Arrays.copyOf(targetX, capacity);
+        targetY = Arrays.copyOf(targetY, capacity);
+        targetZ = Arrays.copyOf(targetZ, capacity);
+    }
+}
@@ -0,0 +1,98 @@
+// src/main/java/whiteheaven/chiselagent/entity/AgentTickStats.java
+package whiteheaven.chiselagent.entity;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 에이전트 추적 틱(followOwnerTick) 소요 시간 + 할당 바이트 집계
+ * <p>
+ * GameTest 성능 예산 검사용. 꺼져 있으면 정적 boolean 1회 검사 외 비용 없음.
+ * 서버 스레드에서만 기록 (클라이언트 고스트는 집계하지 않음)
+ * 할당량은 스레드 할당 카운터(HotSpot ThreadMXBean)로 잼 — 지원하지 않는 JVM이면 0
+ * </p>
+ */
+public final class AgentTickStats {
+    private AgentTickStats() {}
+
+    private static boolean enabled = false;
+    private static long totalNanos = 0L;
+    private static long maxNanos = 0L;
+    private static long samples = 0L;
+    private static long totalBytes = 0L;
+    private static long allocStart = 0L;
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** 측정 시작 (꺼져 있으면 0) */
+    static long begin() {
+        if (!enabled) return 0L;
+        allocStart = allocatedBytes();
+        return System.nanoTime();
+    }
+
+    static void end(long start) {
+        if (start == 0L) return;
+        long dt = System.nanoTime() - start;
+        totalNanos += dt;
+        if (dt > maxNanos) maxNanos = dt;
+        totalBytes += allocatedBytes() - allocStart;
+        samples++;
+    }
+
+    public static void reset() {
+        totalNanos = 0L;
+        maxNanos = 0L;
+        samples = 0L;
+        totalBytes = 0L;
+    }
+
+    public static long samples() {
+        return samples;
+    }
+
+    /** 에이전트 1마리 1틱 평균 (µs) */
+    public static double averageMicros() {
+        return samples == 0 ? 0.0 : totalNanos / (double) samples / 1000.0;
+    }
+
+    /** 가장 느렸던 1회 (µs) */
+    public static double maxMicros() {
+        return maxNanos / 1000.0;
+    }
+
+    /** 에이전트 1마리 1틱 평균 할당량 (바이트) */
+    public static double averageBytes() {
+        return samples == 0 ? 0.0 : totalBytes / (double) samples;
+    }
+
+    /** 현재 JVM이 스레드 할당 카운터를 지원하는지 */
+    public static boolean allocationSupported() {
+        return Allocation.THREADS != null;
+    }
+
+    /** 현재 스레드가 지금까지 할당한 바이트 (지원하지 않으면 0) */
+    public static long allocatedBytes() {
+        com.sun.management.ThreadMXBean t = Allocation.THREADS;
+        return t == null ? 0L : t.getCurrentThreadAllocatedBytes();
+    }
+
+    /** 측정을 켤 때만 로드 (평소 서버에서는 관리 빈을 건드리지 않음) */
+    private static final class Allocation {
+        static final com.sun.management.ThreadMXBean THREADS = threads();
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+                    && t.isThreadAllocatedMemorySupported()) {
+                t.setThreadAllocatedMemoryEnabled(true);
+                return t;
+            }
+        } catch (LinkageError | UnsupportedOperationException ignored) {
+            // com.sun.management 이 없는 JVM
+        }
+        return null;
+    }
+}
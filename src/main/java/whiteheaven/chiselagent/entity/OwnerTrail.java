@@ -0,0 +1,91 @@
+// src/main/java/whiteheaven/chiselagent/entity/OwnerTrail.java
+package whiteheaven.chiselagent.entity;
+
+/**
+ * 주인이 지나간 자취 (최근 위치 고정 크기 링 버퍼, 기본형 배열 — 기록/조회에 할당 없음)
+ * <p>
+ * - 직전 기록 지점에서 epsilon 이상 움직였을 때만 기록 (제자리/미세 이동은 버퍼를 밀어내지 않음)
+ * - 지점은 계속 증가하는 번호(seq)로 가리킴 → 덮어써진 지점은 {@link #contains}로 판별
+ * </p>
+ * 엔티티 1개 전용 (서버 스레드 또는 클라이언트 고스트)
+ */
+final class OwnerTrail {
+
+    private final double[] xs, ys, zs;
+    private final int mask;
+    private final double epsilonSq;
+    private long written = 0; // 지금까지 기록된 지점 수 (= 다음 지점 번호)
+
+    /** @param capacity 2의 거듭제곱 */
+    OwnerTrail(int capacity, double epsilon) {
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.zs = new double[capacity];
+        this.mask = capacity - 1;
+        this.epsilonSq = epsilon * epsilon;
+    }
+
+    /** @return 새 지점으로 기록했으면 true */
+    boolean record(double x, double y, double z) {
+        if (written > 0) {
+            int last = (int) ((written - 1) & mask);
+            double dx = x - xs[last], dy = y - ys[last], dz = z - zs[last];
+            if (dx * dx + dy * dy + dz * dz < epsilonSq) return false;
+        }
+        int i = (int) (written & mask);
+        xs[i] = x;
+        ys[i] = y;
+        zs[i] = z;
+        written++;
+        return true;
+    }
+
+    void clear() {
+        written = 0;
+    }
+
+    boolean isEmpty() {
+        return written == 0;
+    }
+
+    /** 가장 오래된 남은 지점 번호 */
+    long oldest() {
+        return Math.max(0L, written - xs.length);
+    }
+
+    /** 가장 최근 지점 번호 (비어 있으면 -1) */
+    long newest() {
+        return written - 1;
+    }
+
+    boolean contains(long seq) {
+        return seq >= oldest() && seq < written;
+    }
+
+    double x(long seq) {
+        return xs[(int) (seq & mask)];
+    }
+
+    double y(long seq) {
+        return ys[(int) (seq & mask)];
+    }
+
+    double z(long seq) {
+        return zs[(int) (seq & mask)];
+    }
+
+    /** 주어진 위치에서 가장 가까운 지점 번호 (비어 있으면 -1) */
+    long nearest(double x, double y, double z) {
+        long best = -1;
+        double bestSq = Double.MAX_VALUE;
+        for (long seq = oldest(); seq < written; seq++) {
+            double dx = x - x(seq), dy = y - y(seq), dz = z - z(seq);
+            double d = dx * dx + dy * dy + dz * dz;
+            if (d < bestSq) {
+                bestSq = d;
+                best = seq;
+            }
+        }
+        return best;
+    }
+}
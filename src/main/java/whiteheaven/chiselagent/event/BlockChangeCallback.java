@@ -0,0 +1,29 @@
+// src/main/java/whiteheaven/chiselagent/event/BlockChangeCallback.java
+package whiteheaven.chiselagent.event;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * 서버 월드 블록 변경 알림
+ * <p>
+ * - 일반 경로: ServerWorld#onBlockChanged (mixin/ServerWorldMixin)
+ * - 블록 작업 엔진의 섹션 직접 기록도 칸마다 같은 이벤트를 보냄
+ * </p>
+ * 서버 스레드에서 칸마다 불리므로 리스너는 가볍게 (캐시 무효화 표시 정도)
+ */
+@FunctionalInterface
+public interface BlockChangeCallback {
+
+    Event<BlockChangeCallback> EVENT = EventFactory.createArrayBacked(BlockChangeCallback.class,
+            listeners -> (world, pos, oldState, newState) -> {
+                for (BlockChangeCallback listener : listeners) {
+                    listener.onBlockChanged(world, pos, oldState, newState);
+                }
+            });
+
+    void onBlockChanged(ServerWorld world, BlockPos pos, BlockState oldState, BlockState newState);
+}
@@ -0,0 +1,258 @@
+// src/main/java/whiteheaven/chiselagent/handoff/AgentHandoff.java
+package whiteheaven.chiselagent.handoff;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.BlockState;
+import net.minecraft.command.argument.BlockArgumentParser;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockBox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import whiteheaven.chiselagent.agent.AgentSpawner;
+import whiteheaven.chiselagent.agent.GhostAgents;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.job.BlockJob;
+import whiteheaven.chiselagent.job.BlockJobEngine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 프록시 뒤 서버 간 에이전트 인계 (설정 handoff.enabled, 기본 꺼짐)
+ * <p>
+ * - 나갈 때(DISCONNECT): 에이전트 설정(따라오기/궤도 방향/고스트) + 대기 중 블록 작업을 {@link AgentSnapshot}으로
+ *   만들어 IO 작업 스레드에서 {@link SnapshotTransport}에 저장 — 이후 기존 정리 경로는 그대로
+ * - 들어올 때(JOIN): 스냅샷을 waitSeconds 동안 몇 틱마다 가져가 봄
+ *   (프록시는 보통 새 서버에 먼저 붙인 뒤 이전 서버 연결을 끊으므로 스냅샷이 조금 늦게 올 수 있음)
+ * - 가져오면 주인 자리에 바로 복원 (안전 위치 탐색/엔티티 스캔 없음), 작업은 같은 차원이 있는 서버에서만 이어서
+ * - 오래된 스냅샷(maxAgeSeconds 초과)은 버림, 가져온 뒤 주인이 이미 나갔으면 다시 넣어 둠
+ * - 공유 폴더에 끝내 아무도 안 가져간 파일은 서버 시작 시 fileTtlSeconds 기준으로 지움
+ * </p>
+ * 서버 스레드 전용 (전달 경로 호출만 IO 작업 스레드)
+ */
+public final class AgentHandoff {
+    private AgentHandoff() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+    private static final int POLL_INTERVAL_TICKS = 5;
+
+    private static SnapshotTransport custom;   // 다른 모드가 지정한 전달 경로 (없으면 공유 폴더)
+    private static SnapshotTransport active;   // 서버 실행 중 사용하는 경로 (꺼져 있으면 null)
+
+    private static final Map<UUID, Integer> WAITING = new HashMap<>(); // 주인 → 기다림을 끝낼 틱
+    private static final Set<UUID> IN_FLIGHT = new HashSet<>();        // IO 스레드에서 가져오는 중
+
+    /** 초기화 시 1회 등록 */
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(AgentHandoff::tick);
+    }
+
+    /** 전달 경로 교체 (서버 시작 전에 호출 — 다음 서버 시작부터 적용, null이면 공유 폴더) */
+    public static void setTransport(SnapshotTransport transport) {
+        custom = transport;
+    }
+
+    /** 서버 시작 시 (설정에서 켠 경우만 동작) */
+    public static void start(MinecraftServer server) {
+        stop();
+        if (!AgentConfig.handoffEnabled()) return;
+        if (custom != null) {
+            active = custom;
+        } else {
+            Path dir = Path.of(AgentConfig.handoffDirectory());
+            if (!dir.isAbsolute()) dir = server.getRunDirectory().toPath().resolve(dir);
+            DirectoryTransport transport = new DirectoryTransport(dir);
+            active = transport;
+            LOG.info("agent handoff directory: {}", dir.toAbsolutePath());
+            sweep(transport, dir);
+        }
+    }
+
+    /** 아무 서버도 안 가져가고 남은 파일 정리 (IO 작업 스레드, handoff.fileTtlSeconds 기준) */
+    private static void sweep(DirectoryTransport transport, Path dir) {
+        long ttlMillis = AgentConfig.handoffFileTtlSeconds() * 1000L;
+        Util.getIoWorkerExecutor().execute(() -> {
+            try {
+                int deleted = transport.deleteOlderThan(ttlMillis);
+                if (deleted > 0) LOG.info("deleted {} stale agent handoff files from {}", deleted, dir);
+            } catch (IOException e) {
+                LOG.warn("failed to clean agent handoff directory {}: {}", dir, e.toString());
+            }
+        });
+    }
+
+    /** 서버 종료 시 */
+    public static void stop() {
+        active = null;
+        WAITING.clear();
+        IN_FLIGHT.clear();
+    }
+
+    /* ===================== 내보내기 ===================== */
+
+    /** 나가는 플레이어의 스냅샷 저장 (DISCONNECT — 에이전트/작업 정리보다 먼저 호출) */
+    public static void export(ServerPlayerEntity player) {
+        SnapshotTransport transport = active;
+        UUID owner = player.getUuid();
+        WAITING.remove(owner);
+        if (transport == null) return;
+
+        AgentEntity agent = AgentSpawner.findNearestFor(player).orElse(null);
+        List<AgentSnapshot.Job> jobs = new ArrayList<>();
+        for (BlockJob job : BlockJobEngine.jobsOf(owner)) {
+            if (jobs.size() == AgentSnapshot.MAX_JOBS) break;
+            jobs.add(new AgentSnapshot.Job(job.kind, job.world.getValue(), job.box, job.nextSection(),
+                    stateString(job.first), stateString(job.second)));
+        }
+        AgentSnapshot snap = new AgentSnapshot(owner, player.getGameProfile().getName(), System.currentTimeMillis(),
+                agent != null, agent != null && agent.isFollowing(), agent == null || agent.isSideRight(),
+                GhostAgents.has(owner), List.copyOf(jobs));
+        if (snap.isEmpty()) return;
+
+        byte[] data = snap.encode();
+        Util.getIoWorkerExecutor().execute(() -> {
+            try {
+                transport.put(owner, data);
+            } catch (IOException e) {
+                LOG.warn("failed to export agent snapshot for {}: {}", owner, e.toString());
+            }
+        });
+    }
+
+    /* ===================== 가져오기 ===================== */
+
+    /** 들어온 플레이어의 스냅샷 기다리기 시작 (JOIN — 기존 정리 뒤에 호출) */
+    public static void expect(ServerPlayerEntity player) {
+        if (active == null) return;
+        WAITING.put(player.getUuid(), player.getServer().getTicks() + AgentConfig.handoffWaitSeconds() * 20);
+    }
+
+    private static void tick(MinecraftServer server) {
+        SnapshotTransport transport = active;
+        if (transport == null || WAITING.isEmpty()) return;
+        int now = server.getTicks();
+        if (now % POLL_INTERVAL_TICKS != 0) return;
+
+        for (Iterator<Map.Entry<UUID, Integer>> it = WAITING.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<UUID, Integer> e = it.next();
+            UUID owner = e.getKey();
+            if (IN_FLIGHT.contains(owner)) continue;
+            if (now > e.getValue()) {
+                it.remove();
+                continue;
+            }
+            IN_FLIGHT.add(owner);
+            Util.getIoWorkerExecutor().execute(() -> {
+                byte[] data = null;
+                try {
+                    data = transport.take(owner);
+                } catch (IOException ex) {
+                    LOG.warn("failed to read agent snapshot for {}: {}", owner, ex.toString());
+                }
+                byte[] taken = data;
+                server.execute(() -> arrived(server, transport, owner, taken));
+            });
+        }
+    }
+
+    private static void arrived(MinecraftServer server, SnapshotTransport transport, UUID owner, byte[] data) {
+        IN_FLIGHT.remove(owner);
+        if (data == null || transport != active) return;
+
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(owner);
+        if (player == null || WAITING.remove(owner) == null) {
+            // 기다리는 사이 다시 나감 → 다음 서버가 가져갈 수 있게 되돌려 둠
+            Util.getIoWorkerExecutor().execute(() -> {
+                try {
+                    transport.put(owner, data);
+                } catch (IOException e) {
+                    LOG.warn("failed to return agent snapshot for {}: {}", owner, e.toString());
+                }
+            });
+            return;
+        }
+
+        AgentSnapshot snap;
+        try {
+            snap = AgentSnapshot.decode(data);
+        } catch (IOException e) {
+            LOG.warn("dropping unreadable agent snapshot for {}: {}", owner, e.toString());
+            return;
+        }
+        long age = System.currentTimeMillis() - snap.createdAt();
+        if (!snap.owner().equals(owner) || age > AgentConfig.handoffMaxAgeSeconds() * 1000L) {
+            LOG.debug("dropping stale agent snapshot for {} (age {} ms)", owner, age);
+            return;
+        }
+        restore(player, snap);
+    }
+
+    /** 스냅샷 적용 (고스트면 고스트만, 아니면 주인 자리에 에이전트 + 작업 이어서) */
+    private static void restore(ServerPlayerEntity player, AgentSnapshot snap) {
+        if (snap.ghost()) {
+            GhostAgents.enable(player);
+            player.sendMessage(Text.literal("이전 서버에서 고스트 노예를 데려왔어요"), false);
+            return;
+        }
+        if (!snap.hasAgent()) return;
+
+        AgentEntity agent = AgentSpawner.restoreFor(player, snap.following(), snap.sideRight());
+        if (agent == null) return;
+
+        int resumed = 0;
+        for (AgentSnapshot.Job job : snap.jobs()) {
+            if (resumeJob(player.getServer(), player.getUuid(), agent.getUuid(), job)) resumed++;
+        }
+        player.sendMessage(Text.literal(resumed > 0
+                ? "이전 서버에서 노예를 데려왔어요 (작업 " + resumed + "건 이어서)"
+                : "이전 서버에서 노예를 데려왔어요"), false);
+    }
+
+    /** 같은 차원이 있고 블록 상태를 해석할 수 있을 때만 */
+    private static boolean resumeJob(MinecraftServer server, UUID owner, UUID agent, AgentSnapshot.Job job) {
+        ServerWorld world = server.getWorld(RegistryKey.of(RegistryKeys.WORLD, job.dimension()));
+        if (world == null) return false;
+        BlockBox box = job.box();
+        long volume = BlockJob.volumeOf(box);
+        if (volume > AgentConfig.jobMaxVolume()) return false;
+
+        BlockState first = parseState(job.first());
+        BlockState second = parseState(job.second());
+        if (job.kind() != BlockJob.Kind.CLEAR && (first == null || second == null)) return false;
+        BlockJobEngine.resume(world, owner, agent, job.kind(), box, first, second, job.nextSection());
+        return true;
+    }
+
+    /* ===================== 내부 유틸 ===================== */
+
+    private static String stateString(BlockState state) {
+        return state == null ? null : BlockArgumentParser.stringifyBlockState(state);
+    }
+
+    /** 블록 상태 문자열 → 상태 (받는 서버에 없는 블록이면 null) */
+    private static BlockState parseState(String s) {
+        if (s == null) return null;
+        try {
+            return BlockArgumentParser.block(Registries.BLOCK.getReadOnlyWrapper(), s, false).blockState();
+        } catch (CommandSyntaxException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+// src/main/java/whiteheaven/chiselagent/handoff/AgentSnapshot.java
+package whiteheaven.chiselagent.handoff;
+
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockBox;
+import whiteheaven.chiselagent.job.BlockJob;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 서버 간 인계용 에이전트 상태 (불변, 바이너리 직렬화)
+ * <p>
+ * 형식 (빅 엔디언):
+ * <pre>
+ * int   MAGIC ("CAS1")
+ * byte  VERSION
+ * long  createdAt (epoch ms)
+ * long  owner msb, long owner lsb
+ * UTF   ownerName
+ * byte  flags (1=에이전트 있음, 2=따라오기, 4=오른쪽 궤도, 8=고스트)
+ * byte  작업 수 (최대 {@link #MAX_JOBS})
+ *   byte kind(ordinal), UTF 차원 id, int×6 영역(min xyz, max xyz), int 다음 섹션,
+ *   UTF 상태 A, UTF 상태 B (블록 상태 문자열, 없으면 빈 문자열)
+ * </pre>
+ * 버전이 다르면 읽지 않음 (새 필드는 VERSION을 올리고 끝에 추가)
+ * </p>
+ */
+public record AgentSnapshot(UUID owner, String ownerName, long createdAt,
+                            boolean hasAgent, boolean following, boolean sideRight, boolean ghost,
+                            List<Job> jobs) {
+
+    static final int MAGIC = 0x43415331; // "CAS1"
+    static final byte VERSION = 1;
+    static final int MAX_JOBS = 16;
+
+    private static final int FLAG_AGENT = 1;
+    private static final int FLAG_FOLLOWING = 2;
+    private static final int FLAG_SIDE_RIGHT = 4;
+    private static final int FLAG_GHOST = 8;
+
+    /** 대기/진행 중 블록 작업 1건 (블록 상태는 문자열로 — 받는 서버의 레지스트리로 다시 해석) */
+    public record Job(BlockJob.Kind kind, Identifier dimension, BlockBox box, int nextSection,
+                      String first, String second) {}
+
+    /** 넘길 게 하나도 없으면 true (스냅샷을 쓰지 않음) */
+    public boolean isEmpty() {
+        return !hasAgent && !ghost && jobs.isEmpty();
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(createdAt);
+            out.writeLong(owner.getMostSignificantBits());
+            out.writeLong(owner.getLeastSignificantBits());
+            out.writeUTF(ownerName);
+            out.writeByte((hasAgent ? FLAG_AGENT : 0) | (following ? FLAG_FOLLOWING : 0)
+                    | (sideRight ? FLAG_SIDE_RIGHT : 0) | (ghost ? FLAG_GHOST : 0));
+
+            int n = Math.min(jobs.size(), MAX_JOBS);
+            out.writeByte(n);
+            for (int i = 0; i < n; i++) {
+                Job job = jobs.get(i);
+                out.writeByte(job.kind().ordinal());
+                out.writeUTF(job.dimension().toString());
+                BlockBox b = job.box();
+                out.writeInt(b.getMinX());
+                out.writeInt(b.getMinY());
+                out.writeInt(b.getMinZ());
+                out.writeInt(b.getMaxX());
+                out.writeInt(b.getMaxY());
+                out.writeInt(b.getMaxZ());
+                out.writeInt(job.nextSection());
+                out.writeUTF(job.first() == null ? "" : job.first());
+                out.writeUTF(job.second() == null ? "" : job.second());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // 메모리 스트림이라 발생하지 않음
+        }
+        return bytes.toByteArray();
+    }
+
+    /** @throws IOException 형식/버전이 다르거나 잘린 데이터 */
+    public static AgentSnapshot decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC) throw new IOException("not an agent snapshot");
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException("unsupported snapshot version " + version);
+
+            long createdAt = in.readLong();
+            UUID owner = new UUID(in.readLong(), in.readLong());
+            String ownerName = in.readUTF();
+            int flags = in.readUnsignedByte();
+
+            int n = Math.min(in.readUnsignedByte(), MAX_JOBS);
+            BlockJob.Kind[] kinds = BlockJob.Kind.values();
+            List<Job> jobs = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int kind = in.readUnsignedByte();
+                if (kind >= kinds.length) throw new IOException("unknown job kind " + kind);
+                Identifier dimension = Identifier.tryParse(in.readUTF());
+                if (dimension == null) throw new IOException("bad dimension id");
+                BlockBox box = new BlockBox(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                int nextSection = in.readInt();
+                String first = in.readUTF();
+                String second = in.readUTF();
+                jobs.add(new Job(kinds[kind], dimension, box, nextSection,
+                        first.isEmpty() ? null : first, second.isEmpty() ? null : second));
+            }
+            return new AgentSnapshot(owner, ownerName, createdAt,
+                    (flags & FLAG_AGENT) != 0, (flags & FLAG_FOLLOWING) != 0,
+                    (flags & FLAG_SIDE_RIGHT) != 0, (flags & FLAG_GHOST) != 0,
+                    List.copyOf(jobs));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// src/main/java/whiteheaven/chiselagent/handoff/DirectoryTransport.java
+package whiteheaven.chiselagent.handoff;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 공유 폴더 전달 경로 (같은 호스트/공유 볼륨에 있는 서버끼리)
+ * <p>
+ * - 주인마다 파일 1개 (&lt;uuid&gt;.bin)
+ * - 쓰기: 임시 파일에 다 쓴 뒤 이름 바꾸기 → 읽는 쪽이 반쯤 쓴 파일을 보지 않음
+ * - 가져가기: 먼저 고유한 이름으로 옮겨서 차지한 뒤 읽고 지움 → 두 서버가 동시에 가져가도 한쪽만 성공
+ * - 아무도 안 가져간 파일(대상 서버에 끝내 안 들어옴 등)과 중간에 멈춘 임시/차지 파일은
+ *   {@link #deleteOlderThan}으로 정리 (서버 시작 시)
+ * </p>
+ */
+public final class DirectoryTransport implements SnapshotTransport {
+
+    private final Path dir;
+
+    public DirectoryTransport(Path dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public void put(UUID owner, byte[] snapshot) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(owner + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        Files.write(tmp, snapshot);
+        move(tmp, file(owner));
+    }
+
+    @Override
+    public byte[] take(UUID owner) throws IOException {
+        Path claimed = dir.resolve(owner + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".claim");
+        try {
+            move(file(owner), claimed);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(claimed);
+        } finally {
+            Files.deleteIfExists(claimed);
+        }
+    }
+
+    /**
+     * 수정 시각이 maxAgeMillis보다 오래된 스냅샷/임시/차지 파일 삭제 (다른 파일은 건드리지 않음)
+     * @return 지운 파일 수 (폴더가 없으면 0)
+     */
+    public int deleteOlderThan(long maxAgeMillis) throws IOException {
+        if (!Files.isDirectory(dir)) return 0;
+        long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.{bin,tmp,claim}")) {
+            for (Path f : files) {
+                try {
+                    if (Files.getLastModifiedTime(f).toMillis() < cutoff && Files.deleteIfExists(f)) deleted++;
+                } catch (NoSuchFileException ignored) {
+                    // 그 사이 다른 서버가 가져감
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private Path file(UUID owner) {
+        return dir.resolve(owner + ".bin");
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+// src/main/java/whiteheaven/chiselagent/handoff/SnapshotTransport.java
+package whiteheaven.chiselagent.handoff;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * 인계 스냅샷 전달 경로 (서버 간 공유 저장소)
+ * <p>
+ * - 기본은 {@link DirectoryTransport} (여러 서버가 같은 폴더를 봄)
+ * - 다른 저장소(Redis, 프록시 플러그인 메시지 등)는 이 인터페이스를 구현해서 {@link AgentHandoff#setTransport}로 교체
+ * - 두 메서드 모두 IO 작업 스레드에서 호출됨 (스레드 안전해야 함, 서버 스레드를 막지 않음)
+ * </p>
+ */
+public interface SnapshotTransport {
+
+    /** 주인의 스냅샷 저장 (이전 것은 덮어씀) */
+    void put(UUID owner, byte[] snapshot) throws IOException;
+
+    /**
+     * 주인의 스냅샷을 가져가면서 지움 — 같은 스냅샷을 두 서버가 가져가지 않아야 함
+     * @return 없으면 null
+     */
+    byte[] take(UUID owner) throws IOException;
+}
@@ -0,0 +1,480 @@
+// src/main/java/whiteheaven/chiselagent/ipc/AgentIpc.java
+package whiteheaven.chiselagent.ipc;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockBox;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.control.AgentAction;
+import whiteheaven.chiselagent.control.AgentControl;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentSpatialHash;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 로컬 IPC 엔드포인트 (유닉스 도메인 소켓, 같은 호스트의 외부 플래너용)
+ * <p>
+ * - 설정 "ipc.enabled" 가 켜져 있으면 서버 시작 시 "ipc.socket" 경로에 바인드 (게임 폴더 기준)
+ * - 권한 있는 채널 (OP 확인 없이 아무 주인의 에이전트/블록 작업 조작): 소켓 파일은 바인드 직후 0600,
+ *   접속한 클라이언트는 첫 요청으로 "ipc.token"을 보내야 함 — 그 전에는 텔레메트리도 안 보내고 요청도 안 받음
+ *   (토큰이 틀리거나 {@link #AUTH_TIMEOUT_MS} 안에 안 오면 끊음, 토큰 설정이 비어 있으면 소켓을 열지 않음)
+ * - 서버 스레드: telemetryIntervalTicks 틱마다 모든 에이전트/주인 상태를 {@link TelemetryFrame}에 복사만 함
+ *   (접속한 클라이언트가 없으면 복사도 안 함)
+ * - IPC 스레드(데몬 1개): 셀렉터로 접속/쓰기 처리, 프레임 직렬화, 클라이언트별 논블로킹 전송
+ * </p>
+ * 넘겨주기 (프레임 2장):
+ * - 서버 스레드는 자기 몫의 프레임을 채운 뒤 PENDING 자리에 넣음. 이전 프레임이 아직 안 가져가졌으면
+ *   그 프레임은 버리고(오래된 프레임) 다음 틱에 재사용
+ * - IPC 스레드는 PENDING을 꺼내 직렬화한 뒤 SPARE로 돌려줌. 서버 스레드 몫이 없으면(직렬화 중) 이번 주기는 건너뜀
+ * - 클라이언트가 이전 프레임을 다 못 받았으면 그 클라이언트에게는 새 프레임을 보내지 않음
+ * → 어떤 경우에도 서버 틱은 기다리지 않음
+ * <p>
+ * 순서가 중요한 프레임(복셀 인지, {@link #publish})은 버리지 않고 클라이언트 버퍼 뒤에 이어 붙임.
+ * 밀린 양이 {@link #MAX_BACKLOG}를 넘는 클라이언트는 그 프레임을 건너뛰고 재동기화(키프레임)를 요청함
+ * </p>
+ * <p>
+ * 들어오는 요청은 IPC 스레드가 해석해서 {@link AgentControl} 큐에 넣기만 함 (응답 없음, 큐가 차면 버려짐)
+ * <pre>
+ * 인증 (접속 후 첫 요청, 빅 엔디언)
+ *  int   length   (이 필드 뒤 바이트 수)
+ *  byte  0
+ *  UTF-8 토큰 (나머지 전부)
+ * 요청 (빅 엔디언)
+ *  int   length   (이 필드 뒤 바이트 수, 최대 {@link #MAX_REQUEST})
+ *  byte  type     (AgentAction.Type 순서 + 1)
+ *  long  ownerMost, long ownerLeast
+ *  본문
+ *   MOVE_TO                   double x, y, z
+ *   FOLLOW                    byte on
+ *   CALL / DESPAWN / JOB_CANCEL  없음
+ *   JOB_CLEAR                 int x1, y1, z1, x2, y2, z2
+ *   JOB_REPLACE / JOB_PATTERN int x1, y1, z1, x2, y2, z2 + [short len + UTF-8 블록 id] × 2
+ * </pre>
+ * 길이가 범위를 벗어나면 연결을 끊음. 모르는 타입/잘못된 본문은 그 요청만 건너뜀
+ */
+public final class AgentIpc {
+    private AgentIpc() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+
+    private static final AtomicReference<TelemetryFrame> PENDING = new AtomicReference<>();
+    private static final AtomicReference<TelemetryFrame> SPARE = new AtomicReference<>();
+    private static final ConcurrentLinkedQueue<ByteBuffer> ORDERED = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean RESYNC = new AtomicBoolean();
+    private static TelemetryFrame back; // 서버 스레드가 다음에 채울 프레임
+
+    private static volatile boolean running = false;
+    private static volatile int clientCount = 0;
+    private static Selector selector;
+    private static ServerSocketChannel listener;
+    private static Path socketPath;
+    private static Thread thread;
+    private static int interval = 2;
+    private static byte[] token = new byte[0];
+
+    // 통계 (명령어/디버그용)
+    private static long framesSent = 0;        // IPC 스레드
+    private static long framesDropped = 0;     // 서버 스레드 (직렬화가 못 따라옴)
+
+    // 주인 속도 계산용 직전 위치 (서버 플레이어 velocity는 이동 패킷으로 갱신되지 않음)
+    private static final Map<UUID, double[]> LAST_OWNER_POS = new HashMap<>();
+    private static final Set<UUID> OWNERS = new HashSet<>();
+
+    private static final int MAX_REQUEST = 1024;
+    private static final int REQUEST_HEADER = 1 + 16; // type + owner
+    private static final int MAX_BACKLOG = 8 << 20;   // 클라이언트당 못 보낸 바이트 상한
+    private static final int AUTH_TYPE = 0;            // 인증 요청 타입 (AgentAction 타입은 1부터)
+    private static final long AUTH_TIMEOUT_MS = 5_000L;
+
+    /** 접속 1개 */
+    private static final class Client {
+        final SocketChannel channel;
+        ByteBuffer out = ByteBuffer.allocateDirect(0);
+        final ByteBuffer in = ByteBuffer.allocate(MAX_REQUEST * 2);
+        final long acceptedAt = System.currentTimeMillis();
+        boolean authed = false; // 토큰 확인 전에는 텔레메트리/요청 모두 막음
+        long dropped = 0;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /** 초기화 시 1회 등록 */
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(AgentIpc::capture);
+    }
+
+    /** 소켓이 열려 있고 인증된 클라이언트가 있는지 (서버 스레드에서 추적 여부 판단용) */
+    public static boolean hasClients() {
+        return running && clientCount > 0;
+    }
+
+    /**
+     * 순서가 중요한 프레임 전송 (서버 스레드 → IPC 스레드, 기다리지 않음)
+     * @param frame 완성된 프레임 (length 필드 포함) — 넘긴 뒤에는 건드리지 말 것
+     */
+    public static void publish(ByteBuffer frame) {
+        if (!running) return;
+        ORDERED.add(frame);
+        selector.wakeup();
+    }
+
+    /** 새 클라이언트 접속 / 프레임 누락이 있었으면 true (한 번 읽으면 지워짐) */
+    public static boolean takeResync() {
+        return RESYNC.getAndSet(false);
+    }
+
+    /* ===================== 수명 ===================== */
+
+    /** 서버 시작 시 (설정이 꺼져 있으면 아무것도 안 함) */
+    public static void start(MinecraftServer server) {
+        stop();
+        if (!AgentConfig.ipcEnabled()) return;
+        if (AgentConfig.ipcToken().isBlank()) {
+            LOG.warn("agent ipc not started: ipc.token is empty (the socket accepts privileged requests)");
+            return;
+        }
+
+        token = AgentConfig.ipcToken().getBytes(StandardCharsets.UTF_8);
+        interval = AgentConfig.telemetryIntervalTicks();
+        socketPath = FabricLoader.getInstance().getGameDir().resolve(AgentConfig.ipcSocket()).toAbsolutePath();
+        try {
+            Files.deleteIfExists(socketPath); // 비정상 종료로 남은 소켓 파일
+            listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            listener.bind(UnixDomainSocketAddress.of(socketPath));
+            restrictToOwner(socketPath);
+            listener.configureBlocking(false);
+            selector = Selector.open();
+            listener.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.warn("agent ipc unavailable at {}: {}", socketPath, e.toString());
+            closeQuietly();
+            return;
+        }
+
+        back = new TelemetryFrame();
+        SPARE.set(new TelemetryFrame());
+        PENDING.set(null);
+        running = true;
+        thread = new Thread(AgentIpc::loop, "chisel-agent-ipc");
+        thread.setDaemon(true);
+        thread.start();
+        LOG.info("agent ipc listening on {}", socketPath);
+    }
+
+    /** 서버 종료 시 */
+    public static void stop() {
+        if (!running) return;
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly();
+        ORDERED.clear();
+        LAST_OWNER_POS.clear();
+        LOG.info("agent ipc closed ({} frames sent, {} dropped)", framesSent, framesDropped);
+    }
+
+    /** 소켓 파일을 서버 계정만 읽고 쓰게 (POSIX가 아니면 토큰만으로 보호) */
+    private static void restrictToOwner(Path path) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            LOG.warn("agent ipc: cannot restrict socket permissions on this filesystem, relying on ipc.token only");
+        }
+    }
+
+    private static void closeQuietly() {
+        try {
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) key.channel().close();
+                selector.close();
+            }
+            if (listener != null) listener.close();
+            if (socketPath != null) Files.deleteIfExists(socketPath);
+        } catch (IOException ignored) {
+        }
+        selector = null;
+        listener = null;
+        thread = null;
+        clientCount = 0;
+    }
+
+    /* ===================== 서버 스레드: 스냅샷 복사 ===================== */
+
+    private static void capture(MinecraftServer server) {
+        if (!running || clientCount == 0 || server.getTicks() % interval != 0) return;
+
+        TelemetryFrame f = back != null ? back : SPARE.getAndSet(null);
+        if (f == null) { // IPC 스레드가 아직 직렬화 중 → 이번 주기 건너뜀
+            framesDropped++;
+            return;
+        }
+        fill(server, f);
+
+        back = PENDING.getAndSet(f); // 안 가져간 이전 프레임은 버리고 다음에 재사용
+        if (back != null) framesDropped++;
+        selector.wakeup();
+    }
+
+    private static void fill(MinecraftServer server, TelemetryFrame f) {
+        f.clear();
+        f.tick = server.getTicks();
+        f.epochMillis = System.currentTimeMillis();
+        OWNERS.clear();
+
+        for (ServerWorld world : server.getWorlds()) {
+            short dim = -1;
+            for (AgentEntity agent : AgentSpatialHash.of(world).agents()) {
+                if (agent.isRemoved()) continue;
+                if (dim < 0) dim = f.dimensionIndex(world.getRegistryKey().getValue());
+                UUID owner = agent.getOwnerUuid().orElse(null);
+                if (owner != null) OWNERS.add(owner);
+                f.add(TelemetryFrame.KIND_AGENT, (byte) agent.getMoveMode().ordinal(),
+                        agent.isFollowing() ? TelemetryFrame.FLAG_FOLLOWING : 0, dim,
+                        agent.getUuid(), owner,
+                        agent.getX(), agent.getY(), agent.getZ(),
+                        agent.getX() - agent.prevX, agent.getY() - agent.prevY, agent.getZ() - agent.prevZ,
+                        agent.getYaw());
+            }
+        }
+
+        for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
+            UUID id = p.getUuid();
+            if (!OWNERS.contains(id)) continue;
+            double[] last = LAST_OWNER_POS.computeIfAbsent(id, k -> new double[]{p.getX(), p.getY(), p.getZ()});
+            // 캡처 간격으로 나눠 블록/틱 단위로
+            double vx = (p.getX() - last[0]) / interval, vy = (p.getY() - last[1]) / interval, vz = (p.getZ() - last[2]) / interval;
+            last[0] = p.getX();
+            last[1] = p.getY();
+            last[2] = p.getZ();
+            f.add(TelemetryFrame.KIND_OWNER, (byte) AgentEntity.MoveMode.of(p).ordinal(), (byte) 0,
+                    f.dimensionIndex(p.getWorld().getRegistryKey().getValue()),
+                    id, id, p.getX(), p.getY(), p.getZ(), vx, vy, vz, p.getYaw());
+        }
+        LAST_OWNER_POS.keySet().retainAll(OWNERS);
+    }
+
+    /* ===================== IPC 스레드 ===================== */
+
+    private static void loop() {
+        ByteBuffer encoded = null;
+        while (running) {
+            try {
+                selector.select(1000L);
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else if (key.attachment() instanceof Client c) {
+                        if (key.isReadable()) read(key, c);
+                        if (key.isValid() && key.isWritable()) flush(key, c);
+                    }
+                }
+
+                TelemetryFrame f = PENDING.getAndSet(null);
+                if (f != null) {
+                    encoded = f.encode(encoded);
+                    SPARE.set(f);
+                    broadcast(encoded);
+                }
+                for (ByteBuffer ordered; (ordered = ORDERED.poll()) != null; ) broadcastOrdered(ordered);
+                dropUnauthenticated();
+            } catch (IOException e) {
+                LOG.warn("agent ipc loop error: {}", e.toString());
+            }
+        }
+    }
+
+    private static void accept() throws IOException {
+        SocketChannel ch = listener.accept();
+        if (ch == null) return;
+        ch.configureBlocking(false);
+        ch.register(selector, SelectionKey.OP_READ, new Client(ch)); // 인증 전까지는 clientCount에 안 셈
+    }
+
+    /** 시간 안에 토큰을 안 보낸 접속 정리 */
+    private static void dropUnauthenticated() {
+        long now = System.currentTimeMillis();
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof Client c
+                    && !c.authed && now - c.acceptedAt > AUTH_TIMEOUT_MS) {
+                close(key);
+            }
+        }
+    }
+
+    /** 인증 요청 확인 (토큰은 길이와 상관없이 일정 시간 비교) */
+    private static boolean authenticate(ByteBuffer b) {
+        if ((b.get() & 0xFF) != AUTH_TYPE) return false;
+        byte[] raw = new byte[b.remaining()];
+        b.get(raw);
+        return MessageDigest.isEqual(raw, token);
+    }
+
+    /** 요청 읽기 — 완성된 요청만 해석하고 남은 조각은 다음 읽기까지 보관 */
+    private static void read(SelectionKey key, Client c) {
+        try {
+            if (c.channel.read(c.in) < 0) {
+                close(key);
+                return;
+            }
+        } catch (IOException e) {
+            close(key);
+            return;
+        }
+
+        ByteBuffer in = c.in.flip();
+        while (in.remaining() >= 4) {
+            int len = in.getInt(in.position());
+            if (len < (c.authed ? REQUEST_HEADER : 1) || len > MAX_REQUEST) {
+                close(key); // 프로토콜이 어긋남 → 이후 바이트는 믿을 수 없음
+                return;
+            }
+            if (in.remaining() < 4 + len) break;
+            int end = in.position() + 4 + len;
+            in.position(in.position() + 4);
+            if (!c.authed) {
+                // 첫 요청은 반드시 인증 — 틀리면 끊음
+                if (!authenticate(in.slice(in.position(), len))) {
+                    LOG.warn("agent ipc: rejected client with a bad token");
+                    close(key);
+                    return;
+                }
+                c.authed = true;
+                clientCount++;
+                RESYNC.set(true); // 새 클라이언트는 창 전체부터 받아야 함
+                in.position(end);
+                continue;
+            }
+            try {
+                AgentAction action = parse(in.slice(in.position(), len));
+                if (action != null) AgentControl.submit(action);
+            } catch (RuntimeException ignored) {
+                // 본문이 짧거나 깨진 요청 → 건너뜀
+            }
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private static AgentAction parse(ByteBuffer b) {
+        AgentAction.Type type = AgentAction.Type.byWireId(b.get() & 0xFF);
+        UUID owner = new UUID(b.getLong(), b.getLong());
+        if (type == null) return null;
+        return switch (type) {
+            case MOVE_TO -> AgentAction.moveTo(owner, b.getDouble(), b.getDouble(), b.getDouble());
+            case FOLLOW -> AgentAction.follow(owner, b.get() != 0);
+            case CALL -> AgentAction.call(owner);
+            case DESPAWN -> AgentAction.despawn(owner);
+            case JOB_CANCEL -> AgentAction.cancelJobs(owner);
+            case JOB_CLEAR -> AgentAction.clearJob(owner, box(b));
+            case JOB_REPLACE -> AgentAction.replaceJob(owner, box(b), identifier(b), identifier(b));
+            case JOB_PATTERN -> AgentAction.patternJob(owner, box(b), identifier(b), identifier(b));
+        };
+    }
+
+    private static BlockBox box(ByteBuffer b) {
+        int x1 = b.getInt(), y1 = b.getInt(), z1 = b.getInt();
+        int x2 = b.getInt(), y2 = b.getInt(), z2 = b.getInt();
+        return new BlockBox(Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2),
+                Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2));
+    }
+
+    private static Identifier identifier(ByteBuffer b) {
+        byte[] raw = new byte[b.getShort() & 0xFFFF];
+        b.get(raw);
+        return Identifier.tryParse(new String(raw, StandardCharsets.UTF_8));
+    }
+
+    private static void broadcast(ByteBuffer frame) {
+        for (SelectionKey key : selector.keys()) {
+            if (!key.isValid() || !(key.attachment() instanceof Client c) || !c.authed) continue;
+            if (c.out.hasRemaining()) { // 이전 프레임도 아직 못 받음 → 이 클라이언트는 이번 프레임 생략
+                c.dropped++;
+                continue;
+            }
+            append(c, frame);
+            flush(key, c);
+        }
+        framesSent++;
+    }
+
+    /** 순서가 중요한 프레임 — 밀려 있어도 뒤에 붙이고, 상한을 넘으면 건너뛰고 재동기화 요청 */
+    private static void broadcastOrdered(ByteBuffer frame) {
+        for (SelectionKey key : selector.keys()) {
+            if (!key.isValid() || !(key.attachment() instanceof Client c) || !c.authed) continue;
+            if (c.out.remaining() + frame.remaining() > MAX_BACKLOG) {
+                c.dropped++;
+                RESYNC.set(true);
+                continue;
+            }
+            append(c, frame);
+            flush(key, c);
+        }
+    }
+
+    /** 아직 못 보낸 바이트 뒤에 프레임을 이어 붙임 (모자라면 버퍼를 키움) */
+    private static void append(Client c, ByteBuffer frame) {
+        int need = c.out.remaining() + frame.remaining();
+        if (c.out.capacity() < need) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(need, c.out.capacity() * 2));
+            grown.put(c.out).put(frame.duplicate()).flip();
+            c.out = grown;
+        } else {
+            c.out.compact().put(frame.duplicate()).flip();
+        }
+    }
+
+    private static void flush(SelectionKey key, Client c) {
+        try {
+            c.channel.write(c.out);
+            key.interestOps(c.out.hasRemaining() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        } catch (IOException e) {
+            close(key);
+        }
+    }
+
+    private static void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+        if (key.attachment() instanceof Client c && c.authed) clientCount--;
+    }
+}
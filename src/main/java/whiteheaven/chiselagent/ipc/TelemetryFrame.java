@@ -0,0 +1,155 @@
+// src/main/java/whiteheaven/chiselagent/ipc/TelemetryFrame.java
+package whiteheaven.chiselagent.ipc;
+
+import net.minecraft.util.Identifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 텔레메트리 스냅샷 1장 (에이전트 + 주인 상태를 기본형 배열에 복사해 둔 것)
+ * <p>
+ * 서버 스레드가 {@link #clear()} 후 {@link #add} 로 채우고, IPC 스레드가 {@link #encode} 로 직렬화.
+ * 두 장을 번갈아 쓰며 한쪽이 쓰는 동안 다른 쪽은 건드리지 않음 (넘겨주기는 {@link AgentIpc}).
+ * 배열은 늘어나기만 하고 재사용 → 정상 상태에서 틱당 할당 없음
+ * </p>
+ * <pre>
+ * 프레임 (빅 엔디언)
+ *  int    length        (이 필드 뒤 바이트 수)
+ *  int    magic         "CAT1"
+ *  short  version       1
+ *  long   serverTick    long epochMillis
+ *  short  dimCount      [short len + UTF-8] × dimCount
+ *  int    entryCount    [항목 80바이트] × entryCount
+ *
+ * 항목
+ *  0  byte kind (0=에이전트, 1=주인)   1 byte mode (AgentEntity.MoveMode)
+ *  2  byte flags (bit0=따라오기)       3 byte 예약
+ *  4  short dimension (차원 표 인덱스) 6 short 예약
+ *  8  long idMost     16 long idLeast
+ * 24  long ownerMost  32 long ownerLeast  (주인 항목은 자기 UUID)
+ * 40  double x        48 double y         56 double z
+ * 64  float vx        68 float vy         72 float vz   (블록/틱)
+ * 76  float yaw
+ * </pre>
+ */
+final class TelemetryFrame {
+
+    static final int MAGIC = 0x43415431; // "CAT1"
+    static final short VERSION = 1;
+    static final int ENTRY_BYTES = 80;
+
+    static final byte KIND_AGENT = 0;
+    static final byte KIND_OWNER = 1;
+    static final byte FLAG_FOLLOWING = 0x01;
+
+    long tick;
+    long epochMillis;
+    int count;
+    final List<Identifier> dimensions = new ArrayList<>();
+
+    private byte[] kind = new byte[16], mode = new byte[16], flags = new byte[16];
+    private short[] dim = new short[16];
+    private long[] idMost = new long[16], idLeast = new long[16], ownerMost = new long[16], ownerLeast = new long[16];
+    private double[] x = new double[16], y = new double[16], z = new double[16];
+    private float[] vx = new float[16], vy = new float[16], vz = new float[16], yaw = new float[16];
+
+    void clear() {
+        count = 0;
+        dimensions.clear();
+    }
+
+    /** 차원 표 인덱스 (처음 보는 차원이면 추가) */
+    short dimensionIndex(Identifier id) {
+        int i = dimensions.indexOf(id);
+        if (i < 0) {
+            dimensions.add(id);
+            i = dimensions.size() - 1;
+        }
+        return (short) i;
+    }
+
+    void add(byte kind, byte mode, byte flags, short dim, UUID id, UUID owner,
+             double x, double y, double z, double vx, double vy, double vz, float yaw) {
+        ensure(count + 1);
+        int i = count++;
+        this.kind[i] = kind;
+        this.mode[i] = mode;
+        this.flags[i] = flags;
+        this.dim[i] = dim;
+        this.idMost[i] = id.getMostSignificantBits();
+        this.idLeast[i] = id.getLeastSignificantBits();
+        this.ownerMost[i] = owner == null ? 0L : owner.getMostSignificantBits();
+        this.ownerLeast[i] = owner == null ? 0L : owner.getLeastSignificantBits();
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+        this.vx[i] = (float) vx;
+        this.vy[i] = (float) vy;
+        this.vz[i] = (float) vz;
+        this.yaw[i] = yaw;
+    }
+
+    /**
+     * 직렬화 (IPC 스레드)
+     * @param out 재사용 버퍼 — 모자라면 새로 만들어 돌려줌
+     * @return 읽기 모드(flip)로 바꾼 버퍼
+     */
+    ByteBuffer encode(ByteBuffer out) {
+        List<byte[]> names = new ArrayList<>(dimensions.size());
+        int size = 4 + 4 + 2 + 8 + 8 + 2 + 4 + count * ENTRY_BYTES;
+        for (Identifier id : dimensions) {
+            byte[] b = id.toString().getBytes(StandardCharsets.UTF_8);
+            names.add(b);
+            size += 2 + b.length;
+        }
+        if (out == null || out.capacity() < size) out = ByteBuffer.allocateDirect(Math.max(size, 4096) * 2);
+        out.clear();
+
+        out.putInt(size - 4);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putLong(tick);
+        out.putLong(epochMillis);
+        out.putShort((short) names.size());
+        for (byte[] b : names) {
+            out.putShort((short) b.length);
+            out.put(b);
+        }
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            out.put(kind[i]).put(mode[i]).put(flags[i]).put((byte) 0);
+            out.putShort(dim[i]).putShort((short) 0);
+            out.putLong(idMost[i]).putLong(idLeast[i]);
+            out.putLong(ownerMost[i]).putLong(ownerLeast[i]);
+            out.putDouble(x[i]).putDouble(y[i]).putDouble(z[i]);
+            out.putFloat(vx[i]).putFloat(vy[i]).putFloat(vz[i]);
+            out.putFloat(yaw[i]);
+        }
+        return out.flip();
+    }
+
+    private void ensure(int n) {
+        if (n <= kind.length) return;
+        int cap = Math.max(n, kind.length * 2);
+        kind = Arrays.copyOf(kind, cap);
+        mode = Arrays.copyOf(mode, cap);
+        flags = Arrays.copyOf(flags, cap);
+        dim = Arrays.copyOf(dim, cap);
+        idMost = Arrays.copyOf(idMost, cap);
+        idLeast = Arrays.copyOf(idLeast, cap);
+        ownerMost = Arrays.copyOf(ownerMost, cap);
+        ownerLeast = Arrays.copyOf(ownerLeast, cap);
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        z = Arrays.copyOf(z, cap);
+        vx = Arrays.copyOf(vx, cap);
+        vy = Arrays.copyOf(vy, cap);
+        vz = Arrays.copyOf(vz, cap);
+        yaw = Arrays.copyOf(yaw, cap);
+    }
+}
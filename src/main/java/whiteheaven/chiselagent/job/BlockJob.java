@@ -0,0 +1,163 @@
+// src/main/java/whiteheaven/chiselagent/job/BlockJob.java
+package whiteheaven.chiselagent.job;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+
+import java.util.UUID;
+
+/**
+ * 에이전트 블록 작업 1건 (영역 + 블록별 변환 규칙)
+ * <p>
+ * - 영역을 청크 섹션(16³) 단위 배치로 쪼개서 {@link BlockJobEngine}이 틱 예산 안에서 처리
+ * - 섹션 순서는 청크 열(x, z) → y 순 (같은 청크를 연속으로 처리해서 청크 조회를 줄임)
+ * - 섹션 중간에서 예산이 끝나면 {@link #cell} 커서에서 다음 틱에 이어서 처리
+ * </p>
+ * 서버 스레드 전용
+ */
+public final class BlockJob {
+
+    public enum Kind {
+        CLEAR("clear"),
+        REPLACE("replace"),
+        PATTERN("pattern");
+
+        public final String label;
+        Kind(String label) { this.label = label; }
+    }
+
+    /** 블록별 변환 규칙 — 바꿀 상태를 돌려주고, 그대로 둘 거면 null */
+    @FunctionalInterface
+    interface Op {
+        BlockState apply(int x, int y, int z, BlockState current);
+    }
+
+    public final int id;
+    public final UUID owner;
+    public final UUID agent;
+    public final RegistryKey<World> world;
+    public final BlockBox box;
+    public final Kind kind;
+    /** 작업 인자 (replace: 대상 블록 기본 상태 / 바꿀 상태, pattern: 두 상태, clear: 둘 다 null) — 인계용 */
+    public final BlockState first, second;
+    final Op op;
+
+    /** 처리할 섹션 목록 ({@link ChunkSectionPos#asLong}) */
+    final long[] sections;
+    /** 다음에 처리할 섹션 위치 */
+    int nextSection = 0;
+    /** 현재 섹션 안에서 다음에 볼 칸 (섹션과 영역의 교집합 기준 선형 인덱스) */
+    int cell = 0;
+
+    long visited = 0;      // 훑은 칸 수
+    long changed = 0;      // 실제로 바꾼 칸 수
+    int ticksActive = 0;   // 처리에 참여한 틱 수
+    final long submittedAt = System.nanoTime();
+
+    private BlockJob(int id, UUID owner, UUID agent, RegistryKey<World> world, BlockBox box, Kind kind,
+                     BlockState first, BlockState second, Op op) {
+        this.id = id;
+        this.owner = owner;
+        this.agent = agent;
+        this.world = world;
+        this.box = box;
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+        this.op = op;
+        this.sections = sectionsOf(box);
+    }
+
+    /* ===================== 작업 종류 ===================== */
+
+    /** 영역 비우기 (공기가 아닌 블록 → 공기) */
+    static BlockJob clear(int id, UUID owner, UUID agent, RegistryKey<World> world, BlockBox box) {
+        BlockState air = Blocks.AIR.getDefaultState();
+        return new BlockJob(id, owner, agent, world, box, Kind.CLEAR, null, null,
+                (x, y, z, s) -> s.isAir() ? null : air);
+    }
+
+    /** 특정 블록만 다른 상태로 바꾸기 (깎기/치환) */
+    static BlockJob replace(int id, UUID owner, UUID agent, RegistryKey<World> world, BlockBox box,
+                            Block from, BlockState to) {
+        return new BlockJob(id, owner, agent, world, box, Kind.REPLACE, from.getDefaultState(), to,
+                (x, y, z, s) -> s.isOf(from) && s != to ? to : null);
+    }
+
+    /** 두 상태를 체커보드(3차원 격자)로 채우기 */
+    static BlockJob pattern(int id, UUID owner, UUID agent, RegistryKey<World> world, BlockBox box,
+                            BlockState a, BlockState b) {
+        return new BlockJob(id, owner, agent, world, box, Kind.PATTERN, a, b, (x, y, z, s) -> {
+            BlockState want = ((x + y + z) & 1) == 0 ? a : b;
+            return s == want ? null : want;
+        });
+    }
+
+    /* ===================== 진행 상태 ===================== */
+
+    public long volume() {
+        return volumeOf(box);
+    }
+
+    /**
+     * 영역 칸 수 — 축 길이를 long으로 계산하고 곱이 넘치면 Long.MAX_VALUE
+     * (BlockBox.getBlockCountX()는 int라 외부 입력 좌표가 양 끝이면 0으로 넘쳐 부피 검사를 통과함)
+     */
+    public static long volumeOf(BlockBox box) {
+        long x = (long) box.getMaxX() - box.getMinX() + 1;
+        long y = (long) box.getMaxY() - box.getMinY() + 1;
+        long z = (long) box.getMaxZ() - box.getMinZ() + 1;
+        try {
+            return Math.multiplyExact(Math.multiplyExact(x, y), z);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    public long visited() {
+        return visited;
+    }
+
+    public long changed() {
+        return changed;
+    }
+
+    public int ticksActive() {
+        return ticksActive;
+    }
+
+    /** 다음에 처리할 섹션 순번 (인계 후 이어서 처리할 위치) */
+    public int nextSection() {
+        return nextSection;
+    }
+
+    public boolean isDone() {
+        return nextSection >= sections.length;
+    }
+
+    /** 진행률 (0~1) */
+    public double progress() {
+        long v = volume();
+        return v == 0 ? 1.0 : Math.min(1.0, visited / (double) v);
+    }
+
+    /* ===================== 내부 유틸 ===================== */
+
+    private static long[] sectionsOf(BlockBox box) {
+        int minX = box.getMinX() >> 4, maxX = box.getMaxX() >> 4;
+        int minY = box.getMinY() >> 4, maxY = box.getMaxY() >> 4;
+        int minZ = box.getMinZ() >> 4, maxZ = box.getMaxZ() >> 4;
+        long[] out = new long[(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1)];
+        int i = 0;
+        for (int cx = minX; cx <= maxX; cx++)
+            for (int cz = minZ; cz <= maxZ; cz++)
+                for (int cy = minY; cy <= maxY; cy++)
+                    out[i++] = ChunkSectionPos.asLong(cx, cy, cz);
+        return out;
+    }
+}
@@ -0,0 +1,342 @@
+// src/main/java/whiteheaven/chiselagent/job/BlockJobEngine.java
+package whiteheaven.chiselagent.job;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.NetherPortalBlock;
+import net.minecraft.block.PistonBlock;
+import net.minecraft.block.PistonHeadBlock;
+import net.minecraft.block.PistonExtensionBlock;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.state.property.Properties;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.poi.PointOfInterestTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.event.BlockChangeCallback;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 블록 작업 엔진 (서버 틱 끝에서 예산만큼 처리)
+ * <p>
+ * 섹션 배치 1회:
+ * - 섹션 팔레트에 직접 기록 (WorldChunk#setBlockState의 블록별 이웃 갱신/이벤트/POI 처리 생략)
+ * - 높이맵은 칸마다 trackUpdate, 조명은 밝기/불투명도가 바뀌는 칸만 checkBlock,
+ *   섹션이 비었다/채워졌다가 바뀌면 조명 섹션 상태 갱신
+ * - 클라이언트 동기화는 markForUpdate → 청크 홀더가 섹션별로 모아 한 번에 전송 (ChunkDeltaUpdate)
+ * - 칸마다 onStateReplaced/onBlockAdded는 그대로 호출 (moved=false — 낙하 블록/레드스톤 예약 틱 등)
+ * - 이웃 갱신은 작업 영역 바깥 면(껍질)에 있는 칸만 (안쪽 이웃은 어차피 같이 바뀜), 모양 갱신 포함
+ * - 블록 엔티티/POI, 두 칸짜리 블록(문/침대/큰 풀/피스톤), 유체, 포탈은 일반 setBlockState로 처리
+ *   (정리/등록, 짝 블록 제거, 첫 유체 틱, 틀 검사가 필요하므로)
+ * - 직접 기록한 칸도 {@link BlockChangeCallback}으로 알림 (검색 캐시 무효화 등)
+ * </p>
+ * 예산: 틱당 훑는 칸 수(jobs.maxBlocksPerTick) + 시간(jobs.tickBudgetMicros) 중 먼저 닿는 쪽.
+ * 시간은 섹션 사이뿐 아니라 섹션 안에서도 {@link #DEADLINE_CHECK_CELLS}칸마다 확인.
+ * 여러 작업은 섹션 단위로 번갈아 처리. 청크가 안 올라와 있으면 티켓만 걸고 다음 틱에 다시 시도.
+ * 서버 스레드 전용
+ */
+public final class BlockJobEngine {
+    private BlockJobEngine() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+
+    /** 작업 중인 청크 로드 유지용 티켓 (마지막 요청 후 5초 뒤 만료) */
+    private static final ChunkTicketType<ChunkPos> TICKET =
+            ChunkTicketType.create("chisel_agent_job", Comparator.comparingLong(ChunkPos::toLong), 100);
+
+    private static final Heightmap.Type[] HEIGHTMAPS = {
+            Heightmap.Type.MOTION_BLOCKING,
+            Heightmap.Type.MOTION_BLOCKING_NO_LEAVES,
+            Heightmap.Type.OCEAN_FLOOR,
+            Heightmap.Type.WORLD_SURFACE
+    };
+
+    /** 섹션 안에서 시간 예산을 확인하는 간격 (칸 수, 2의 거듭제곱) */
+    private static final int DEADLINE_CHECK_CELLS = 256;
+
+    private static final ArrayDeque<BlockJob> JOBS = new ArrayDeque<>();
+    private static int nextId = 1;
+
+    // 배치마다 재사용 (껍질 칸 위치, 이웃 갱신 대기)
+    private static final LongArrayList SHELL = new LongArrayList();
+    private static final BlockPos.Mutable POS = new BlockPos.Mutable();
+
+    /** 초기화 시 1회 등록 */
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(BlockJobEngine::tick);
+    }
+
+    /* ===================== 작업 관리 ===================== */
+
+    public static BlockJob submitClear(ServerWorld world, UUID owner, UUID agent, BlockBox box) {
+        return enqueue(BlockJob.clear(nextId++, owner, agent, world.getRegistryKey(), clip(world, box)));
+    }
+
+    public static BlockJob submitReplace(ServerWorld world, UUID owner, UUID agent, BlockBox box,
+                                         Block from, BlockState to) {
+        return enqueue(BlockJob.replace(nextId++, owner, agent, world.getRegistryKey(), clip(world, box), from, to));
+    }
+
+    public static BlockJob submitPattern(ServerWorld world, UUID owner, UUID agent, BlockBox box,
+                                         BlockState a, BlockState b) {
+        return enqueue(BlockJob.pattern(nextId++, owner, agent, world.getRegistryKey(), clip(world, box), a, b));
+    }
+
+    /**
+     * 다른 서버에서 넘겨받은 작업 다시 등록 (섹션 순번부터 이어서 — 섹션 중간 진행은 버리고 그 섹션 처음부터)
+     * 종류별 인자는 {@link BlockJob#first}/{@link BlockJob#second}와 같은 의미
+     */
+    public static BlockJob resume(ServerWorld world, UUID owner, UUID agent, BlockJob.Kind kind, BlockBox box,
+                                  BlockState first, BlockState second, int nextSection) {
+        BlockJob job = switch (kind) {
+            case CLEAR -> submitClear(world, owner, agent, box);
+            case REPLACE -> submitReplace(world, owner, agent, box, first.getBlock(), second);
+            case PATTERN -> submitPattern(world, owner, agent, box, first, second);
+        };
+        job.nextSection = Math.max(0, Math.min(nextSection, job.sections.length));
+        return job;
+    }
+
+    /** 주인의 대기/진행 중 작업 (제출 순) */
+    public static List<BlockJob> jobsOf(UUID owner) {
+        List<BlockJob> out = new ArrayList<>();
+        for (BlockJob job : JOBS) if (job.owner.equals(owner)) out.add(job);
+        out.sort(Comparator.comparingInt(j -> j.id));
+        return out;
+    }
+
+    /** 주인의 작업 전부 취소 — 취소한 개수 반환 */
+    public static int cancel(UUID owner) {
+        int n = 0;
+        for (Iterator<BlockJob> it = JOBS.iterator(); it.hasNext(); ) {
+            if (it.next().owner.equals(owner)) {
+                it.remove();
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /** 서버 종료 시 정리 */
+    public static void clear() {
+        JOBS.clear();
+        nextId = 1;
+    }
+
+    private static BlockJob enqueue(BlockJob job) {
+        JOBS.addLast(job);
+        return job;
+    }
+
+    /** 월드 높이 범위로 자르기 */
+    private static BlockBox clip(ServerWorld world, BlockBox box) {
+        int minY = Math.max(box.getMinY(), world.getBottomY());
+        int maxY = Math.min(box.getMaxY(), world.getTopY() - 1);
+        return new BlockBox(box.getMinX(), minY, box.getMinZ(), box.getMaxX(), Math.max(minY, maxY), box.getMaxZ());
+    }
+
+    /* ===================== 틱 처리 ===================== */
+
+    private static void tick(MinecraftServer server) {
+        if (JOBS.isEmpty()) return;
+
+        long deadline = System.nanoTime() + AgentConfig.jobTickBudgetMicros() * 1_000L;
+        int budget = AgentConfig.jobMaxBlocksPerTick();
+        int waiting = 0; // 청크 로드 대기로 건너뛴 연속 작업 수 (한 바퀴 돌면 이번 틱 종료)
+        List<BlockJob> touched = new ArrayList<>();
+
+        while (!JOBS.isEmpty() && budget > 0 && waiting < JOBS.size() && System.nanoTime() < deadline) {
+            BlockJob job = JOBS.pollFirst();
+            ServerWorld world = server.getWorld(job.world);
+            if (world == null) {
+                notifyOwner(server, job, "작업 #" + job.id + " 취소: 차원이 없어졌어요");
+                continue;
+            }
+
+            int used = runBatch(world, job, budget, deadline);
+            if (used < 0) {
+                waiting++;
+                JOBS.addLast(job);
+                continue;
+            }
+            waiting = 0;
+            budget -= used;
+            if (!touched.contains(job)) touched.add(job);
+
+            if (job.isDone()) {
+                finish(server, job);
+            } else {
+                JOBS.addLast(job); // 섹션 단위로 번갈아 처리
+            }
+        }
+        for (BlockJob job : touched) job.ticksActive++;
+    }
+
+    /**
+     * 현재 섹션을 최대 limit칸까지 처리 (deadline을 넘기면 그 칸에서 멈추고 다음 틱에 이어서)
+     * @return 훑은 칸 수, 청크가 아직 로드되지 않았으면 -1
+     */
+    private static int runBatch(ServerWorld world, BlockJob job, int limit, long deadline) {
+        long sectionPos = job.sections[job.nextSection];
+        int sx = ChunkSectionPos.unpackX(sectionPos);
+        int sy = ChunkSectionPos.unpackY(sectionPos);
+        int sz = ChunkSectionPos.unpackZ(sectionPos);
+
+        ServerChunkManager chunks = world.getChunkManager();
+        ChunkPos chunkPos = new ChunkPos(sx, sz);
+        WorldChunk chunk = chunks.getWorldChunk(sx, sz);
+        chunks.addTicket(TICKET, chunkPos, 0, chunkPos);
+        if (chunk == null) return -1;
+
+        ChunkSection section = chunk.getSection(world.sectionCoordToIndex(sy));
+        LightingProvider lighting = chunks.getLightingProvider();
+        boolean wasEmpty = section.isEmpty();
+
+        // 섹션과 작업 영역의 교집합
+        BlockBox box = job.box;
+        int x0 = Math.max(box.getMinX(), sx << 4), x1 = Math.min(box.getMaxX(), (sx << 4) + 15);
+        int y0 = Math.max(box.getMinY(), sy << 4), y1 = Math.min(box.getMaxY(), (sy << 4) + 15);
+        int z0 = Math.max(box.getMinZ(), sz << 4), z1 = Math.min(box.getMaxZ(), (sz << 4) + 15);
+        int dx = x1 - x0 + 1, dz = z1 - z0 + 1;
+        int cells = dx * (y1 - y0 + 1) * dz;
+
+        int end = Math.min(cells, job.cell + limit);
+        int changed = 0;
+        SHELL.clear();
+
+        for (int i = job.cell; i < end; i++) {
+            // 섹션 하나(최대 4096칸)가 예산을 넘기지 않도록 중간에도 확인 (최소 1칸은 진행)
+            if (i != job.cell && (i & (DEADLINE_CHECK_CELLS - 1)) == 0 && System.nanoTime() >= deadline) {
+                end = i;
+                break;
+            }
+            int x = x0 + i % dx;
+            int z = z0 + (i / dx) % dz;
+            int y = y0 + i / (dx * dz);
+            int lx = x & 15, ly = y & 15, lz = z & 15;
+
+            BlockState old = section.getBlockState(lx, ly, lz);
+            BlockState next = job.op.apply(x, y, z, old);
+            if (next == null || next == old) continue;
+            POS.set(x, y, z);
+            changed++;
+
+            // 블록 엔티티/POI/짝 블록/유체/포탈: 일반 경로
+            if (needsFullUpdate(old, next)) {
+                world.setBlockState(POS, next, Block.NOTIFY_ALL);
+                continue;
+            }
+
+            section.setBlockState(lx, ly, lz, next);
+            for (Heightmap.Type type : HEIGHTMAPS) {
+                chunk.getHeightmap(type).trackUpdate(lx, y, lz, next);
+            }
+            boolean empty = section.isEmpty();
+            if (empty != wasEmpty) {
+                lighting.setSectionStatus(ChunkSectionPos.from(sx, sy, sz), empty);
+                wasEmpty = empty;
+            }
+            if (lightChanged(world, POS, old, next)) lighting.checkBlock(POS);
+            // WorldChunk#setBlockState와 같은 순서로 블록 훅 호출 (예약 틱/자체 정리, 이웃 알림은 블록 구현에 맡김)
+            old.onStateReplaced(world, POS, next, false);
+            next.onBlockAdded(world, POS, old, false);
+            chunks.markForUpdate(POS);
+            BlockChangeCallback.EVENT.invoker().onBlockChanged(world, POS, old, next);
+
+            if (x == box.getMinX() || x == box.getMaxX()
+                    || y == box.getMinY() || y == box.getMaxY()
+                    || z == box.getMinZ() || z == box.getMaxZ()) {
+                SHELL.add(BlockPos.asLong(x, y, z));
+            }
+        }
+
+        // 바깥 이웃에게만 변경 알림 (물이 흘러들거나 모래가 떨어지는 등) + 모양 갱신 (붙어 있던 블록/포탈 틀 검사)
+        for (int i = 0; i < SHELL.size(); i++) {
+            POS.set(SHELL.getLong(i));
+            BlockState state = world.getBlockState(POS);
+            world.updateNeighborsAlways(POS, state.getBlock());
+            state.updateNeighbors(world, POS, Block.NOTIFY_LISTENERS);
+        }
+        if (changed > 0) chunk.setNeedsSaving(true);
+
+        int used = end - job.cell;
+        job.visited += used;
+        job.changed += changed;
+        if (end >= cells) {
+            job.nextSection++;
+            job.cell = 0;
+        } else {
+            job.cell = end;
+        }
+        return used;
+    }
+
+    /** 섹션 직접 기록으로는 처리할 수 없는 블록인지 */
+    private static boolean needsFullUpdate(BlockState old, BlockState next) {
+        return old.hasBlockEntity() || next.hasBlockEntity()
+                || PointOfInterestTypes.getTypeForState(old).isPresent()
+                || PointOfInterestTypes.getTypeForState(next).isPresent()
+                || neighborDependent(old) || neighborDependent(next);
+    }
+
+    /**
+     * 이웃 모양 갱신/첫 틱이 있어야 맞게 동작하는 블록
+     * - 두 칸짜리(문/큰 풀/침대/피스톤): 한쪽만 바꾸면 짝이 남음
+     * - 유체(물/용암/물 잠긴 블록): 첫 유체 틱이 예약돼야 흐름
+     * - 네더 포탈: 틀이 깨졌는지 이웃 갱신으로 검사
+     */
+    private static boolean neighborDependent(BlockState state) {
+        if (state.isAir()) return false;
+        Block block = state.getBlock();
+        return !state.getFluidState().isEmpty()
+                || state.contains(Properties.DOUBLE_BLOCK_HALF)
+                || state.contains(Properties.BED_PART)
+                || block instanceof PistonBlock || block instanceof PistonHeadBlock
+                || block instanceof PistonExtensionBlock || block instanceof NetherPortalBlock;
+    }
+
+    /** 조명 재계산이 필요한 변경인지 (밝기/빛 차단이 같으면 생략) */
+    private static boolean lightChanged(ServerWorld world, BlockPos pos, BlockState old, BlockState next) {
+        return old.getLuminance() != next.getLuminance()
+                || old.getOpacity(world, pos) != next.getOpacity(world, pos)
+                || old.hasSidedTransparency() || next.hasSidedTransparency();
+    }
+
+    /* ===================== 알림 ===================== */
+
+    private static void finish(MinecraftServer server, BlockJob job) {
+        double seconds = (System.nanoTime() - job.submittedAt) / 1.0e9;
+        LOG.debug("job #{} {} done: {} changed / {} visited in {} ticks", job.id, job.kind.label,
+                job.changed, job.visited, job.ticksActive);
+        notifyOwner(server, job, String.format(Locale.ROOT,
+                "작업 #%d(%s) 완료: %d블록 변경 (%d칸 확인, %d틱, %.1f초)",
+                job.id, job.kind.label, job.changed, job.visited, job.ticksActive, seconds));
+    }
+
+    private static void notifyOwner(MinecraftServer server, BlockJob job, String msg) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(job.owner);
+        if (player != null) player.sendMessage(Text.literal(msg), false);
+    }
+}
@@ -0,0 +1,19 @@
+package whiteheaven.chiselagent.mixin;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import whiteheaven.chiselagent.event.BlockChangeCallback;
+
+/** 블록 변경을 {@link BlockChangeCallback}으로 전달 (World#setBlockState가 상태가 바뀔 때 호출) */
+@Mixin(ServerWorld.class)
+public class ServerWorldMixin {
+	@Inject(at = @At("HEAD"), method = "onBlockChanged")
+	private void chiselAgent$onBlockChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo info) {
+		BlockChangeCallback.EVENT.invoker().onBlockChanged((ServerWorld) (Object) this, pos, oldBlock, newBlock);
+	}
+}
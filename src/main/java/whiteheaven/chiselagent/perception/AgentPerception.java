@@ -0,0 +1,343 @@
+// src/main/java/whiteheaven/chiselagent/perception/AgentPerception.java
+package whiteheaven.chiselagent.perception;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.WorldChunk;
+import whiteheaven.chiselagent.config.AgentConfig;
+import whiteheaven.chiselagent.entity.AgentEntity;
+import whiteheaven.chiselagent.entity.AgentSpatialHash;
+import whiteheaven.chiselagent.event.BlockChangeCallback;
+import whiteheaven.chiselagent.ipc.AgentIpc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 에이전트 주변 복셀 인지 (외부 플래너용, {@link AgentIpc} 소켓으로 전송)
+ * <p>
+ * - 에이전트마다 한 변 "ipc.voxelWindow" 칸의 창({@link VoxelWindow})을 서버 쪽에 유지
+ * - 처음/재동기화 때만 창 전체(팔레트 + 비트 압축 인덱스)를 보내고, 이후에는
+ *   블록 변경({@link BlockChangeCallback})으로 바뀐 칸과 창 이동으로 새로 드러난 칸만 보냄
+ *   → 대역폭/CPU가 창 부피가 아니라 변경량에 비례
+ * - 창 원점은 {@link #SHIFT_STEP}칸 격자에 맞춤 (에이전트가 격자를 넘을 때만 이동)
+ * - 블록 변경 → 창 조회는 섹션 색인으로 O(1) (창이 걸친 섹션만 등록)
+ * - 소켓 클라이언트가 없으면 창을 전부 버리고 아무것도 추적하지 않음
+ * </p>
+ * <pre>
+ * 프레임 (빅 엔디언, 텔레메트리 프레임과 같은 스트림에 섞여 옴 — magic으로 구분)
+ *  int    length        (이 필드 뒤 바이트 수)
+ *  int    magic         "CAV1"
+ *  short  version       1
+ *  long   serverTick
+ *  int    sequence      (1씩 증가 — 건너뛰면 중간 프레임이 버려진 것, 다음 키프레임까지 해당 창을 믿지 말 것)
+ *  int    recordCount   [레코드] × recordCount
+ *
+ * 레코드 공통: byte type, long agentMost, long agentLeast
+ *  1 KEYFRAME  short len + UTF-8 차원 id, int ox, oy, oz, short size,
+ *              short paletteCount, int rawState × paletteCount, 창 전체 칸 (packed)
+ *  2 DELTA     팔레트 추가, int count, [int cell, short palette] × count
+ *  3 SHIFT     int ox, oy, oz (새 원점), 팔레트 추가, 새로 드러난 칸 (packed, 새 창 칸 순서 중 옛 창 밖인 것만)
+ *  4 REMOVE    (창 폐기 — 에이전트 언로드/제거)
+ *
+ * 팔레트 추가: short from, short count, int rawState × count   (수신 측 팔레트 끝에 이어 붙임)
+ * packed:      byte bits, int longCount, long × longCount
+ *              (long 하나에 64/bits 개, 하위 비트부터, long 경계를 넘지 않음)
+ * 칸 순서:     (y * size + z) * size + x,  원점 기준 로컬 좌표
+ * rawState:    Block.getRawIdFromState (같은 게임 버전/모드 구성 기준), void_air = 로드 안 된 칸
+ * </pre>
+ * 서버 스레드 전용
+ */
+public final class AgentPerception {
+    private AgentPerception() {}
+
+    static final int MAGIC = 0x43415631; // "CAV1"
+    static final short VERSION = 1;
+
+    private static final byte KEYFRAME = 1;
+    private static final byte DELTA = 2;
+    private static final byte SHIFT = 3;
+    private static final byte REMOVE = 4;
+
+    /** 창 원점 격자 (칸) */
+    private static final int SHIFT_STEP = 4;
+    /** 팔레트가 이보다 커지면 다음 내보내기를 키프레임으로 (안 쓰는 항목 정리) */
+    private static final int MAX_PALETTE = 1024;
+    /** 바뀐 칸이 창 부피의 1/8을 넘으면 델타 대신 키프레임 */
+    private static final int DELTA_LIMIT_SHIFT = 3;
+
+    private static final Map<UUID, VoxelWindow> WINDOWS = new HashMap<>();
+    private static final Map<ServerWorld, Long2ObjectOpenHashMap<ArrayList<VoxelWindow>>> BY_SECTION = new IdentityHashMap<>();
+
+    private static final IntArrayList SCRATCH = new IntArrayList();
+    private static ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+    private static int epoch = 0;
+    private static int sequence = 0;
+    private static int refreshStamp = 0;
+
+    /** 초기화 시 1회 등록 ({@link AgentIpc#register()} 다음에) */
+    public static void register() {
+        BlockChangeCallback.EVENT.register(AgentPerception::onBlockChanged);
+        ServerChunkEvents.CHUNK_LOAD.register(AgentPerception::onChunkLoad);
+        ServerTickEvents.END_SERVER_TICK.register(AgentPerception::tick);
+    }
+
+    /** 창 전부 버림 (클라이언트 없음 / 서버 종료) */
+    public static void clear() {
+        WINDOWS.clear();
+        BY_SECTION.clear();
+    }
+
+    /* ===================== 이벤트 ===================== */
+
+    private static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (WINDOWS.isEmpty()) return;
+        Long2ObjectOpenHashMap<ArrayList<VoxelWindow>> index = BY_SECTION.get(world);
+        if (index == null) return;
+        ArrayList<VoxelWindow> list = index.get(ChunkSectionPos.toLong(pos));
+        if (list == null) return;
+        for (int i = 0, n = list.size(); i < n; i++) list.get(i).set(pos.getX(), pos.getY(), pos.getZ(), newState);
+    }
+
+    /** 창 안의 알 수 없던 칸이 청크 로드로 채워질 수 있음 → 겹치는 열만 다시 읽음 */
+    private static void onChunkLoad(ServerWorld world, WorldChunk chunk) {
+        if (WINDOWS.isEmpty()) return;
+        Long2ObjectOpenHashMap<ArrayList<VoxelWindow>> index = BY_SECTION.get(world);
+        if (index == null) return;
+        int stamp = ++refreshStamp;
+        int cx = chunk.getPos().x, cz = chunk.getPos().z;
+        for (int sy = world.getBottomSectionCoord(); sy < world.getTopSectionCoord(); sy++) {
+            ArrayList<VoxelWindow> list = index.get(ChunkSectionPos.asLong(cx, sy, cz));
+            if (list == null) continue;
+            for (VoxelWindow w : list) {
+                if (w.refreshStamp == stamp) continue;
+                w.refreshStamp = stamp;
+                w.refreshChunk(chunk);
+            }
+        }
+    }
+
+    /* ===================== 내보내기 ===================== */
+
+    private static void tick(MinecraftServer server) {
+        int size = AgentConfig.voxelWindowSize();
+        if (size == 0 || !AgentIpc.hasClients()) {
+            if (!WINDOWS.isEmpty()) clear();
+            return;
+        }
+        if (AgentIpc.takeResync()) {
+            for (VoxelWindow w : WINDOWS.values()) w.keyframe = true;
+        }
+        if (server.getTicks() % AgentConfig.telemetryIntervalTicks() != 0) return;
+
+        epoch++;
+        buf.clear();
+        buf.position(4 + 4 + 2 + 8 + 4 + 4); // 헤더는 마지막에 채움
+        int records = 0;
+
+        for (ServerWorld world : server.getWorlds()) {
+            for (AgentEntity agent : AgentSpatialHash.of(world).agents()) {
+                if (agent.isRemoved()) continue;
+                VoxelWindow w = WINDOWS.get(agent.getUuid());
+                if (w != null && (w.world != world || w.size != size)) { // 차원 이동/크기 변경 → 새 창
+                    unindex(w);
+                    w = null;
+                }
+                int nx = align(agent.getBlockX() - size / 2);
+                int ny = align(agent.getBlockY() - size / 2);
+                int nz = align(agent.getBlockZ() - size / 2);
+                if (w == null) {
+                    w = new VoxelWindow(agent.getUuid(), world, size, nx, ny, nz);
+                    WINDOWS.put(w.agent, w);
+                    index(w);
+                }
+                w.seen = epoch;
+                records += emit(w, nx, ny, nz);
+            }
+        }
+
+        for (Iterator<VoxelWindow> it = WINDOWS.values().iterator(); it.hasNext(); ) {
+            VoxelWindow w = it.next();
+            if (w.seen == epoch) continue;
+            unindex(w);
+            it.remove();
+            header(REMOVE, w.agent, 0);
+            records++;
+        }
+
+        if (records == 0) return; // 바뀐 것 없음 → 보낼 것도 없음
+        int end = buf.position();
+        buf.putInt(0, end - 4);
+        buf.putInt(4, MAGIC);
+        buf.putShort(8, VERSION);
+        buf.putLong(10, server.getTicks());
+        buf.putInt(18, ++sequence);
+        buf.putInt(22, records);
+        buf.flip();
+        // 이 버퍼는 IPC 스레드로 넘어가므로 복사본을 넘김 (변경이 있는 주기만 할당)
+        ByteBuffer frame = ByteBuffer.allocate(end);
+        frame.put(buf).flip();
+        AgentIpc.publish(frame);
+    }
+
+    /** 창 1개의 이번 주기 레코드 (보낸 레코드 수) */
+    private static int emit(VoxelWindow w, int nx, int ny, int nz) {
+        boolean moved = nx != w.ox || ny != w.oy || nz != w.oz;
+        boolean far = Math.abs(nx - w.ox) >= w.size / 2 || Math.abs(ny - w.oy) >= w.size / 2
+                || Math.abs(nz - w.oz) >= w.size / 2;
+
+        if (w.keyframe || far || w.palette.size() > MAX_PALETTE || w.dirty.size() > w.volume() >> DELTA_LIMIT_SHIFT) {
+            if (moved) {
+                unindex(w);
+                w.moveTo(nx, ny, nz);
+                index(w);
+            }
+            w.fillAll();
+            w.keyframe = false;
+            writeKeyframe(w);
+            return 1;
+        }
+
+        int n = 0;
+        if (!w.dirty.isEmpty()) {
+            writeDelta(w);
+            n++;
+        }
+        if (moved) {
+            unindex(w);
+            w.shiftTo(nx, ny, nz, SCRATCH);
+            index(w);
+            writeShift(w);
+            n++;
+        }
+        return n;
+    }
+
+    private static void writeKeyframe(VoxelWindow w) {
+        byte[] dim = w.world.getRegistryKey().getValue().toString().getBytes(StandardCharsets.UTF_8);
+        SCRATCH.clear();
+        for (int i = 0, n = w.volume(); i < n; i++) SCRATCH.add(w.get(i));
+
+        header(KEYFRAME, w.agent, 2 + dim.length + 12 + 2 + 2 + w.palette.size() * 4 + packedBytes(SCRATCH.size(), w.bits()));
+        buf.putShort((short) dim.length).put(dim);
+        buf.putInt(w.ox).putInt(w.oy).putInt(w.oz);
+        buf.putShort((short) w.size);
+        buf.putShort((short) w.palette.size());
+        for (BlockState s : w.palette) buf.putInt(Block.getRawIdFromState(s));
+        w.paletteSent = w.palette.size();
+        putPacked(SCRATCH, w.bits());
+    }
+
+    private static void writeDelta(VoxelWindow w) {
+        int n = w.dirty.size();
+        header(DELTA, w.agent, paletteBytes(w) + 4 + n * 6);
+        putPaletteAdds(w);
+        buf.putInt(n);
+        for (int i = 0; i < n; i++) {
+            int cell = w.dirty.getInt(i);
+            buf.putInt(cell).putShort((short) w.get(cell));
+        }
+        w.clearDirty();
+    }
+
+    private static void writeShift(VoxelWindow w) {
+        header(SHIFT, w.agent, 12 + paletteBytes(w) + packedBytes(SCRATCH.size(), w.bits()));
+        buf.putInt(w.ox).putInt(w.oy).putInt(w.oz);
+        putPaletteAdds(w);
+        putPacked(SCRATCH, w.bits());
+    }
+
+    /* ===================== 인코딩 유틸 ===================== */
+
+    /** 레코드 공통 머리 + 본문 크기만큼 버퍼 확보 */
+    private static void header(byte type, UUID agent, int body) {
+        ensure(17 + body);
+        buf.put(type).putLong(agent.getMostSignificantBits()).putLong(agent.getLeastSignificantBits());
+    }
+
+    private static int paletteBytes(VoxelWindow w) {
+        return 4 + (w.palette.size() - w.paletteSent) * 4;
+    }
+
+    private static void putPaletteAdds(VoxelWindow w) {
+        int from = w.paletteSent, count = w.palette.size() - from;
+        buf.putShort((short) from).putShort((short) count);
+        for (int i = from; i < w.palette.size(); i++) buf.putInt(Block.getRawIdFromState(w.palette.get(i)));
+        w.paletteSent = w.palette.size();
+    }
+
+    private static int packedBytes(int values, int bits) {
+        int perLong = 64 / bits;
+        return 1 + 4 + (values + perLong - 1) / perLong * 8;
+    }
+
+    private static void putPacked(IntArrayList values, int bits) {
+        int perLong = 64 / bits;
+        buf.put((byte) bits);
+        buf.putInt((values.size() + perLong - 1) / perLong);
+        long acc = 0L;
+        int k = 0;
+        for (int i = 0, n = values.size(); i < n; i++) {
+            acc |= (long) values.getInt(i) << (k * bits);
+            if (++k == perLong) {
+                buf.putLong(acc);
+                acc = 0L;
+                k = 0;
+            }
+        }
+        if (k > 0) buf.putLong(acc);
+    }
+
+    private static void ensure(int extra) {
+        if (buf.remaining() >= extra) return;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + extra));
+        grown.put(buf.flip());
+        buf = grown;
+    }
+
+    /* ===================== 섹션 색인 ===================== */
+
+    private static int align(int v) {
+        return Math.floorDiv(v, SHIFT_STEP) * SHIFT_STEP;
+    }
+
+    private static void index(VoxelWindow w) {
+        Long2ObjectOpenHashMap<ArrayList<VoxelWindow>> index = BY_SECTION.computeIfAbsent(w.world, k -> new Long2ObjectOpenHashMap<>());
+        w.sections.clear();
+        for (int sx = w.ox >> 4; sx <= (w.ox + w.size - 1) >> 4; sx++)
+            for (int sy = w.oy >> 4; sy <= (w.oy + w.size - 1) >> 4; sy++)
+                for (int sz = w.oz >> 4; sz <= (w.oz + w.size - 1) >> 4; sz++) {
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+                    index.computeIfAbsent(key, k -> new ArrayList<>(2)).add(w);
+                    w.sections.add(key);
+                }
+    }
+
+    private static void unindex(VoxelWindow w) {
+        Long2ObjectOpenHashMap<ArrayList<VoxelWindow>> index = BY_SECTION.get(w.world);
+        if (index != null) {
+            for (int i = 0, n = w.sections.size(); i < n; i++) {
+                long key = w.sections.getLong(i);
+                ArrayList<VoxelWindow> list = index.get(key);
+                if (list == null) continue;
+                list.remove(w);
+                if (list.isEmpty()) index.remove(key);
+            }
+        }
+        w.sections.clear();
+    }
+}
@@ -0,0 +1,199 @@
+// src/main/java/whiteheaven/chiselagent/perception/VoxelWindow.java
+package whiteheaven.chiselagent.perception;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.collection.PackedIntegerArray;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * 에이전트 1마리의 주변 복셀 창 (한 변 size칸 정육면체, 서버 쪽 사본)
+ * <p>
+ * - 칸 = 창 팔레트 인덱스, {@link PackedIntegerArray}에 비트 압축 (팔레트가 커지면 비트 수만 늘림)
+ * - 칸 순서는 청크 섹션과 같은 y → z → x (x가 가장 빠름)
+ * - 로드되지 않은 청크/높이 밖은 void_air (알 수 없음) — 청크가 로드되면 그 열만 다시 읽음
+ * - 마지막 내보내기 이후 바뀐 칸은 {@link #dirty}에 중복 없이 모음
+ * - 팔레트는 내보낸 뒤로 늘어난 부분({@link #paletteSent} 이후)만 다음 레코드에 실음
+ * </p>
+ * 서버 스레드 전용
+ */
+final class VoxelWindow {
+
+    private static final BlockState UNKNOWN = Blocks.VOID_AIR.getDefaultState();
+    private static final int MIN_BITS = 4;
+
+    final UUID agent;
+    final ServerWorld world;
+    final int size;
+    int ox, oy, oz; // 최소 모서리 (월드 좌표)
+
+    final ArrayList<BlockState> palette = new ArrayList<>();
+    private final Reference2IntOpenHashMap<BlockState> paletteIndex = new Reference2IntOpenHashMap<>();
+    /** 수신 측이 이미 아는 팔레트 항목 수 */
+    int paletteSent = 0;
+    private PackedIntegerArray cells;
+
+    private final BitSet dirtyBits;
+    /** 마지막 내보내기 이후 바뀐 칸 인덱스 */
+    final IntArrayList dirty = new IntArrayList();
+
+    /** 다음 내보내기를 전체(키프레임)로 */
+    boolean keyframe = true;
+    /** 이 창이 걸친 섹션 ({@link AgentPerception} 섹션 색인 해제용) */
+    final LongArrayList sections = new LongArrayList();
+    int seen;          // 마지막으로 에이전트가 확인된 내보내기 번호
+    int refreshStamp;  // 청크 로드 갱신 중복 방지
+
+    VoxelWindow(UUID agent, ServerWorld world, int size, int ox, int oy, int oz) {
+        this.agent = agent;
+        this.world = world;
+        this.size = size;
+        this.ox = ox;
+        this.oy = oy;
+        this.oz = oz;
+        this.paletteIndex.defaultReturnValue(-1);
+        this.cells = new PackedIntegerArray(MIN_BITS, volume());
+        this.dirtyBits = new BitSet(volume());
+    }
+
+    int volume() {
+        return size * size * size;
+    }
+
+    int bits() {
+        return cells.getElementBits();
+    }
+
+    int get(int index) {
+        return cells.get(index);
+    }
+
+    private int index(int lx, int ly, int lz) {
+        return (ly * size + lz) * size + lx;
+    }
+
+    /* ===================== 채우기 / 이동 ===================== */
+
+    /** 창 전체를 월드에서 다시 읽음 (팔레트도 새로 만듦 → 키프레임용) */
+    void fillAll() {
+        palette.clear();
+        paletteIndex.clear();
+        paletteSent = 0;
+        cells = new PackedIntegerArray(MIN_BITS, volume());
+        clearDirty();
+
+        for (int lz = 0; lz < size; lz++) {
+            for (int lx = 0; lx < size; lx++) {
+                int x = ox + lx, z = oz + lz;
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(x >> 4, z >> 4);
+                for (int ly = 0; ly < size; ly++) {
+                    cells.set(index(lx, ly, lz), paletteId(stateAt(chunk, x, oy + ly, z)));
+                }
+            }
+        }
+    }
+
+    /** 원점만 옮김 (내용은 곧 {@link #fillAll}로 다시 읽을 때) */
+    void moveTo(int nx, int ny, int nz) {
+        ox = nx;
+        oy = ny;
+        oz = nz;
+    }
+
+    /**
+     * 창을 새 원점으로 옮김 — 겹치는 칸은 그대로 옮기고 새로 드러난 칸만 월드에서 읽음
+     * @param uncovered 새로 드러난 칸의 팔레트 인덱스 (새 창의 칸 순서대로) 를 채움
+     */
+    void shiftTo(int nx, int ny, int nz, IntArrayList uncovered) {
+        uncovered.clear();
+        // 1) 새 칸 먼저 읽기 (팔레트가 늘어 비트 수가 바뀔 수 있으므로)
+        for (int ly = 0; ly < size; ly++) {
+            for (int lz = 0; lz < size; lz++) {
+                for (int lx = 0; lx < size; lx++) {
+                    int x = nx + lx, y = ny + ly, z = nz + lz;
+                    if (inside(x, y, z)) continue;
+                    uncovered.add(paletteId(stateAt(world.getChunkManager().getWorldChunk(x >> 4, z >> 4), x, y, z)));
+                }
+            }
+        }
+        // 2) 최종 비트 수로 새 배열을 만들고 겹치는 칸 복사
+        PackedIntegerArray next = new PackedIntegerArray(cells.getElementBits(), volume());
+        int u = 0;
+        for (int ly = 0; ly < size; ly++) {
+            for (int lz = 0; lz < size; lz++) {
+                for (int lx = 0; lx < size; lx++) {
+                    int x = nx + lx, y = ny + ly, z = nz + lz;
+                    int v = inside(x, y, z) ? cells.get(index(x - ox, y - oy, z - oz)) : uncovered.getInt(u++);
+                    next.set(index(lx, ly, lz), v);
+                }
+            }
+        }
+        cells = next;
+        moveTo(nx, ny, nz);
+    }
+
+    /** 로드된 청크 열과 겹치는 칸을 다시 읽음 (바뀐 칸은 dirty) */
+    void refreshChunk(WorldChunk chunk) {
+        int minX = Math.max(ox, chunk.getPos().getStartX()), maxX = Math.min(ox + size - 1, chunk.getPos().getEndX());
+        int minZ = Math.max(oz, chunk.getPos().getStartZ()), maxZ = Math.min(oz + size - 1, chunk.getPos().getEndZ());
+        for (int z = minZ; z <= maxZ; z++)
+            for (int x = minX; x <= maxX; x++)
+                for (int y = oy; y < oy + size; y++)
+                    set(x, y, z, stateAt(chunk, x, y, z));
+    }
+
+    /* ===================== 변경 ===================== */
+
+    /** 블록 변경 반영 (창 밖이면 무시) */
+    void set(int x, int y, int z, BlockState state) {
+        if (!inside(x, y, z)) return;
+        int i = index(x - ox, y - oy, z - oz);
+        int id = paletteId(state);
+        if (cells.get(i) == id) return;
+        cells.set(i, id);
+        if (!dirtyBits.get(i)) {
+            dirtyBits.set(i);
+            dirty.add(i);
+        }
+    }
+
+    void clearDirty() {
+        for (int i = 0, n = dirty.size(); i < n; i++) dirtyBits.clear(dirty.getInt(i));
+        dirty.clear();
+    }
+
+    boolean inside(int x, int y, int z) {
+        return x >= ox && x < ox + size && y >= oy && y < oy + size && z >= oz && z < oz + size;
+    }
+
+    /* ===================== 내부 유틸 ===================== */
+
+    private int paletteId(BlockState state) {
+        int id = paletteIndex.getInt(state);
+        if (id >= 0) return id;
+        id = palette.size();
+        palette.add(state);
+        paletteIndex.put(state, id);
+        if (id >= 1 << cells.getElementBits()) grow(cells.getElementBits() + 1);
+        return id;
+    }
+
+    private void grow(int bits) {
+        PackedIntegerArray grown = new PackedIntegerArray(bits, volume());
+        for (int i = 0, n = volume(); i < n; i++) grown.set(i, cells.get(i));
+        cells = grown;
+    }
+
+    private BlockState stateAt(WorldChunk chunk, int x, int y, int z) {
+        if (chunk == null || world.isOutOfHeightLimit(y)) return UNKNOWN;
+        return chunk.getSection(world.getSectionIndex(y)).getBlockState(x & 15, y & 15, z & 15);
+    }
+}
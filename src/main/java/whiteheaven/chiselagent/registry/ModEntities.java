@@ -8,6 +8,7 @@ import net.minecraft.registry.Registries;
 import net.minecraft.registry.Registry;
 import net.minecraft.util.Identifier;
 import whiteheaven.chiselagent.ChiselAgent;
+import whiteheaven.chiselagent.config.AgentConfig;
 import whiteheaven.chiselagent.entity.AgentEntity;
 
 public class ModEntities {
@@ -20,15 +21,21 @@ public class ModEntities {
                     //  - 충돌·피격·질식·스폰 가능 공간 체크 등 "물리적 판정"에 직접 사용됨
                     .setDimensions(0.6f, 1.8f)
 
+                    // [화염 면역] 경량 베이스는 불 지속시간을 줄이는 baseTick을 돌지 않으므로
+                    //  - 용암/불을 지나도 불이 붙지 않게 함 (어차피 무적)
+                    .makeFireImmune()
+
                     // [클라 추적 범위] 플레이어가 이 거리(블록) 이내에 들어오면
                     //  - 서버가 해당 클라이언트에 엔티티 스폰/업데이트를 전송함
                     //  - 렌더거리/시뮬레이션거리와는 별개인 "네트워크 전송 기준"
-                    .maxTrackingRange(64)
+                    //  - config/chisel-agent.json 의 trackingRange (기본 64, 등록 시점에만 읽으므로 재시작 필요)
+                    .maxTrackingRange(AgentConfig.trackingRange())
 
                     // [업데이트 전송 주기] 서버→클라 상태 동기화 빈도(틱)
                     //  - 1=20Hz(매 틱), 2≈10Hz, 3≈6.67Hz …
                     //  - 움직임이 거의 없다면 10~20으로 올려 네트워크 부하를 줄일 수 있음
-                    .trackingTickInterval(3)
+                    //  - config/chisel-agent.json 의 trackingInterval (기본 3, 재시작 필요)
+                    .trackingTickInterval(AgentConfig.trackingInterval())
 
                     // [최종 빌드] 식별자 문자열은 보통 "<modid>:<path>" 형태로 넘김
                     .build(new Identifier(ChiselAgent.MOD_ID, "agent").toString())
@@ -0,0 +1,238 @@
+// src/main/java/whiteheaven/chiselagent/search/BlockSearch.java
+package whiteheaven.chiselagent.search;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+import whiteheaven.chiselagent.event.BlockChangeCallback;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * 팔레트 기반 블록 검색 (에이전트 작업용: 광석/특정 블록/빈 공간 찾기)
+ * <p>
+ * 서버 스레드 (수집 단계)
+ * - 반경 안의 로드된 청크 섹션만 대상 (검색 때문에 청크를 로드하지 않음)
+ * - 섹션 팔레트에 대상 상태가 하나도 없으면 섹션 전체를 건너뜀 (PalettedContainer#hasAny)
+ * - 섹션별 결과는 (대상, 섹션 버전) 단위로 캐시 → 블록이 바뀐 섹션만 다시 훑음
+ *   (대상은 월드마다 최근에 쓴 {@link #MAX_TARGETS}개까지만 — 대상 문자열이 계속 바뀌어도 캐시가 무한히 커지지 않게)
+ * - 다시 훑을 섹션은 팔레트 컨테이너 복사본만 떠서 넘김
+ * 작업 스레드 (Util 메인 워커)
+ * - 복사본을 칸 단위로 훑고, 캐시 결과와 합쳐 거리순 정렬
+ * 다시 서버 스레드
+ * - 새로 훑은 섹션 결과를 캐시에 넣음 (그 사이 블록이 바뀌었으면 버림)
+ * </p>
+ * 섹션 버전은 {@link BlockChangeCallback}으로 올림 (일반 setBlockState + 블록 작업 엔진)
+ */
+public final class BlockSearch {
+    private BlockSearch() {}
+
+    private static final long[] NONE = new long[0];
+
+    /** 월드별로 결과를 캐시해 두는 검색 대상 수 (가장 오래 안 쓴 대상부터 버림) */
+    private static final int MAX_TARGETS = 32;
+
+    /**
+     * 검색 대상
+     * @param key 캐시 구분용 이름 (같은 key면 같은 조건이어야 함)
+     * @param matches 칸 판정 — 작업 스레드에서도 호출되므로 상태만 보고 판단할 것
+     */
+    public record Target(String key, Predicate<BlockState> matches) {
+        public static Target of(Block block) {
+            return new Target("block:" + Registries.BLOCK.getId(block), s -> s.isOf(block));
+        }
+
+        public static Target of(BlockState state) {
+            return new Target("state:" + state, s -> s == state);
+        }
+    }
+
+    /** 섹션 1개의 검색 결과 (섹션 버전 기준) */
+    private record Cached(int version, long[] hits) {}
+
+    /** 다시 훑을 섹션의 복사본 */
+    private record Snapshot(long section, int version, PalettedContainer<BlockState> states) {}
+
+    /** 작업 스레드 결과 (새로 훑은 섹션별 결과 + 정렬된 최종 목록) */
+    private record Scan(long[][] sections, List<BlockPos> sorted) {}
+
+    /** 월드별 섹션 버전 + 대상별 결과 캐시 (서버 스레드 전용) */
+    private static final class WorldIndex {
+        final Long2IntOpenHashMap versions = new Long2IntOpenHashMap();
+        // 접근 순서 LRU — 넘치면 가장 오래 안 쓴 대상의 결과를 통째로 버림
+        final Map<String, Long2ObjectOpenHashMap<Cached>> results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long2ObjectOpenHashMap<Cached>> eldest) {
+                return size() > MAX_TARGETS;
+            }
+        };
+
+        int version(long section) {
+            return versions.get(section);
+        }
+
+        Long2ObjectOpenHashMap<Cached> cache(String key) {
+            return results.computeIfAbsent(key, k -> new Long2ObjectOpenHashMap<>());
+        }
+    }
+
+    private static final Map<ServerWorld, WorldIndex> INDEX = new IdentityHashMap<>();
+
+    /** 초기화 시 1회 등록 */
+    public static void register() {
+        BlockChangeCallback.EVENT.register((world, pos, oldState, newState) -> {
+            WorldIndex idx = INDEX.get(world);
+            if (idx != null) idx.versions.addTo(ChunkSectionPos.toLong(pos), 1);
+        });
+        // 언로드된 청크의 캐시는 버림 (다시 로드되면 내용이 달라졌을 수 있고, 메모리도 묶이지 않게)
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            WorldIndex idx = INDEX.get(world);
+            if (idx == null) return;
+            int cx = chunk.getPos().x, cz = chunk.getPos().z;
+            for (int sy = world.getBottomSectionCoord(); sy < world.getTopSectionCoord(); sy++) {
+                long key = ChunkSectionPos.asLong(cx, sy, cz);
+                idx.versions.remove(key);
+                for (Long2ObjectOpenHashMap<Cached> cache : idx.results.values()) cache.remove(key);
+            }
+            // 남은 섹션이 없는 대상은 맵째로 버림 (values() 순회라 LRU 순서는 안 바뀜)
+            for (Iterator<Long2ObjectOpenHashMap<Cached>> it = idx.results.values().iterator(); it.hasNext(); ) {
+                if (it.next().isEmpty()) it.remove();
+            }
+        });
+    }
+
+    /** 서버 종료 시 정리 */
+    public static void clearAll() {
+        INDEX.clear();
+    }
+
+    /* ===================== 검색 ===================== */
+
+    /**
+     * 중심에서 반경 안의 대상 블록을 거리순으로 찾음 (서버 스레드에서 호출)
+     * @param radius 블록 반경 (구)
+     * @param limit  최대 결과 수
+     * @return 서버 스레드에서 완료되는 future
+     */
+    public static CompletableFuture<List<BlockPos>> find(ServerWorld world, BlockPos center, int radius,
+                                                         Target target, int limit) {
+        WorldIndex idx = INDEX.computeIfAbsent(world, w -> new WorldIndex());
+        Long2ObjectOpenHashMap<Cached> cache = idx.cache(target.key());
+
+        List<long[]> known = new ArrayList<>();
+        List<Snapshot> scan = new ArrayList<>();
+
+        int minSx = (center.getX() - radius) >> 4, maxSx = (center.getX() + radius) >> 4;
+        int minSz = (center.getZ() - radius) >> 4, maxSz = (center.getZ() + radius) >> 4;
+        int minSy = Math.max(world.getBottomSectionCoord(), (center.getY() - radius) >> 4);
+        int maxSy = Math.min(world.getTopSectionCoord() - 1, (center.getY() + radius) >> 4);
+
+        for (int sx = minSx; sx <= maxSx; sx++) {
+            for (int sz = minSz; sz <= maxSz; sz++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(sx, sz);
+                if (chunk == null) continue;
+                for (int sy = minSy; sy <= maxSy; sy++) {
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+                    int version = idx.version(key);
+                    Cached c = cache.get(key);
+                    if (c != null && c.version() == version) {
+                        if (c.hits().length > 0) known.add(c.hits());
+                        continue;
+                    }
+                    ChunkSection section = chunk.getSection(world.sectionCoordToIndex(sy));
+                    if (!section.hasAny(target.matches())) {
+                        cache.put(key, new Cached(version, NONE)); // 팔레트에 없음 → 섹션 통째로 건너뜀
+                        continue;
+                    }
+                    scan.add(new Snapshot(key, version, section.getBlockStateContainer().copy()));
+                }
+            }
+        }
+
+        long centerPacked = center.asLong();
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    long[][] scanned = new long[scan.size()][];
+                    for (int i = 0; i < scan.size(); i++) scanned[i] = scanSection(scan.get(i), target.matches());
+                    return new Scan(scanned, collect(known, scanned, centerPacked, radius, limit));
+                }, Util.getMainWorkerExecutor())
+                .thenApplyAsync(result -> {
+                    for (int i = 0; i < result.sections().length; i++) {
+                        Snapshot s = scan.get(i);
+                        if (idx.version(s.section()) == s.version()) {
+                            cache.put(s.section(), new Cached(s.version(), result.sections()[i]));
+                        }
+                    }
+                    return result.sorted();
+                }, world.getServer());
+    }
+
+    /* ===================== 작업 스레드 ===================== */
+
+    /** 섹션 복사본에서 대상 칸 위치 (BlockPos#asLong) 목록 */
+    private static long[] scanSection(Snapshot s, Predicate<BlockState> matches) {
+        int bx = ChunkSectionPos.unpackX(s.section()) << 4;
+        int by = ChunkSectionPos.unpackY(s.section()) << 4;
+        int bz = ChunkSectionPos.unpackZ(s.section()) << 4;
+        LongArrayList hits = new LongArrayList();
+        PalettedContainer<BlockState> states = s.states();
+        for (int y = 0; y < 16; y++)
+            for (int z = 0; z < 16; z++)
+                for (int x = 0; x < 16; x++)
+                    if (matches.test(states.get(x, y, z))) hits.add(BlockPos.asLong(bx + x, by + y, bz + z));
+        return hits.isEmpty() ? NONE : hits.toLongArray();
+    }
+
+    /** 반경(구) 안의 결과만 모아 거리순으로 limit개 */
+    private static List<BlockPos> collect(List<long[]> known, long[][] scanned, long centerPacked,
+                                          int radius, int limit) {
+        int cx = BlockPos.unpackLongX(centerPacked);
+        int cy = BlockPos.unpackLongY(centerPacked);
+        int cz = BlockPos.unpackLongZ(centerPacked);
+        long r2 = (long) radius * radius;
+
+        LongArrayList inRange = new LongArrayList();
+        LongArrayList dist = new LongArrayList();
+        List<long[]> all = new ArrayList<>(known);
+        for (long[] s : scanned) all.add(s);
+        for (long[] hits : all) {
+            for (long p : hits) {
+                long dx = BlockPos.unpackLongX(p) - cx;
+                long dy = BlockPos.unpackLongY(p) - cy;
+                long dz = BlockPos.unpackLongZ(p) - cz;
+                long d2 = dx * dx + dy * dy + dz * dz;
+                if (d2 > r2) continue;
+                inRange.add(p);
+                dist.add(d2);
+            }
+        }
+
+        int[] order = new int[inRange.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        IntArrays.quickSort(order, (a, b) -> Long.compare(dist.getLong(a), dist.getLong(b)));
+
+        int n = Math.min(limit, order.length);
+        List<BlockPos> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(BlockPos.fromLong(inRange.getLong(order[i])));
+        return out;
+    }
+}
@@ -0,0 +1,229 @@
+// src/main/java/whiteheaven/chiselagent/trace/AgentTrace.java
+package whiteheaven.chiselagent.trace;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+import net.minecraft.util.Util;
+import net.minecraft.util.WorldSavePath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 시간 제한 추적 기록 (/agent trace &lt;초&gt;) → Chrome trace-event JSON (chrome://tracing, Perfetto에서 열림)
+ * <p>
+ * - 구간(span) = 단계 + 시작 시각 + 길이 + 에이전트 id, 시작할 때 한 번 잡은 고정 크기 배열에 기록
+ *   (기록 중 할당 없음, 가득 차면 이후 구간은 버리고 개수만 셈)
+ * - 추적 틱은 단계 경계마다 {@link #lap}: 앞 단계를 닫고 다음 단계 시작 시각을 돌려줌 (경계당 nanoTime 1회)
+ * - 꺼져 있으면 begin/lap/end 모두 정적 boolean 1회 검사 후 0 반환
+ * - 시간이 다 되면 버퍼를 넘기고 파일 쓰기는 IO 작업 스레드에서 (월드 저장 폴더/chisel-agent/traces)
+ * - 트랙: 에이전트마다 1개 (tid = 기록마다 UUID별로 새로 매기는 번호 — 풀에서 재사용된 엔티티 id로 나누면
+ *   다른 에이전트 구간이 한 트랙에 섞임), 스폰/정리 같은 서버 작업은 tid 0
+ * </p>
+ * 서버 스레드 전용 (클라이언트 고스트는 기록하지 않음)
+ */
+public final class AgentTrace {
+    private AgentTrace() {}
+
+    private static final Logger LOG = LoggerFactory.getLogger("chisel-agent");
+
+    /** 한 번에 기록할 수 있는 구간 수 (약 21바이트/구간 → 11MB) */
+    private static final int CAPACITY = 1 << 19;
+
+    /** 기록 단계 (파일에 이름으로 나감) */
+    public enum Phase {
+        FOLLOW_TICK("followOwnerTick"),
+        OWNER("owner lookup"),
+        MODE("mode detection"),
+        TARGET("target"),
+        MOVEMENT("movement"),
+        MOVE_CALL("move()"),
+        YAW("yaw sync"),
+        DIMENSION("dimension transfer"),
+        STATE_TABLE("state table"),
+        SPAWN("spawner.spawn"),
+        CALL("spawner.call"),
+        DESPAWN("spawner.despawn");
+
+        public final String label;
+        Phase(String label) { this.label = label; }
+
+        private static final Phase[] VALUES = values();
+    }
+
+    private static boolean enabled = false;
+    private static long[] starts, durations;
+    private static byte[] phases;
+    private static int[] ids;
+    private static int count, dropped;
+    private static long origin;
+    private static int endTick;
+    private static ServerCommandSource reporter;
+    private static final Object2IntOpenHashMap<UUID> TRACKS = new Object2IntOpenHashMap<>(); // 에이전트 → tid (0 = 없음)
+    private static final List<UUID> TRACK_AGENTS = new ArrayList<>();                       // tid - 1 → 에이전트
+
+    /** 초기화 시 1회 등록 */
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (enabled && server.getTicks() >= endTick) stop(server);
+        });
+    }
+
+    public static boolean isActive() {
+        return enabled;
+    }
+
+    /**
+     * 기록 시작
+     * @return 이미 기록 중이면 false
+     */
+    public static boolean start(MinecraftServer server, int seconds, ServerCommandSource source) {
+        if (enabled) return false;
+        starts = new long[CAPACITY];
+        durations = new long[CAPACITY];
+        phases = new byte[CAPACITY];
+        ids = new int[CAPACITY];
+        count = 0;
+        dropped = 0;
+        reporter = source;
+        TRACKS.clear();
+        TRACK_AGENTS.clear();
+        endTick = server.getTicks() + seconds * 20;
+        origin = System.nanoTime();
+        enabled = true;
+        return true;
+    }
+
+    /** 기록을 멈추고 파일로 씀 (기록 중이 아니면 무시) */
+    public static void stop(MinecraftServer server) {
+        if (!enabled) return;
+        enabled = false;
+
+        Snapshot snap = new Snapshot(starts, durations, phases, ids, List.copyOf(TRACK_AGENTS), count, dropped, origin);
+        starts = durations = null;
+        phases = null;
+        ids = null;
+        TRACKS.clear();
+        TRACK_AGENTS.clear();
+        ServerCommandSource src = reporter;
+        reporter = null;
+
+        Path dir = server.getSavePath(WorldSavePath.ROOT).resolve("chisel-agent").resolve("traces");
+        Path file = dir.resolve("trace-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        Util.getIoWorkerExecutor().execute(() -> {
+            String msg;
+            try {
+                Files.createDirectories(dir);
+                snap.write(file);
+                msg = String.format(Locale.ROOT, "추적 기록 저장: %s (구간 %d개%s)", file.getFileName(), snap.count,
+                        snap.dropped > 0 ? ", 버퍼가 차서 " + snap.dropped + "개 버림" : "");
+            } catch (IOException e) {
+                LOG.warn("failed to write agent trace {}: {}", file, e.toString());
+                msg = "추적 기록 저장 실패: " + e.getMessage();
+            }
+            if (src != null) {
+                String text = msg;
+                server.execute(() -> src.sendFeedback(() -> Text.literal(text), false));
+            }
+        });
+    }
+
+    /** 서버 종료 시 (파일 쓰지 않고 버림) */
+    public static void clear() {
+        enabled = false;
+        starts = durations = null;
+        phases = null;
+        ids = null;
+        reporter = null;
+        TRACKS.clear();
+        TRACK_AGENTS.clear();
+    }
+
+    /* ===================== 기록 ===================== */
+
+    /** 구간 시작 시각 (꺼져 있으면 0) */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** 에이전트 트랙 번호 (꺼져 있으면 0, 이번 기록에서 처음 본 에이전트면 새 번호 — 할당은 그때만) */
+    public static int track(UUID agent) {
+        if (!enabled) return 0;
+        int tid = TRACKS.getInt(agent);
+        if (tid == 0) {
+            TRACK_AGENTS.add(agent);
+            tid = TRACK_AGENTS.size();
+            TRACKS.put(agent, tid);
+        }
+        return tid;
+    }
+
+    /** 구간 닫기 */
+    public static void end(Phase phase, long start, int id) {
+        if (start == 0L || !enabled) return;
+        add(phase, start, System.nanoTime(), id);
+    }
+
+    /** 구간을 닫고 바로 다음 구간 시작 시각을 돌려줌 (꺼져 있으면 0) */
+    public static long lap(Phase phase, long start, int id) {
+        if (start == 0L || !enabled) return 0L;
+        long now = System.nanoTime();
+        add(phase, start, now, id);
+        return now;
+    }
+
+    private static void add(Phase phase, long start, long end, int id) {
+        int i = count;
+        if (i == CAPACITY) {
+            dropped++;
+            return;
+        }
+        starts[i] = start;
+        durations[i] = end - start;
+        phases[i] = (byte) phase.ordinal();
+        ids[i] = id;
+        count = i + 1;
+    }
+
+    /* ===================== 파일 ===================== */
+
+    /** 기록이 끝난 버퍼 (IO 스레드로 넘김) */
+    private record Snapshot(long[] starts, long[] durations, byte[] phases, int[] ids, List<UUID> tracks,
+                            int count, int dropped, long origin) {
+
+        void write(Path file) throws IOException {
+            try (Writer w = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+                w.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+                w.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"chisel-agent\"}}");
+                w.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":0,\"args\":{\"name\":\"server\"}}");
+
+                for (int t = 0; t < tracks.size(); t++) {
+                    w.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + (t + 1)
+                            + ",\"args\":{\"name\":\"agent " + tracks.get(t) + "\"}}");
+                }
+                for (int i = 0; i < count; i++) {
+                    w.write(String.format(Locale.ROOT,
+                            ",\n{\"name\":\"%s\",\"cat\":\"agent\",\"ph\":\"X\",\"pid\":1,\"tid\":%d,\"ts\":%.3f,\"dur\":%.3f}",
+                            Phase.VALUES[phases[i]].label, Math.max(0, ids[i]),
+                            (starts[i] - origin) / 1000.0, durations[i] / 1000.0));
+                }
+                w.write("\n]}\n");
+            }
+        }
+    }
+}